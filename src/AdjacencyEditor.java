@@ -0,0 +1,251 @@
+import javax.swing.*;
+import javax.swing.table.AbstractTableModel;
+import javax.swing.table.TableColumn;
+import java.awt.*;
+import java.awt.datatransfer.DataFlavor;
+import java.awt.datatransfer.UnsupportedFlavorException;
+import java.awt.event.ActionEvent;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.BitSet;
+
+// Редактор матрицы смежности для ручного ввода графа. Матрица хранится строками BitSet (строка создается
+// при первом ребре из вершины), а показывается таблицей JTable, которая рисует только видимые ячейки,
+// поэтому редактор открывается сразу и на графах в тысячи вершин. Петли запрещены, как и прежде.
+// Ребра можно вставить из буфера обмена списком (Ctrl+V или кнопка, формат EdgeListFormat) за один разбор
+public class AdjacencyEditor extends JPanel {
+    private static final int CELL_WIDTH = 44; // Ширина столбца вершины
+    private static final int HEADER_WIDTH = 64; // Ширина заголовков строк
+    private static final int MAX_VIEW = 720; // Наибольший размер видимой области таблицы
+
+    private final Model model; // Матрица смежности
+    private final JTable table;
+    private final JLabel edgeLabel = new JLabel(); // Число ребер
+
+    // Матрица смежности: строка - начальная вершина, столбец - конечная
+    private static final class Model extends AbstractTableModel {
+        private final int vertexCount;
+        private final BitSet[] rows; // Концы ребер из каждой вершины (null - ребер нет)
+        private int edgeCount;
+
+        Model(int vertexCount) {
+            this.vertexCount = vertexCount;
+            this.rows = new BitSet[vertexCount];
+        }
+
+        // Добавление ребра from -> to без уведомления таблицы (false - петля или уже есть)
+        boolean add(int from, int to) {
+            if (from == to) return false;
+            BitSet row = rows[from];
+            if (row == null) row = rows[from] = new BitSet();
+            if (row.get(to)) return false;
+            row.set(to);
+            edgeCount++;
+            return true;
+        }
+
+        boolean get(int from, int to) {
+            return rows[from] != null && rows[from].get(to);
+        }
+
+        @Override
+        public int getRowCount() {
+            return vertexCount;
+        }
+
+        @Override
+        public int getColumnCount() {
+            return vertexCount;
+        }
+
+        @Override
+        public String getColumnName(int column) {
+            return "В " + column;
+        }
+
+        @Override
+        public Class<?> getColumnClass(int column) {
+            return Boolean.class; // Ячейки рисуются и редактируются флажком
+        }
+
+        @Override
+        public boolean isCellEditable(int row, int column) {
+            return row != column; // Запрещаем петли (ребра из вершины в саму себя)
+        }
+
+        @Override
+        public Object getValueAt(int row, int column) {
+            return get(row, column);
+        }
+
+        @Override
+        public void setValueAt(Object value, int row, int column) {
+            boolean selected = Boolean.TRUE.equals(value);
+            if (selected == get(row, column)) return;
+            if (selected) {
+                add(row, column);
+            } else {
+                rows[row].clear(column);
+                edgeCount--;
+            }
+            fireTableCellUpdated(row, column);
+        }
+
+        // Граф CSR: соседи каждой вершины по возрастанию номеров
+        CSRGraph toGraph() {
+            int[] offsets = new int[vertexCount + 1];
+            int[] targets = new int[edgeCount];
+            int e = 0;
+            for (int from = 0; from < vertexCount; from++) {
+                BitSet row = rows[from];
+                if (row != null) {
+                    for (int to = row.nextSetBit(0); to >= 0; to = row.nextSetBit(to + 1)) targets[e++] = to;
+                }
+                offsets[from + 1] = e;
+            }
+            return new CSRGraph(offsets, targets);
+        }
+    }
+
+    // Редактор графа на vertexCount вершинах, initial - исходные ребра (null - пустой граф или другое число вершин)
+    public AdjacencyEditor(int vertexCount, CSRGraph initial, Color background, Color foreground) {
+        super(new BorderLayout(5, 5));
+        setBackground(background);
+        model = new Model(vertexCount);
+        if (initial != null && initial.vertexCount() == vertexCount) {
+            for (int v = 0; v < vertexCount; v++) {
+                for (int e = initial.firstEdge(v); e < initial.lastEdge(v); e++) model.add(v, initial.target(e));
+            }
+        }
+
+        table = new JTable(model);
+        table.setAutoResizeMode(JTable.AUTO_RESIZE_OFF); // Столбцы фиксированной ширины, прокрутка по горизонтали
+        table.setCellSelectionEnabled(true);
+        table.getTableHeader().setReorderingAllowed(false);
+        table.setBackground(background);
+        table.setForeground(foreground);
+        table.setGridColor(foreground.darker().darker());
+        table.getTableHeader().setBackground(background);
+        table.getTableHeader().setForeground(foreground);
+        for (int c = 0; c < vertexCount; c++) {
+            TableColumn column = table.getColumnModel().getColumn(c);
+            column.setPreferredWidth(CELL_WIDTH);
+            column.setWidth(CELL_WIDTH);
+        }
+        // Флажки ячеек в цветах редактора (недоступные ячейки диагонали - бледнее)
+        JCheckBox check = new JCheckBox();
+        check.setHorizontalAlignment(SwingConstants.CENTER);
+        check.setBackground(background);
+        table.setDefaultRenderer(Boolean.class, (t, value, selected, focused, row, column) -> {
+            check.setSelected(Boolean.TRUE.equals(value));
+            check.setEnabled(row != column);
+            check.setBackground(selected ? t.getSelectionBackground() : background);
+            return check;
+        });
+
+        JList<String> rowHeader = new JList<>(new AbstractListModel<String>() {
+            @Override
+            public int getSize() {
+                return vertexCount;
+            }
+
+            @Override
+            public String getElementAt(int index) {
+                return "Из " + index;
+            }
+        });
+        rowHeader.setFixedCellWidth(HEADER_WIDTH); // Фиксированные размеры: список не измеряет все строки
+        rowHeader.setFixedCellHeight(table.getRowHeight());
+        rowHeader.setBackground(background);
+        rowHeader.setForeground(foreground);
+        rowHeader.setFocusable(false);
+        DefaultListCellRenderer headerRenderer = new DefaultListCellRenderer();
+        headerRenderer.setHorizontalAlignment(SwingConstants.LEFT);
+        rowHeader.setCellRenderer((list, value, index, selected, focused) ->
+                headerRenderer.getListCellRendererComponent(list, value, index, false, false));
+
+        JScrollPane scroll = new JScrollPane(table);
+        scroll.setRowHeaderView(rowHeader);
+        scroll.getViewport().setBackground(background);
+        table.setPreferredScrollableViewportSize(new Dimension(
+                Math.min(MAX_VIEW, vertexCount * CELL_WIDTH),
+                Math.min(MAX_VIEW / 2, vertexCount * table.getRowHeight())));
+        add(scroll, BorderLayout.CENTER);
+
+        Action paste = new AbstractAction("Вставить список ребер") {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                pasteFromClipboard();
+            }
+        };
+        table.getInputMap(JComponent.WHEN_FOCUSED).put(KeyStroke.getKeyStroke("ctrl V"), "pasteEdges");
+        table.getActionMap().put("pasteEdges", paste);
+
+        JPanel bottom = new JPanel(new FlowLayout(FlowLayout.LEFT, 5, 0));
+        bottom.setBackground(background);
+        JButton pasteButton = new JButton(paste);
+        pasteButton.setToolTipText("Строки \"из в\" из буфера обмена, также Ctrl+V в таблице");
+        bottom.add(pasteButton);
+        JButton clearButton = new JButton("Очистить");
+        clearButton.addActionListener(e -> clear());
+        bottom.add(clearButton);
+        edgeLabel.setForeground(foreground);
+        bottom.add(edgeLabel);
+        add(bottom, BorderLayout.SOUTH);
+        updateEdgeLabel();
+        model.addTableModelListener(e -> updateEdgeLabel());
+    }
+
+    // Вставка ребер из текста буфера обмена
+    private void pasteFromClipboard() {
+        String text;
+        try {
+            text = (String) Toolkit.getDefaultToolkit().getSystemClipboard().getData(DataFlavor.stringFlavor);
+        } catch (UnsupportedFlavorException | IOException | IllegalStateException e) {
+            JOptionPane.showMessageDialog(this, "В буфере обмена нет текста", "Ошибка", JOptionPane.ERROR_MESSAGE);
+            return;
+        }
+        try {
+            int added = pasteEdges(text);
+            edgeLabel.setText(edgeLabel.getText() + " (вставлено " + added + ")");
+        } catch (IllegalArgumentException e) {
+            JOptionPane.showMessageDialog(this, e.getMessage(), "Ошибка", JOptionPane.ERROR_MESSAGE);
+        }
+    }
+
+    // Добавление ребер из текстового списка (EdgeListFormat); петли и уже имеющиеся ребра пропускаются.
+    // Возвращает число добавленных ребер; при ошибке разбора матрица не меняется
+    public int pasteEdges(String text) {
+        EdgeListFormat.EdgeList edges = EdgeListFormat.parseEdges(text);
+        if (edges.getVertexCount() > model.vertexCount) {
+            throw new IllegalArgumentException("В списке " + edges.getVertexCount() + " вершин, в графе " + model.vertexCount);
+        }
+        int added = 0;
+        for (int e = 0; e < edges.getEdgeCount(); e++) {
+            if (model.add(edges.getFrom(e), edges.getTo(e))) added++;
+        }
+        if (added > 0) model.fireTableDataChanged(); // Одно обновление таблицы на всю вставку
+        return added;
+    }
+
+    // Удаление всех ребер
+    public void clear() {
+        Arrays.fill(model.rows, null);
+        model.edgeCount = 0;
+        model.fireTableDataChanged();
+    }
+
+    private void updateEdgeLabel() {
+        edgeLabel.setText("Ребер: " + model.edgeCount);
+    }
+
+    // Число ребер в матрице
+    public int getEdgeCount() {
+        return model.edgeCount;
+    }
+
+    // Введенный граф
+    public CSRGraph getGraph() {
+        return model.toGraph();
+    }
+}
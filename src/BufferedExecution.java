@@ -0,0 +1,57 @@
+import java.util.List;
+
+// Пошаговое выполнение для алгоритмов без собственного пошагового варианта: поиск выполняется
+// целиком при первом запросе, а события выдаются порциями из полного журнала.
+// Воспроизведение начинается после полного поиска, а память под журнал не ограничена окном
+public class BufferedExecution implements SCCExecution {
+    private final SCCEngine engine; // Алгоритм
+    private final CSRGraph graph; // Граф
+    private StepTrace buffer; // Полный журнал (null - поиск еще не выполнен)
+    private SCCResult result; // Результат поиска
+    private int position; // Следующее выдаваемое событие
+    private boolean done; // Все события выданы
+
+    // Выполнение алгоритма engine на графе graph
+    public BufferedExecution(SCCEngine engine, CSRGraph graph) {
+        this.engine = engine;
+        this.graph = graph;
+    }
+
+    // Поиск целиком с записью журнала (если не вызвано заранее, выполняется при первом advance)
+    @Override
+    public void prepare() {
+        if (buffer != null || done) return;
+        buffer = new StepTrace();
+        result = engine.findSCCs(graph, buffer);
+    }
+
+    @Override
+    public boolean advance(StepTrace trace, long budget) {
+        if (done) return false;
+        prepare();
+        for (; budget > 0 && position < buffer.size(); budget--, position++) {
+            if (trace != null) trace.add(buffer.type(position), buffer.first(position), buffer.second(position));
+        }
+        if (position == buffer.size()) { // Все события выданы - журнал больше не нужен
+            done = true;
+            buffer = null;
+        }
+        return !done;
+    }
+
+    @Override
+    public boolean isDone() {
+        return done;
+    }
+
+    @Override
+    public SCCResult getResult() {
+        return done ? result : null;
+    }
+
+    @Override
+    public List<Integer> getComponent(int c) {
+        if (result == null) throw new IndexOutOfBoundsException("Компонента " + c + " еще не найдена");
+        return result.getComponents().get(c);
+    }
+}
@@ -0,0 +1,360 @@
+import java.io.Serializable;
+import java.lang.ref.SoftReference;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.stream.IntStream;
+
+// Ориентированный граф в формате CSR (compressed sparse row).
+// Ребра вершины v лежат в targets[offsets[v] .. offsets[v + 1]), порядок соседей сохраняется.
+// Объект неизменяемый, поэтому его можно безопасно разделять между алгоритмом и панелями.
+// Подклассы могут хранить массивы вне кучи (см. MappedCSRGraph), переопределяя методы доступа
+public class CSRGraph implements Serializable {
+    private static final int PARALLEL_TRANSPOSE_EDGES = 1 << 20; // С какого числа ребер транспонировать параллельно
+    // Зерно хэша содержимого, случайное в каждом процессе: совпадения хэшей нельзя подобрать заранее
+    private static final long HASH_SEED = new SplittableRandom().nextLong();
+
+    private final int[] offsets; // Начало списка ребер каждой вершины (длина vertexCount + 1)
+    private final int[] targets; // Концы ребер, сгруппированные по начальной вершине
+    // Кэш обращенного графа: мягкая ссылка, чтобы граф не удерживал вторую копию CSR при нехватке памяти
+    private transient volatile SoftReference<CSRGraph> transposed;
+    private transient volatile long contentHash; // Кэш хэша содержимого (0 - не вычислен)
+
+    // Конструктор из готовых массивов, offsets смещения (длина V + 1), targets концы ребер
+    public CSRGraph(int[] offsets, int[] targets) {
+        if (offsets.length == 0 || offsets[0] != 0 || offsets[offsets.length - 1] != targets.length) {
+            throw new IllegalArgumentException("Некорректные массивы CSR");
+        }
+        this.offsets = offsets;
+        this.targets = targets;
+    }
+
+    // Конструктор для подклассов, которые хранят граф сами и переопределяют методы доступа
+    protected CSRGraph() {
+        this.offsets = null;
+        this.targets = null;
+    }
+
+    // Пустой граф без вершин
+    public static CSRGraph empty() {
+        return new CSRGraph(new int[1], new int[0]);
+    }
+
+    // Количество вершин
+    public int vertexCount() {
+        return offsets.length - 1;
+    }
+
+    // Количество ребер
+    public int edgeCount() {
+        return targets.length;
+    }
+
+    // Индекс первого ребра вершины v
+    public int firstEdge(int v) {
+        return offsets[v];
+    }
+
+    // Индекс, следующий за последним ребром вершины v
+    public int lastEdge(int v) {
+        return offsets[v + 1];
+    }
+
+    // Полустепень исхода вершины v
+    public int degree(int v) {
+        return offsets[v + 1] - offsets[v];
+    }
+
+    // Конечная вершина ребра с индексом edge
+    public int target(int edge) {
+        return targets[edge];
+    }
+
+    // Проверка наличия ребра from -> to (линейно по степени вершины)
+    public boolean hasEdge(int from, int to) {
+        for (int e = firstEdge(from); e < lastEdge(from); e++) {
+            if (target(e) == to) return true;
+        }
+        return false;
+    }
+
+    // Транспонирование графа сортировкой подсчетом: первый проход считает входящие степени,
+    // второй раскладывает ребра по местам. Внутри каждой вершины соседи идут по возрастанию исходной вершины
+    public CSRGraph transpose() {
+        int V = vertexCount();
+        int[] reversedOffsets = new int[V + 1];
+        for (int target : targets) {
+            reversedOffsets[target + 1]++; // Считаем входящие ребра
+        }
+        for (int v = 0; v < V; v++) {
+            reversedOffsets[v + 1] += reversedOffsets[v]; // Префиксные суммы дают начала списков
+        }
+        int[] cursor = Arrays.copyOf(reversedOffsets, V); // Текущая позиция записи для каждой вершины
+        int[] reversedTargets = new int[targets.length];
+        for (int v = 0; v < V; v++) {
+            for (int e = offsets[v]; e < offsets[v + 1]; e++) {
+                reversedTargets[cursor[targets[e]]++] = v; // Разворачиваем ребро
+            }
+        }
+        return new CSRGraph(reversedOffsets, reversedTargets);
+    }
+
+    // Параллельное транспонирование той же сортировкой подсчетом. Исходные вершины делятся на
+    // непрерывные блоки с примерно равным числом ребер; каждый блок считает свои входящие степени,
+    // после чего для пары (блок, вершина) известна позиция записи и блоки раскладывают ребра независимо.
+    // Результат совпадает с transpose(). Блоков не больше средней степени, чтобы счетчики
+    // занимали не больше памяти, чем сами ребра. Выполняется в текущем ForkJoinPool (или в общем пуле)
+    public CSRGraph transposeParallel(int parallelism) {
+        int V = vertexCount();
+        int E = targets.length;
+        int chunks = (int) Math.max(1, Math.min(parallelism, (long) E / Math.max(1, V)));
+        int[] bounds = new int[chunks + 1]; // Границы блоков исходных вершин
+        for (int k = 1; k < chunks; k++) {
+            int edge = (int) ((long) E * k / chunks);
+            int v = Arrays.binarySearch(offsets, edge);
+            if (v < 0) v = -v - 2; // Вершина, внутри ребер которой лежит граница
+            while (v > 0 && offsets[v - 1] == offsets[v]) v--; // Первая из вершин с тем же смещением
+            bounds[k] = Math.max(bounds[k - 1], Math.min(v, V));
+        }
+        bounds[chunks] = V;
+
+        int[][] position = new int[chunks][]; // Входящие степени блока, затем позиции записи
+        IntStream.range(0, chunks).parallel().forEach(k -> {
+            int[] count = new int[V];
+            for (int e = offsets[bounds[k]]; e < offsets[bounds[k + 1]]; e++) {
+                count[targets[e]]++; // Считаем входящие ребра блока
+            }
+            position[k] = count;
+        });
+
+        int[] reversedOffsets = new int[V + 1];
+        IntStream.range(0, V).parallel().forEach(t -> {
+            int total = 0;
+            for (int k = 0; k < chunks; k++) total += position[k][t];
+            reversedOffsets[t + 1] = total;
+        });
+        Arrays.parallelPrefix(reversedOffsets, Integer::sum); // Префиксные суммы дают начала списков
+        IntStream.range(0, V).parallel().forEach(t -> { // Блок k пишет после всех блоков с меньшим номером
+            int next = reversedOffsets[t];
+            for (int k = 0; k < chunks; k++) {
+                int count = position[k][t];
+                position[k][t] = next;
+                next += count;
+            }
+        });
+
+        int[] reversedTargets = new int[E];
+        IntStream.range(0, chunks).parallel().forEach(k -> {
+            int[] cursor = position[k];
+            for (int v = bounds[k]; v < bounds[k + 1]; v++) {
+                for (int e = offsets[v]; e < offsets[v + 1]; e++) {
+                    reversedTargets[cursor[targets[e]]++] = v; // Разворачиваем ребро
+                }
+            }
+        });
+        return new CSRGraph(reversedOffsets, reversedTargets);
+    }
+
+    // Обращенный граф с кэшированием: граф неизменяемый, поэтому транспонирование выполняется один раз,
+    // пока сборщик мусора не освободит кэш. Вызывающий удерживает результат, пока он нужен.
+    // Для больших графов при наличии нескольких потоков используется параллельный вариант
+    public CSRGraph transposed() {
+        SoftReference<CSRGraph> cached = transposed;
+        CSRGraph result = cached != null ? cached.get() : null;
+        if (result == null) {
+            int parallelism = ForkJoinTask.inForkJoinPool()
+                    ? ForkJoinTask.getPool().getParallelism()
+                    : ForkJoinPool.getCommonPoolParallelism();
+            result = edgeCount() >= PARALLEL_TRANSPOSE_EDGES && parallelism > 1 ? transposeParallel(parallelism) : transpose();
+            result.transposed = new SoftReference<>(this); // Обращение обращенного графа - исходный граф
+            transposed = new SoftReference<>(result);
+        }
+        return result;
+    }
+
+    // Обращенный граф, если он уже в кэше (null - transposed() будет транспонировать)
+    public CSRGraph getCachedTransposed() {
+        SoftReference<CSRGraph> cached = transposed;
+        return cached != null ? cached.get() : null;
+    }
+
+    // Сброс кэша обращенного графа: следующий transposed() транспонирует заново
+    // (замеры с учетом транспонирования, освобождение памяти)
+    public void dropTransposed() {
+        transposed = null;
+    }
+
+    // Хэш содержимого (xxHash64 массивов offsets и targets со случайным зерном процесса): одинаковые графы
+    // в любом представлении (в куче или в файле) имеют в процессе одинаковый хэш, между процессами хэши
+    // различаются. Совпадение хэшей не гарантирует совпадения графов (см. contentEquals).
+    // Вычисляется при первом обращении
+    public long contentHash() {
+        long hash = contentHash;
+        if (hash == 0) {
+            XXHash64 hasher = new XXHash64(HASH_SEED);
+            if (offsets != null) {
+                hasher.update(offsets, 0, offsets.length).update(targets, 0, targets.length);
+            } else { // Подкласс хранит массивы сам: читаем их блоками через методы доступа
+                int[] buffer = new int[8192];
+                int V = vertexCount();
+                for (int from = 0; from <= V; from += buffer.length) {
+                    int count = Math.min(buffer.length, V + 1 - from);
+                    for (int i = 0; i < count; i++) buffer[i] = from + i < V ? firstEdge(from + i) : edgeCount();
+                    hasher.update(buffer, 0, count);
+                }
+                for (int from = 0; from < edgeCount(); from += buffer.length) {
+                    int count = Math.min(buffer.length, edgeCount() - from);
+                    for (int i = 0; i < count; i++) buffer[i] = target(from + i);
+                    hasher.update(buffer, 0, count);
+                }
+            }
+            hash = hasher.digest();
+            contentHash = hash;
+        }
+        return hash;
+    }
+
+    // Совпадение содержимого с графом other (те же смещения и концы ребер) в любом представлении
+    public boolean contentEquals(CSRGraph other) {
+        if (other == this) return true;
+        int V = vertexCount();
+        int E = edgeCount();
+        if (other.vertexCount() != V || other.edgeCount() != E) return false;
+        if (offsets != null && other.offsets != null) {
+            return Arrays.equals(offsets, other.offsets) && Arrays.equals(targets, other.targets);
+        }
+        for (int v = 0; v < V; v++) { // Подкласс хранит массивы сам: сравниваем через методы доступа
+            if (firstEdge(v) != other.firstEdge(v)) return false;
+        }
+        for (int e = 0; e < E; e++) {
+            if (target(e) != other.target(e)) return false;
+        }
+        return true;
+    }
+
+    // Память массивов графа в куче в байтах (0 - подкласс хранит их вне кучи)
+    public long getByteSize() {
+        return offsets != null ? 4L * (offsets.length + targets.length) : 0;
+    }
+
+    // Представление графа в виде списка смежности только для чтения (без копирования)
+    public List<List<Integer>> asAdjacencyList() {
+        return new AdjacencyView();
+    }
+
+    // Изменяемая и сериализуемая копия графа в виде списка смежности (для экспорта)
+    public List<List<Integer>> toAdjacencyList() {
+        List<List<Integer>> result = new ArrayList<>(vertexCount());
+        for (int v = 0; v < vertexCount(); v++) {
+            List<Integer> neighbors = new ArrayList<>(degree(v));
+            for (int e = firstEdge(v); e < lastEdge(v); e++) {
+                neighbors.add(target(e));
+            }
+            result.add(neighbors);
+        }
+        return result;
+    }
+
+    // Построение графа из списка смежности, adjacency список соседей для каждой вершины
+    public static CSRGraph fromAdjacencyList(List<List<Integer>> adjacency) {
+        int V = adjacency.size();
+        int[] offsets = new int[V + 1];
+        for (int v = 0; v < V; v++) {
+            offsets[v + 1] = offsets[v] + adjacency.get(v).size();
+        }
+        int[] targets = new int[offsets[V]];
+        for (int v = 0; v < V; v++) {
+            int e = offsets[v];
+            for (int to : adjacency.get(v)) {
+                if (to < 0 || to >= V) {
+                    throw new IllegalArgumentException("Ребро " + v + " -> " + to + " выходит за пределы графа");
+                }
+                targets[e++] = to;
+            }
+        }
+        return new CSRGraph(offsets, targets);
+    }
+
+    // Представление списка смежности поверх массивов CSR
+    private class AdjacencyView extends AbstractList<List<Integer>> implements RandomAccess {
+        @Override
+        public List<Integer> get(int v) {
+            Objects.checkIndex(v, vertexCount());
+            return new NeighborView(firstEdge(v), lastEdge(v));
+        }
+
+        @Override
+        public int size() {
+            return vertexCount();
+        }
+    }
+
+    // Представление соседей одной вершины
+    private class NeighborView extends AbstractList<Integer> implements RandomAccess {
+        private final int from; // Первое ребро
+        private final int to; // Граница ребер
+
+        NeighborView(int from, int to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        public Integer get(int index) {
+            Objects.checkIndex(index, to - from);
+            return target(from + index);
+        }
+
+        @Override
+        public int size() {
+            return to - from;
+        }
+    }
+
+    // Построитель графа: ребра добавляются в любом порядке, порядок соседей каждой вершины сохраняется
+    public static class Builder {
+        private final int vertexCount; // Количество вершин
+        private int[] from = new int[16]; // Начала добавленных ребер
+        private int[] to = new int[16]; // Концы добавленных ребер
+        private int edgeCount; // Количество добавленных ребер
+
+        // Конструктор построителя, vertexCount количество вершин
+        public Builder(int vertexCount) {
+            if (vertexCount < 0) throw new IllegalArgumentException("Отрицательное число вершин");
+            this.vertexCount = vertexCount;
+        }
+
+        // Добавление ребра from -> to
+        public Builder addEdge(int from, int to) {
+            if (from < 0 || from >= vertexCount || to < 0 || to >= vertexCount) {
+                throw new IllegalArgumentException("Ребро " + from + " -> " + to + " выходит за пределы графа");
+            }
+            if (edgeCount == this.from.length) { // Расширяем массивы при заполнении
+                int capacity = this.from.length * 2;
+                this.from = Arrays.copyOf(this.from, capacity);
+                this.to = Arrays.copyOf(this.to, capacity);
+            }
+            this.from[edgeCount] = from;
+            this.to[edgeCount] = to;
+            edgeCount++;
+            return this;
+        }
+
+        // Сборка графа устойчивой сортировкой ребер подсчетом по начальной вершине
+        public CSRGraph build() {
+            int[] offsets = new int[vertexCount + 1];
+            for (int i = 0; i < edgeCount; i++) {
+                offsets[from[i] + 1]++; // Считаем исходящие ребра
+            }
+            for (int v = 0; v < vertexCount; v++) {
+                offsets[v + 1] += offsets[v]; // Префиксные суммы
+            }
+            int[] cursor = Arrays.copyOf(offsets, vertexCount);
+            int[] targets = new int[edgeCount];
+            for (int i = 0; i < edgeCount; i++) {
+                targets[cursor[from[i]]++] = to[i]; // Раскладываем ребра по вершинам
+            }
+            return new CSRGraph(offsets, targets);
+        }
+    }
+}
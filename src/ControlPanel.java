@@ -1,16 +1,26 @@
 import javax.swing.*;
 import javax.swing.border.TitledBorder;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
 import java.awt.*;
+import java.util.List;
 
 // Панель управления визуализацией алгоритма
 public class ControlPanel extends JPanel {
+    private static final long STEP_NANOS = 1_000_000_000L; // Наибольшее время вычисления следующего шага вручную
     private JTextField delayField; // Поле для ввода задержки между шагами (мс)
+    private int delay = 1000; // Последняя корректная задержка (разбирается при изменении поля, а не на каждом шаге)
+    private JCheckBox maxSpeedBox; // Режим максимальной скорости
     private JLabel stepLabel; // Метка для отображения текущего шага
     private JLabel totalStepsLabel; // Метка для отображения общего количества шагов
+    private JSlider stepSlider; // Ползунок перехода к произвольному шагу
+    private JLabel stateLabel; // Состояние алгоритма на текущем шаге
+    private boolean updatingSlider; // Ползунок двигается программно (не переход пользователя)
     private JButton startButton; // Кнопка для запуска алгоритма
     private JButton stopButton; // Кнопка для остановки алгоритма
     private JButton prevButton; // Кнопка "Назад"
     private JButton nextButton; // Кнопка "Вперед"
+    private JComboBox<String> engineBox; // Выбор алгоритма поиска компонент
     private volatile boolean isRunning; // Флаг выполнения алгоритма
     private SCCVisualizer visualizer; // Ссылка на главное окно визуализатора
     // Цвета по умолчанию (можно перенести в SCCVisualizer, если нужно переключать тему)
@@ -21,7 +31,7 @@ public class ControlPanel extends JPanel {
     // Конструктор панели управления, visualizer ссылка на главное окно
     public ControlPanel(SCCVisualizer visualizer) {
         this.visualizer = visualizer; // Сохраняем ссылку на визуализатор
-        setLayout(new GridLayout(2, 1, 5, 5)); // Устанавливаем сетку для размещения элементов
+        setLayout(new GridLayout(3, 1, 5, 5)); // Устанавливаем сетку для размещения элементов
         setBorder(BorderFactory.createTitledBorder(new TitledBorder(null, "Управление", TitledBorder.LEADING, TitledBorder.TOP, null, foregroundColor))); // Устанавливаем заголовок панели
         setBackground(backgroundColor);
         setForeground(foregroundColor);
@@ -41,8 +51,47 @@ public class ControlPanel extends JPanel {
         delayField.setBackground(backgroundColor);
         delayField.setForeground(foregroundColor);
         delayField.setCaretColor(foregroundColor);
+        // Задержка разбирается при каждом изменении поля и сразу передается воспроизведению
+        delayField.getDocument().addDocumentListener(new DocumentListener() {
+            @Override
+            public void insertUpdate(DocumentEvent e) {
+                delayChanged();
+            }
+
+            @Override
+            public void removeUpdate(DocumentEvent e) {
+                delayChanged();
+            }
+
+            @Override
+            public void changedUpdate(DocumentEvent e) {
+                delayChanged();
+            }
+        });
         autoPanel.add(delayField);
 
+        maxSpeedBox = new JCheckBox("Макс. скорость"); // Переход к последнему шагу без промежуточных кадров
+        maxSpeedBox.setBackground(backgroundColor);
+        maxSpeedBox.setForeground(foregroundColor);
+        maxSpeedBox.addActionListener(e -> visualizer.getPlayback().setMaxSpeed(maxSpeedBox.isSelected()));
+        autoPanel.add(maxSpeedBox);
+
+        JLabel engineLabel = new JLabel("Алгоритм:"); // Метка для выбора алгоритма
+        engineLabel.setForeground(foregroundColor);
+        autoPanel.add(engineLabel);
+
+        List<SCCEngine> engines = SCCEngine.available(); // Доступные алгоритмы
+        engineBox = new JComboBox<>(engines.stream().map(SCCEngine::getName).toArray(String[]::new));
+        engineBox.setBackground(buttonColor);
+        engineBox.setForeground(foregroundColor);
+        // Обработчик выбора алгоритма: следующий запуск начнется с начала выбранным алгоритмом
+        engineBox.addActionListener(e -> {
+            visualizer.stopVisualization(); // Ожидающий запуск относится к прежнему алгоритму
+            visualizer.getAlgorithm().setEngine(engines.get(engineBox.getSelectedIndex()));
+            visualizer.getAlgorithm().setExecutionPosition(0);
+        });
+        autoPanel.add(engineBox);
+
         startButton = new JButton("Старт"); // Кнопка "Старт"
         startButton.setBackground(buttonColor);
         startButton.setForeground(foregroundColor);
@@ -59,10 +108,7 @@ public class ControlPanel extends JPanel {
         stopButton.setForeground(foregroundColor);
         stopButton.setEnabled(false); // Изначально кнопка отключена
         // Обработчик кнопки "Стоп"
-        stopButton.addActionListener(e -> {
-            setRunning(false); // Останавливаем выполнение
-            // Позиция сохраняется автоматически в SCCVisualizer
-        });
+        stopButton.addActionListener(e -> visualizer.stopVisualization()); // Останавливаем выполнение с сохранением позиции
         autoPanel.add(stopButton);
 
         JButton resultButton = new JButton("Результат"); // Кнопка для отображения результата
@@ -109,20 +155,41 @@ public class ControlPanel extends JPanel {
         totalStepsLabel.setForeground(foregroundColor);
         manualPanel.add(totalStepsLabel);
 
-        // Добавляем обе панели на основную панель
+        // 3. Панель перехода к шагу: ползунок по журналу и состояние алгоритма на выбранном шаге
+        JPanel seekPanel = new JPanel(new BorderLayout(10, 0));
+        seekPanel.setBorder(BorderFactory.createTitledBorder(new TitledBorder(null, "Переход к шагу", TitledBorder.LEADING, TitledBorder.TOP, null, foregroundColor)));
+        seekPanel.setBackground(backgroundColor);
+        seekPanel.setForeground(foregroundColor);
+
+        stepSlider = new JSlider(0, 0, 0);
+        stepSlider.setBackground(backgroundColor);
+        stepSlider.setForeground(foregroundColor);
+        // Обработчик ползунка: состояние восстанавливается по индексу журнала, поэтому переход к любому шагу быстрый
+        stepSlider.addChangeListener(e -> {
+            if (!updatingSlider) visualizer.seekStep(stepSlider.getValue());
+        });
+        seekPanel.add(stepSlider, BorderLayout.CENTER);
+
+        stateLabel = new JLabel(" ");
+        stateLabel.setForeground(foregroundColor);
+        seekPanel.add(stateLabel, BorderLayout.SOUTH);
+
+        // Добавляем панели на основную панель
         add(autoPanel); // Добавляем панель автоматического управления
         add(manualPanel); // Добавляем панель ручного управления
+        add(seekPanel); // Добавляем панель перехода к шагу
 
     }
 
     //Переход на предыдущий шаг
     private void prevStep() {
+        if (visualizer.isStartPending()) return; // Журнал еще вычисляется
         int step = visualizer.getAlgorithm().getCurrentStep(); // Получаем текущий шаг
-        if (step > 0) { // Проверяем, не первый ли это шаг
+        if (step > visualizer.getAlgorithm().getTrace().getStart()) { // Проверяем, не первый ли это хранимый шаг
             visualizer.getAlgorithm().setCurrentStep(step - 1); // Уменьшаем шаг
-            updateStepInfo(step - 1, visualizer.getAlgorithm().getSteps().size()); // Обновляем информацию о шагах
-            visualizer.getGraphPanel().repaint(); // Перерисовываем граф
-            String stepDescription = visualizer.getAlgorithm().getSteps().get(step - 1);
+            updateStepInfo(step - 1, visualizer.getAlgorithm().getTrace().size()); // Обновляем информацию о шагах
+            visualizer.getGraphPanel().stepChanged(); // Перерисовываем выделения шага
+            String stepDescription = visualizer.getAlgorithm().describeStep(step - 1);
             visualizer.getLogPanel().append(stepDescription + "\n"); // Выводим описание шага в лог
             System.out.println("Шаг назад: " + stepDescription); // Вывод в консоль
         }
@@ -130,13 +197,15 @@ public class ControlPanel extends JPanel {
 
     //Переход на следующий шаг
     private void nextStep() {
+        if (visualizer.isStartPending()) return; // Журнал еще вычисляется или выполнение готовится
         int step = visualizer.getAlgorithm().getCurrentStep(); // Получаем текущий шаг
-        int totalSteps = visualizer.getAlgorithm().getSteps().size(); // Получаем общее количество шагов
+        visualizer.getAlgorithm().produceSteps(step + 1, System.nanoTime() + STEP_NANOS); // При пошаговом выполнении
+        int totalSteps = visualizer.getAlgorithm().getTrace().size(); // Получаем общее количество шагов
         if (step < totalSteps - 1) { // Проверяем, не последний ли это шаг
             visualizer.getAlgorithm().setCurrentStep(step + 1); // Увеличиваем шаг
             updateStepInfo(step + 1, totalSteps); // Обновляем информацию о шагах
-            visualizer.getGraphPanel().repaint(); // Перерисовываем граф
-            String stepDescription = visualizer.getAlgorithm().getSteps().get(step + 1);
+            visualizer.getGraphPanel().stepChanged(); // Перерисовываем выделения шага
+            String stepDescription = visualizer.getAlgorithm().describeStep(step + 1);
             visualizer.getLogPanel().append(stepDescription + "\n"); // Выводим описание шага в лог
             System.out.println("Шаг вперед: " + stepDescription); // Вывод в консоль
         }
@@ -145,7 +214,18 @@ public class ControlPanel extends JPanel {
     //Обновление информации о шагах,current текущий шаг,total общее количество шагов
     public void updateStepInfo(int current, int total) {
         stepLabel.setText("Шаг: " + current); // Обновляем метку текущего шага
-        totalStepsLabel.setText("Всего: " + total); // Обновляем метку общего количества шагов
+        SCCAlgorithm algorithm = visualizer.getAlgorithm();
+        // Обновляем метку общего количества шагов (при пошаговом выполнении - уже вычисленных)
+        totalStepsLabel.setText((algorithm.isComplete() ? "Всего: " : "Вычислено: ") + total);
+        int start = algorithm.getTrace().getStart(); // Более ранние шаги освобождены
+        int step = Math.max(start, Math.min(algorithm.getCurrentStep(), Math.max(0, total - 1)));
+        updatingSlider = true; // Программное движение ползунка не должно вызывать переход
+        stepSlider.setMinimum(Math.min(start, Math.max(0, total - 1)));
+        stepSlider.setMaximum(Math.max(0, total - 1));
+        stepSlider.setValue(step);
+        updatingSlider = false;
+        String state = total > 0 ? algorithm.describeState(step) : "";
+        stateLabel.setText(state.isEmpty() ? " " : state); // Пробел сохраняет высоту метки
     }
 
     //Установка состояния работы алгоритма,running true - выполняется, false - остановлен
@@ -160,8 +240,20 @@ public class ControlPanel extends JPanel {
         return isRunning; // Возвращаем состояние выполнения алгоритма
     }
 
-    //Получение задержки между шагами,NumberFormatException если введено некорректное число
-    public int getDelay() throws NumberFormatException {
-        return Integer.parseInt(delayField.getText()); // Возвращаем значение задержки, преобразованное в число
+    //Получение задержки между шагами (последнее корректное значение поля)
+    public int getDelay() {
+        return delay;
+    }
+
+    //Разбор поля задержки после изменения; некорректное значение не меняет задержку
+    private void delayChanged() {
+        try {
+            int value = Integer.parseInt(delayField.getText().trim());
+            if (value < 0) return;
+            delay = value;
+            visualizer.getPlayback().setDelay(value);
+        } catch (NumberFormatException e) {
+            // Поле в процессе редактирования - оставляем прежнюю задержку
+        }
     }
 }
\ No newline at end of file
@@ -0,0 +1,108 @@
+import java.util.Arrays;
+
+// Текстовый список ребер: по ребру "from to" на строке (числа через пробелы, табуляции или запятую).
+// Строка из одного числа задает число вершин (нужно, если у последних вершин нет ребер), иначе
+// число вершин - наибольший номер плюс один. Пустые строки и комментарии от '#' до конца строки пропускаются.
+// Разбор идет одним проходом по символам без разбиения на строки и регулярных выражений.
+// Номера вершин и объявленное число вершин меньше MAX_VERTICES, чтобы массивы графа можно было выделить;
+// получатель из непроверенного источника дополнительно ограничивает getVertexCount() до вызова toGraph
+public final class EdgeListFormat {
+    public static final int MAX_VERTICES = Integer.MAX_VALUE - 8; // Наибольшее число вершин (длина массива offsets)
+
+    private EdgeListFormat() {
+    }
+
+    // Разобранный список: ребра парами (from, to) в исходном порядке и объявленное число вершин
+    public static final class EdgeList {
+        private final int[] pairs; // from0, to0, from1, to1, ...
+        private final int edgeCount;
+        private final int declaredVertices; // Число вершин из строки с одним числом (-1 - не задано)
+        private final int maxVertex; // Наибольший номер вершины в ребрах (-1 - ребер нет)
+
+        private EdgeList(int[] pairs, int edgeCount, int declaredVertices, int maxVertex) {
+            this.pairs = pairs;
+            this.edgeCount = edgeCount;
+            this.declaredVertices = declaredVertices;
+            this.maxVertex = maxVertex;
+        }
+
+        public int getEdgeCount() {
+            return edgeCount;
+        }
+
+        public int getFrom(int edge) {
+            return pairs[2 * edge];
+        }
+
+        public int getTo(int edge) {
+            return pairs[2 * edge + 1];
+        }
+
+        // Число вершин: объявленное или наибольший номер плюс один
+        public int getVertexCount() {
+            return Math.max(declaredVertices, maxVertex + 1);
+        }
+
+        // Граф CSR из ребер; соседи каждой вершины идут в порядке списка
+        public CSRGraph toGraph() {
+            int V = getVertexCount();
+            int[] offsets = new int[V + 1];
+            for (int e = 0; e < edgeCount; e++) offsets[pairs[2 * e] + 1]++;
+            for (int v = 0; v < V; v++) offsets[v + 1] += offsets[v];
+            int[] next = Arrays.copyOf(offsets, V); // Следующая свободная позиция каждой вершины
+            int[] targets = new int[edgeCount];
+            for (int e = 0; e < edgeCount; e++) targets[next[pairs[2 * e]]++] = pairs[2 * e + 1];
+            return new CSRGraph(offsets, targets);
+        }
+    }
+
+    // Разбор графа из текста
+    public static CSRGraph parse(CharSequence text) {
+        return parseEdges(text).toGraph();
+    }
+
+    // Разбор ребер из текста; IllegalArgumentException с номером строки при ошибке
+    public static EdgeList parseEdges(CharSequence text) {
+        int[] pairs = new int[64];
+        int edges = 0;
+        int declared = -1;
+        int max = -1;
+        int[] numbers = new int[2]; // Числа текущей строки
+        int count = 0;
+        int line = 1;
+        int length = text.length();
+        for (int i = 0; i <= length; i++) {
+            char ch = i < length ? text.charAt(i) : '\n';
+            if (ch >= '0' && ch <= '9') {
+                long value = 0;
+                for (; i < length && (ch = text.charAt(i)) >= '0' && ch <= '9'; i++) {
+                    value = value * 10 + (ch - '0');
+                    if (value >= MAX_VERTICES) throw new IllegalArgumentException("Строка " + line + ": слишком большое число");
+                }
+                if (count == 2) throw new IllegalArgumentException("Строка " + line + ": больше двух чисел");
+                numbers[count++] = (int) value;
+                i--; // Символ после числа разбирается на следующей итерации
+            } else if (ch == '#') { // Комментарий до конца строки
+                while (i + 1 < length && text.charAt(i + 1) != '\n') i++;
+            } else if (ch == '\n') {
+                if (count == 2) {
+                    if (2 * edges == pairs.length) pairs = Arrays.copyOf(pairs, pairs.length * 2);
+                    pairs[2 * edges] = numbers[0];
+                    pairs[2 * edges + 1] = numbers[1];
+                    edges++;
+                    max = Math.max(max, Math.max(numbers[0], numbers[1]));
+                } else if (count == 1) {
+                    declared = numbers[0];
+                }
+                count = 0;
+                line++;
+            } else if (ch != ' ' && ch != '\t' && ch != '\r' && ch != ',') {
+                throw new IllegalArgumentException("Строка " + line + ": недопустимый символ '" + ch + "'");
+            }
+        }
+        if (declared >= 0 && max >= declared) {
+            throw new IllegalArgumentException("Номер вершины " + max + " не меньше объявленного числа вершин " + declared);
+        }
+        return new EdgeList(pairs, edges, declared, max);
+    }
+}
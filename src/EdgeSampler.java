@@ -0,0 +1,116 @@
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
+
+// Общая часть генераторов, выбирающих ребра независимыми случайными испытаниями.
+// Ребра кодируются в long (начало в старших 32 битах, конец в младших), генерируются параллельно
+// блоками фиксированного размера, каждый блок со своим потоком SplittableRandom, затем сортируются
+// (Arrays.parallelSort), дубликаты и петли удаляются, и отсортированный массив сразу раскладывается в CSR.
+// Недостающие после удаления дубликатов ребра догенерируются несколькими раундами
+final class EdgeSampler {
+    static final double MAX_DEGREE = 1 << 16; // Предел параметров степени (ребер из вершины все равно не больше n - 1)
+    private static final int BLOCK = 1 << 16; // Ребер в одном блоке генерации
+    private static final int ROUNDS = 16; // Наибольшее число раундов догенерации
+    private static final int ATTEMPTS_PER_EDGE = 64; // Предел отказов источника на одно ребро блока
+    private static final long EMPTY = Long.MAX_VALUE; // Незаполненная ячейка (сортируется в конец)
+
+    // Источник случайных ребер: закодированное ребро или -1, если испытание отвергнуто
+    interface Source {
+        long next(SplittableRandom random);
+    }
+
+    private EdgeSampler() {
+    }
+
+    // Кодирование ребра from -> to
+    static long edge(int from, int to) {
+        return (long) from << 32 | to;
+    }
+
+    // Граф из vertexCount вершин с edgeCount различными случайными ребрами из source и обязательными ребрами fixed.
+    // Если источник не может дать столько различных ребер, граф содержит сколько удалось получить
+    static CSRGraph sample(int vertexCount, long edgeCount, long seed, Source source, long[] fixed) {
+        long limit = (long) vertexCount * (vertexCount - 1); // Различных ребер без петель
+        long total = Math.min(limit, edgeCount + fixed.length);
+        if (total > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("Слишком много ребер: " + total);
+        }
+        long[] edges = new long[(int) total];
+        System.arraycopy(fixed, 0, edges, 0, fixed.length);
+        Arrays.parallelSort(edges, 0, fixed.length);
+        int count = deduplicate(edges, fixed.length);
+        SplittableRandom root = new SplittableRandom(seed);
+        for (int round = 0; round < ROUNDS && count < total; round++) {
+            int need = (int) (total - count);
+            int blocks = (need + BLOCK - 1) / BLOCK;
+            long[] blockSeeds = new long[blocks]; // Зерна блоков не зависят от порядка выполнения
+            for (int b = 0; b < blocks; b++) blockSeeds[b] = root.nextLong();
+            long[] fresh = new long[need]; // Ребра раунда
+            IntStream.range(0, blocks).parallel().forEach(b -> {
+                SplittableRandom random = new SplittableRandom(blockSeeds[b]);
+                int from = b * BLOCK;
+                int to = Math.min(need, from + BLOCK);
+                long attempts = (long) (to - from) * ATTEMPTS_PER_EDGE + 1024;
+                int i = from;
+                while (i < to && attempts-- > 0) {
+                    long e = source.next(random);
+                    if (e >= 0 && (int) (e >>> 32) != (int) e) fresh[i++] = e; // Петли отбрасываем
+                }
+                Arrays.fill(fresh, i, to, EMPTY); // Источник исчерпал попытки
+            });
+            // Сортируется только новая порция, затем она сливается с уже отсортированными ребрами с конца массива
+            Arrays.parallelSort(fresh);
+            int i = count - 1;
+            int j = need - 1;
+            for (int k = (int) total - 1; j >= 0; k--) {
+                edges[k] = i >= 0 && edges[i] > fresh[j] ? edges[i--] : fresh[j--];
+            }
+            int before = count;
+            count = deduplicate(edges, (int) total);
+            if (count == before) break; // Раунд не добавил новых ребер
+        }
+        return toGraph(vertexCount, edges, count);
+    }
+
+    // Удаление повторов из первых length отсортированных ребер, возвращает число различных ребер
+    private static int deduplicate(long[] edges, int length) {
+        int count = 0;
+        for (int i = 0; i < length && edges[i] != EMPTY; i++) {
+            if (count == 0 || edges[i] != edges[count - 1]) edges[count++] = edges[i];
+        }
+        return count;
+    }
+
+    // Граф из первых count отсортированных различных ребер
+    static CSRGraph toGraph(int vertexCount, long[] edges, int count) {
+        int[] offsets = new int[vertexCount + 1];
+        int[] targets = new int[count];
+        for (int i = 0; i < count; i++) {
+            offsets[(int) (edges[i] >>> 32) + 1]++; // Считаем исходящие ребра
+            targets[i] = (int) edges[i]; // Ребра уже сгруппированы по началу
+        }
+        for (int v = 0; v < vertexCount; v++) {
+            offsets[v + 1] += offsets[v];
+        }
+        return new CSRGraph(offsets, targets);
+    }
+
+    // Случайная перестановка номеров 0..n-1 (Фишер-Йейтс)
+    static int[] permutation(int n, SplittableRandom random) {
+        int[] result = new int[n];
+        for (int i = 0; i < n; i++) {
+            int j = random.nextInt(i + 1);
+            result[i] = result[j];
+            result[j] = i;
+        }
+        return result;
+    }
+
+    // Проверка параметра: значение должно лежать в [min, max]
+    static double check(double value, double min, double max, String name) {
+        if (!(value >= min && value <= max)) {
+            throw new IllegalArgumentException("Параметр \"" + name + "\" должен быть в пределах от " + min + " до " + max);
+        }
+        return value;
+    }
+}
@@ -0,0 +1,26 @@
+// Случайный граф Эрдеша-Реньи G(n, m): m различных ребер без петель, выбранных равновероятно
+public class ErdosRenyiGenerator implements GraphGenerator {
+
+    @Override
+    public String getName() {
+        return "Эрдеш-Реньи G(n, m)";
+    }
+
+    @Override
+    public String[] getParameterNames() {
+        return new String[]{"Средняя степень"};
+    }
+
+    @Override
+    public double[] getDefaultParameters() {
+        return new double[]{2};
+    }
+
+    @Override
+    public CSRGraph generate(int vertexCount, double[] parameters, long seed) {
+        double degree = EdgeSampler.check(parameters[0], 0, EdgeSampler.MAX_DEGREE, getParameterNames()[0]);
+        long edgeCount = Math.round(degree * vertexCount); // m = n * средняя степень
+        return EdgeSampler.sample(vertexCount, edgeCount, seed,
+                random -> EdgeSampler.edge(random.nextInt(vertexCount), random.nextInt(vertexCount)), new long[0]);
+    }
+}
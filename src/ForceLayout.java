@@ -0,0 +1,216 @@
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
+
+// Силовая раскладка графа (модель Фрюхтермана-Рейнгольда) с приближением Барнса-Хата.
+// Отталкивание всех пар вершин считается по дереву квадрантов за O(n log n), притяжение - по ребрам
+// в обе стороны, слабое притяжение к началу координат не дает несвязным частям разлетаться.
+// Силы для вершин независимы и накапливаются параллельно блоками вершин, поэтому результат
+// не зависит от числа потоков. Раскладка идет шагами (step) с убывающей температурой - наибольшим
+// сдвигом вершины за шаг; между шагами можно забрать промежуточные координаты.
+// Начальные координаты могут быть взяты из раскладки графа конденсации: вершины одной компоненты
+// стартуют рядом, и компоненты остаются сгруппированными
+public class ForceLayout {
+    public static final double EDGE_LENGTH = 60; // Желаемая длина ребра (мировые единицы)
+    private static final double THETA = 1.2; // Точность Барнса-Хата (размер узла / расстояние)
+    private static final double GRAVITY = 1; // Притяжение к центру (относительно отталкивания)
+    private static final double COOLING = 0.92; // Множитель температуры за шаг
+    private static final double FINAL_TEMPERATURE = EDGE_LENGTH / 100; // Температура, при которой раскладка сошлась
+    private static final int MAX_ITERATIONS = 400; // Наибольшее число шагов
+    private static final int BLOCK = 1024; // Вершин в одном блоке параллельного расчета
+
+    private final CSRGraph graph; // Граф
+    private final CSRGraph reversed; // Обращенный граф (входящие ребра)
+    private final int[] masses; // Массы вершин (null - единичные)
+    private final double[] x; // Координаты вершин
+    private final double[] y;
+    private final double[] shiftX; // Сдвиги текущего шага
+    private final double[] shiftY;
+    private final double gravity; // Коэффициент притяжения к центру: равновесный радиус растет как корень из массы
+    private double temperature; // Наибольший сдвиг вершины за шаг
+    private int iteration; // Выполнено шагов
+
+    // Раскладка графа graph из случайных начальных координат, seed зерно
+    public ForceLayout(CSRGraph graph, long seed) {
+        this(graph, null, seed);
+    }
+
+    // Раскладка с массами вершин masses (null - единичные): отталкивание пропорционально произведению масс
+    public ForceLayout(CSRGraph graph, int[] masses, long seed) {
+        this.graph = graph;
+        this.reversed = graph.transposed();
+        this.masses = masses;
+        int n = graph.vertexCount();
+        x = new double[n];
+        y = new double[n];
+        shiftX = new double[n];
+        shiftY = new double[n];
+        SplittableRandom random = new SplittableRandom(seed);
+        double side = EDGE_LENGTH * Math.sqrt(totalMass()); // Площадь раскладки пропорциональна суммарной массе
+        gravity = GRAVITY / side;
+        for (int v = 0; v < n; v++) {
+            x[v] = (random.nextDouble() - 0.5) * side;
+            y[v] = (random.nextDouble() - 0.5) * side;
+        }
+        temperature = Math.max(EDGE_LENGTH, side / 10);
+    }
+
+    // Раскладка, начальные координаты которой взяты из раскладки графа конденсации result:
+    // вершины компоненты размещаются случайно в круге площадью по размеру компоненты вокруг ее положения
+    public static ForceLayout seededByComponents(CSRGraph graph, SCCResult result, long seed) {
+        CSRGraph condensation = result.getCondensation(graph);
+        int[] sizes = result.getComponentSizes();
+        ForceLayout coarse = new ForceLayout(condensation, sizes, seed);
+        coarse.run();
+        ForceLayout layout = new ForceLayout(graph, seed);
+        SplittableRandom random = new SplittableRandom(~seed);
+        int largest = 1;
+        for (int v = 0; v < graph.vertexCount(); v++) {
+            int c = result.componentOf(v);
+            double radius = EDGE_LENGTH * Math.sqrt(sizes[c]) / 2; // Круг, вмещающий компоненту
+            double angle = 2 * Math.PI * random.nextDouble();
+            double distance = radius * Math.sqrt(random.nextDouble()); // Равномерно по площади круга
+            layout.x[v] = coarse.x[c] + distance * Math.cos(angle);
+            layout.y[v] = coarse.y[c] + distance * Math.sin(angle);
+            largest = Math.max(largest, sizes[c]);
+        }
+        // Компоненты уже на местах: начальная температура рассчитана на перестройку внутри самой большой из них
+        layout.temperature = Math.min(layout.temperature, Math.max(EDGE_LENGTH, EDGE_LENGTH * Math.sqrt(largest) / 4));
+        return layout;
+    }
+
+    private long totalMass() {
+        if (masses == null) return graph.vertexCount();
+        long total = 0;
+        for (int m : masses) total += m;
+        return total;
+    }
+
+    // Шаги до сходимости
+    public void run() {
+        while (step()) { }
+    }
+
+    // Один шаг раскладки, возвращает false, если раскладка уже сошлась
+    public boolean step() {
+        if (isConverged()) return false;
+        int n = graph.vertexCount();
+        QuadTree tree = new QuadTree(x, y, masses); // Дерево по текущим координатам
+        int blocks = (n + BLOCK - 1) / BLOCK;
+        double limit = temperature;
+        IntStream.range(0, blocks).parallel().forEach(b -> {
+            Repulsion repulsion = new Repulsion(tree);
+            for (int i = b * BLOCK; i < Math.min(n, (b + 1) * BLOCK); i++) {
+                accumulate(tree.item(i), repulsion); // В порядке дерева соседние обходы идут по тем же узлам
+            }
+        });
+        IntStream.range(0, blocks).parallel().forEach(b -> { // Сдвиги применяются после расчета всех сил
+            for (int v = b * BLOCK; v < Math.min(n, (b + 1) * BLOCK); v++) {
+                double length = Math.sqrt(shiftX[v] * shiftX[v] + shiftY[v] * shiftY[v]);
+                if (length > 0) {
+                    double factor = Math.min(length, limit) / length; // Сдвиг не больше температуры
+                    x[v] += shiftX[v] * factor;
+                    y[v] += shiftY[v] * factor;
+                }
+            }
+        });
+        temperature *= COOLING;
+        iteration++;
+        return !isConverged();
+    }
+
+    // Суммарная сила, действующая на вершину v, записывается в shiftX[v], shiftY[v]
+    private void accumulate(int v, Repulsion repulsion) {
+        double k2 = EDGE_LENGTH * EDGE_LENGTH;
+        double mass = masses == null ? 1 : masses[v];
+        repulsion.reset(v);
+        repulsion.stack = repulsion.tree.approximate(x[v], y[v], THETA, repulsion, repulsion.stack);
+        double fx = repulsion.fx * k2 * mass; // Отталкивание k^2 * m_v * m_u / d
+        double fy = repulsion.fy * k2 * mass;
+        for (int e = graph.firstEdge(v); e < graph.lastEdge(v); e++) { // Притяжение d^2 / k по исходящим ребрам
+            int u = graph.target(e);
+            double dx = x[u] - x[v];
+            double dy = y[u] - y[v];
+            double d = Math.sqrt(dx * dx + dy * dy);
+            fx += dx * d / EDGE_LENGTH;
+            fy += dy * d / EDGE_LENGTH;
+        }
+        for (int e = reversed.firstEdge(v); e < reversed.lastEdge(v); e++) { // и по входящим
+            int u = reversed.target(e);
+            double dx = x[u] - x[v];
+            double dy = y[u] - y[v];
+            double d = Math.sqrt(dx * dx + dy * dy);
+            fx += dx * d / EDGE_LENGTH;
+            fy += dy * d / EDGE_LENGTH;
+        }
+        double r = Math.sqrt(x[v] * x[v] + y[v] * y[v]); // Притяжение к центру m_v * r^2 / side
+        fx -= gravity * mass * x[v] * r;
+        fy -= gravity * mass * y[v] * r;
+        shiftX[v] = fx;
+        shiftY[v] = fy;
+    }
+
+    // Накопление отталкивания для одной вершины обходом дерева (один экземпляр на поток)
+    private final class Repulsion implements QuadTree.Visitor {
+        final QuadTree tree;
+        int[] stack = new int[64];
+        int self; // Вершина, для которой считается сила
+        double fx; // Сумма (p_v - p_u) * m_u / d^2
+        double fy;
+
+        Repulsion(QuadTree tree) {
+            this.tree = tree;
+        }
+
+        void reset(int v) {
+            self = v;
+            fx = 0;
+            fy = 0;
+        }
+
+        @Override
+        public void point(int id) {
+            if (id == self) return;
+            add(x[id], y[id], tree.weightOf(id), id);
+        }
+
+        @Override
+        public void cluster(double cx, double cy, int count, long weight) {
+            add(cx, cy, weight, -1);
+        }
+
+        private void add(double px, double py, double weight, int id) {
+            double dx = x[self] - px;
+            double dy = y[self] - py;
+            double d2 = dx * dx + dy * dy;
+            if (d2 < 1e-6) { // Совпадающие точки расталкиваем в направлении, зависящем только от пары вершин
+                double angle = (self * 31L + id) * 2.399963229728653; // Золотой угол
+                dx = Math.cos(angle);
+                dy = Math.sin(angle);
+                d2 = 1;
+            }
+            double f = weight / d2;
+            fx += dx * f;
+            fy += dy * f;
+        }
+    }
+
+    // Раскладка сошлась (температура упала ниже порога или исчерпаны шаги)
+    public boolean isConverged() {
+        return temperature < FINAL_TEMPERATURE || iteration >= MAX_ITERATIONS || graph.vertexCount() == 0;
+    }
+
+    // Выполнено шагов
+    public int getIteration() {
+        return iteration;
+    }
+
+    // Копии текущих координат вершин
+    public double[] getX() {
+        return Arrays.copyOf(x, x.length);
+    }
+
+    public double[] getY() {
+        return Arrays.copyOf(y, y.length);
+    }
+}
@@ -0,0 +1,345 @@
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.stream.IntStream;
+
+// Параллельный поиск компонент методом Forward-Backward на ForkJoinPool.
+// 1. Обрезка (trim): вершины без входящих или исходящих ребер - отдельные компоненты, удаляются волнами.
+// 2. Forward-Backward: из опорной вершины ищутся множества достижимых вперед (F) и назад (B),
+//    F ∩ B - компонента, а F \ B, B \ F и остаток обрабатываются независимыми подзадачами.
+// 3. Мелкие подмножества (меньше SMALL_SUBSET вершин) и подмножества с длинными путями (обход в ширину
+//    идет много раундов с узким фронтом, см. LONG_PATH_ROUNDS) разбираются последовательным алгоритмом Тарьяна,
+//    подмножества - параллельно друг с другом. Раскраска (распространение максимума) здесь не годится:
+//    число ее раундов растет с диаметром подмножества, и на цепочках компонент время становится кубическим.
+// Шаги обхода в журнал не пишутся, записываются только найденные компоненты.
+// Нумерация компонент - по первой вершине компоненты
+public class ForwardBackwardEngine implements SCCEngine {
+    private static final int SMALL_SUBSET = 1 << 12; // Подмножества меньше этого размера разбирает Тарьян
+    private static final int PARALLEL_FRONTIER = 1 << 11; // С какого размера фронт обхода расширяется параллельно
+    private static final int CHUNK = 1 << 10; // Размер порции вершин для параллельной обработки
+    private static final int LONG_PATH_ROUNDS = 64; // С какого раунда обхода проверяется средняя ширина фронта
+
+    private final int parallelism; // Количество рабочих потоков
+    // Пулы потоков по числу потоков, общие для всех экземпляров (потоки пула - демоны и не держат процесс)
+    private static final Map<Integer, ForkJoinPool> POOLS = new ConcurrentHashMap<>();
+
+    // Конструктор с числом потоков по количеству процессоров
+    public ForwardBackwardEngine() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    // Конструктор, parallelism количество рабочих потоков
+    public ForwardBackwardEngine(int parallelism) {
+        if (parallelism <= 0) throw new IllegalArgumentException("Число потоков должно быть положительным");
+        this.parallelism = parallelism;
+    }
+
+    @Override
+    public String getName() {
+        return "Параллельный (Forward-Backward)";
+    }
+
+    // Количество рабочих потоков
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    @Override
+    public SCCResult findSCCs(CSRGraph graph, StepTrace trace) {
+        Run run = new Run(graph);
+        getPool().invoke(run);
+        SCCResult result = run.result();
+        if (trace != null) {
+            for (int c = 0; c < result.getComponentCount(); c++) {
+                trace.add(StepTrace.Type.COMPONENT, c); // Порядок обхода не определен - пишем только компоненты
+            }
+        }
+        return result;
+    }
+
+    // Общий пул на parallelism потоков создается при первом запуске, поэтому движки можно создавать
+    // и сериализовать без затрат и не закрывать
+    private ForkJoinPool getPool() {
+        return POOLS.computeIfAbsent(parallelism, ForkJoinPool::new);
+    }
+
+    // Состояние одного запуска
+    private static final class Run extends RecursiveAction {
+        private final CSRGraph graph; // Исходный граф
+        private CSRGraph reversed; // Обращенный граф
+        private final int V; // Количество вершин
+        private final int[] componentOf; // Номер компоненты (-1 - не назначен); вершину пишет только ее задача
+        private final int[] part; // Метка подмножества, в котором находится вершина
+        private final AtomicIntegerArray forwardMark; // Метка подмножества, из опорной вершины которого достигнута вершина
+        private final AtomicIntegerArray backwardMark; // То же для обратного обхода
+        private final AtomicInteger componentCounter = new AtomicInteger(); // Счетчик компонент
+        private final AtomicInteger labelCounter = new AtomicInteger(1); // Счетчик меток подмножеств (0 не используется: им заполнены метки обхода)
+        private final ConcurrentLinkedQueue<int[]> tail = new ConcurrentLinkedQueue<>(); // Мелкие подмножества для Тарьяна
+        private SCCResult result; // Итоговый результат
+
+        Run(CSRGraph graph) {
+            this.graph = graph;
+            this.V = graph.vertexCount();
+            this.componentOf = new int[V];
+            this.part = new int[V];
+            this.forwardMark = new AtomicIntegerArray(V);
+            this.backwardMark = new AtomicIntegerArray(V);
+        }
+
+        SCCResult result() {
+            return result;
+        }
+
+        @Override
+        protected void compute() {
+            Arrays.fill(componentOf, -1);
+            reversed = graph.transposed();
+            int[] remaining = trim(); // Параллельная обрезка тривиальных компонент
+            if (remaining.length > 0) {
+                int label = labelCounter.getAndIncrement();
+                IntStream.of(remaining).parallel().forEach(v -> part[v] = label);
+                new Split(this, remaining, label).invoke(); // Forward-Backward для крупных подмножеств
+            }
+            solveTail(); // Тарьян для оставшихся мелких подмножеств
+            result = normalize();
+        }
+
+        // Обрезка: волнами удаляет вершины с нулевой входящей или исходящей степенью, возвращает оставшиеся
+        private int[] trim() {
+            AtomicIntegerArray inDegree = new AtomicIntegerArray(V);
+            AtomicIntegerArray outDegree = new AtomicIntegerArray(V);
+            AtomicIntegerArray removed = new AtomicIntegerArray(V); // 1 - вершина уже выбрана для удаления
+            IntStream.range(0, V).parallel().forEach(v -> {
+                inDegree.set(v, reversed.degree(v));
+                outDegree.set(v, graph.degree(v));
+            });
+            int[] frontier = IntStream.range(0, V).parallel()
+                    .filter(v -> (inDegree.get(v) == 0 || outDegree.get(v) == 0) && removed.compareAndSet(v, 0, 1))
+                    .toArray();
+            while (frontier.length > 0) {
+                int[] current = frontier;
+                frontier = IntStream.range(0, current.length).parallel().flatMap(i -> {
+                    int v = current[i];
+                    componentOf[v] = componentCounter.getAndIncrement(); // Вершина - отдельная компонента
+                    IntStream.Builder next = IntStream.builder();
+                    for (int e = graph.firstEdge(v); e < graph.lastEdge(v); e++) { // Соседи теряют входящее ребро
+                        int w = graph.target(e);
+                        if (inDegree.decrementAndGet(w) == 0 && removed.compareAndSet(w, 0, 1)) next.add(w);
+                    }
+                    for (int e = reversed.firstEdge(v); e < reversed.lastEdge(v); e++) { // Предки теряют исходящее ребро
+                        int w = reversed.target(e);
+                        if (outDegree.decrementAndGet(w) == 0 && removed.compareAndSet(w, 0, 1)) next.add(w);
+                    }
+                    return next.build();
+                }).toArray();
+            }
+            return IntStream.range(0, V).parallel().filter(v -> removed.get(v) == 0).toArray();
+        }
+
+        // Обход в ширину внутри подмножества label из вершины start, достигнутые вершины помечаются label в mark.
+        // Возвращает false, если обход прерван из-за длинного пути: после LONG_PATH_ROUNDS раундов средний фронт
+        // уже PARALLEL_FRONTIER - раунды тогда почти последовательны, и подмножество дешевле отдать Тарьяну
+        private boolean reach(CSRGraph g, int start, int label, AtomicIntegerArray mark) {
+            mark.set(start, label);
+            int[] frontier = {start};
+            long reached = 1;
+            for (int round = 1; frontier.length > 0; round++) {
+                if (round >= LONG_PATH_ROUNDS && reached < (long) round * PARALLEL_FRONTIER) return false;
+                int[] current = frontier;
+                if (current.length < PARALLEL_FRONTIER) {
+                    frontier = expand(g, current, 0, current.length, label, mark);
+                } else { // Большой фронт расширяем порциями параллельно
+                    int chunks = (current.length + CHUNK - 1) / CHUNK;
+                    int[][] parts = IntStream.range(0, chunks).parallel()
+                            .mapToObj(c -> expand(g, current, c * CHUNK, Math.min(current.length, (c + 1) * CHUNK), label, mark))
+                            .toArray(int[][]::new);
+                    frontier = concat(parts);
+                }
+                reached += frontier.length;
+            }
+            return true;
+        }
+
+        // Расширение части фронта [from, to): возвращает впервые достигнутые вершины подмножества label
+        private int[] expand(CSRGraph g, int[] frontier, int from, int to, int label, AtomicIntegerArray mark) {
+            int[] next = new int[16];
+            int size = 0;
+            for (int i = from; i < to; i++) {
+                int v = frontier[i];
+                for (int e = g.firstEdge(v); e < g.lastEdge(v); e++) {
+                    int w = g.target(e);
+                    // Метки подмножеств уникальны, поэтому чужие и уже разобранные вершины отсекаются сравнением метки
+                    if (part[w] == label && componentOf[w] < 0 && mark.get(w) != label
+                            && mark.getAndSet(w, label) != label) {
+                        if (size == next.length) next = Arrays.copyOf(next, size * 2);
+                        next[size++] = w;
+                    }
+                }
+            }
+            return Arrays.copyOf(next, size);
+        }
+
+        // Мелкие подмножества - параллельно, каждое последовательным алгоритмом Тарьяна.
+        // Подмножества не пересекаются, поэтому общие массивы номеров посещения пишутся без гонок
+        private void solveTail() {
+            int[] index = new int[V]; // Номер посещения (0 - не посещена)
+            int[] low = new int[V];
+            tail.parallelStream().forEach(subset -> tarjan(subset, index, low));
+        }
+
+        // Итеративный алгоритм Тарьяна внутри подмножества subset (все его вершины имеют одну метку part).
+        // Вершина в стеке - посещенная вершина подмножества, еще не отнесенная к компоненте
+        private void tarjan(int[] subset, int[] index, int[] low) {
+            int label = part[subset[0]];
+            int[] stack = new int[subset.length]; // Стек Тарьяна
+            int size = 0;
+            int[] path = new int[subset.length]; // Путь обхода в глубину
+            int[] cursor = new int[subset.length]; // Следующее ребро вершины пути
+            int counter = 0;
+            for (int start : subset) {
+                if (index[start] != 0) continue;
+                index[start] = low[start] = ++counter;
+                stack[size++] = start;
+                path[0] = start;
+                cursor[0] = graph.firstEdge(start);
+                int depth = 1;
+                while (depth > 0) {
+                    int v = path[depth - 1];
+                    if (cursor[depth - 1] < graph.lastEdge(v)) {
+                        int w = graph.target(cursor[depth - 1]++);
+                        if (part[w] != label || componentOf[w] >= 0) continue; // Вне подмножества или уже разобрана
+                        if (index[w] == 0) { // Спуск в непосещенную вершину
+                            index[w] = low[w] = ++counter;
+                            stack[size++] = w;
+                            path[depth] = w;
+                            cursor[depth] = graph.firstEdge(w);
+                            depth++;
+                        } else if (index[w] < low[v]) { // Вершина в стеке
+                            low[v] = index[w];
+                        }
+                        continue;
+                    }
+                    depth--; // Все ребра v просмотрены
+                    if (depth > 0) {
+                        int parent = path[depth - 1];
+                        if (low[v] < low[parent]) low[parent] = low[v];
+                    }
+                    if (low[v] == index[v]) { // v - корень компоненты: снимаем ее со стека
+                        int id = componentCounter.getAndIncrement();
+                        int w;
+                        do {
+                            w = stack[--size];
+                            componentOf[w] = id;
+                        } while (w != v);
+                    }
+                }
+            }
+        }
+
+        // Перенумерация компонент по первой вершине, чтобы результат не зависел от планирования потоков
+        private SCCResult normalize() {
+            int count = componentCounter.get();
+            int[] renumber = new int[count];
+            Arrays.fill(renumber, -1);
+            int next = 0;
+            for (int v = 0; v < V; v++) {
+                int c = componentOf[v];
+                if (renumber[c] < 0) renumber[c] = next++;
+                componentOf[v] = renumber[c];
+            }
+            return new SCCResult(componentOf, count);
+        }
+    }
+
+    // Задача Forward-Backward для одного подмножества вершин с общей меткой
+    private static final class Split extends RecursiveAction {
+        private final Run run; // Состояние запуска
+        private final int[] vertices; // Вершины подмножества
+        private final int label; // Метка подмножества
+
+        Split(Run run, int[] vertices, int label) {
+            this.run = run;
+            this.vertices = vertices;
+            this.label = label;
+        }
+
+        @Override
+        protected void compute() {
+            if (vertices.length < SMALL_SUBSET) { // Мелкие подмножества дешевле разобрать последовательно
+                if (vertices.length > 0) run.tail.add(vertices);
+                return;
+            }
+            int pivot = choosePivot();
+            if (!run.reach(run.graph, pivot, label, run.forwardMark) // F: достижимые из опорной вершины
+                    || !run.reach(run.reversed, pivot, label, run.backwardMark)) { // B: из которых достижима опорная
+                run.tail.add(vertices); // Длинные пути: метки обхода не используются Тарьяном
+                return;
+            }
+
+            int component = run.componentCounter.getAndIncrement();
+            int forwardLabel = run.labelCounter.getAndIncrement();
+            int backwardLabel = run.labelCounter.getAndIncrement();
+            int restLabel = run.labelCounter.getAndIncrement();
+            int[] forward = new int[vertices.length];
+            int[] backward = new int[vertices.length];
+            int[] rest = new int[vertices.length];
+            int forwardSize = 0, backwardSize = 0, restSize = 0;
+            for (int v : vertices) {
+                boolean inForward = run.forwardMark.get(v) == label;
+                boolean inBackward = run.backwardMark.get(v) == label;
+                if (inForward && inBackward) {
+                    run.componentOf[v] = component; // F ∩ B - компонента опорной вершины
+                } else if (inForward) {
+                    run.part[v] = forwardLabel;
+                    forward[forwardSize++] = v;
+                } else if (inBackward) {
+                    run.part[v] = backwardLabel;
+                    backward[backwardSize++] = v;
+                } else {
+                    run.part[v] = restLabel;
+                    rest[restSize++] = v;
+                }
+            }
+            invokeAll(new Split(run, Arrays.copyOf(forward, forwardSize), forwardLabel),
+                    new Split(run, Arrays.copyOf(backward, backwardSize), backwardLabel),
+                    new Split(run, Arrays.copyOf(rest, restSize), restLabel));
+        }
+
+        // Выбор опорной вершины: наибольшее произведение степеней среди случайной выборки вершин подмножества.
+        // Случайная выборка нужна для цепочек компонент: опорная вершина из начала цепочки отщепляла бы
+        // по одной компоненте, давая квадратичное время и рекурсию глубиной в число компонент
+        private int choosePivot() {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            int best = vertices[0];
+            long bestScore = -1;
+            for (int i = 0; i < 64; i++) {
+                int v = vertices[random.nextInt(vertices.length)];
+                long score = (long) run.graph.degree(v) * run.reversed.degree(v);
+                if (score > bestScore) {
+                    bestScore = score;
+                    best = v;
+                }
+            }
+            return best;
+        }
+    }
+
+    // Склейка массивов в один
+    private static int[] concat(int[][] parts) {
+        int total = 0;
+        for (int[] p : parts) total += p.length;
+        int[] result = new int[total];
+        int position = 0;
+        for (int[] p : parts) {
+            System.arraycopy(p, 0, result, position, p.length);
+            position += p.length;
+        }
+        return result;
+    }
+}
@@ -0,0 +1,266 @@
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.CRC32C;
+
+// Компактный двоичный формат файлов .graph.
+// Заголовок (32 байта, big-endian): magic "SCCG", short версия, short флаги, long число вершин, long число ребер,
+// int CRC32C данных, int CRC32C первых 28 байт заголовка.
+// Данные: для каждой вершины varint степень, затем соседи в исходном порядке, каждый как zigzag varint
+// разности с предыдущим соседом (для первого - с номером самой вершины). Локальные ребра занимают 1-2 байта.
+// Чтение и запись идут потоком через канал с буфером, без промежуточных объектов; граф читается
+// также из массива байт (тело сетевого запроса).
+// Старые файлы (сериализованный List<List<Integer>>) читаются через ObjectInputStream с фильтром классов
+public final class GraphFormat {
+    public static final String EXTENSION = "graph"; // Расширение файлов формата
+    public static final int VERSION = 1; // Текущая версия формата
+    private static final byte[] MAGIC = {'S', 'C', 'C', 'G'};
+    private static final int HEADER_BYTES = 32;
+    private static final int BUFFER_BYTES = 1 << 16;
+    private static final int LEGACY_MAGIC = 0xACED; // Начало потока Java-сериализации
+    private static final int LEGACY_MAX_DEPTH = 4; // Список списков чисел и внутренние массивы ArrayList
+
+    private GraphFormat() {
+    }
+
+    // Запись графа в файл path
+    public static void write(Path path, CSRGraph graph) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            Output out = new Output(channel);
+            int V = graph.vertexCount();
+            for (int v = 0; v < V; v++) {
+                int begin = graph.firstEdge(v);
+                int end = graph.lastEdge(v);
+                out.writeVarint(end - begin);
+                int previous = v;
+                for (int e = begin; e < end; e++) {
+                    int to = graph.target(e);
+                    out.writeVarint(zigzag(to - previous));
+                    previous = to;
+                }
+            }
+            out.flush();
+
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+            header.put(MAGIC).putShort((short) VERSION).putShort((short) 0);
+            header.putLong(V).putLong(graph.edgeCount()).putInt((int) out.checksum.getValue());
+            CRC32C headerChecksum = new CRC32C();
+            headerChecksum.update(header.array(), 0, HEADER_BYTES - 4);
+            header.putInt((int) headerChecksum.getValue());
+            header.flip();
+            while (header.hasRemaining()) {
+                channel.write(header, header.position()); // Заголовок пишется последним, когда известна сумма
+            }
+        }
+    }
+
+    // Чтение графа из файла path (текущий формат или старый сериализованный список смежности)
+    public static CSRGraph read(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            return read(channel, channel.size(), "Файл " + path, () -> readLegacy(path));
+        }
+    }
+
+    // Чтение графа текущего формата из массива data (например, тела сетевого запроса), name - источник
+    // для сообщений об ошибках. Старый сериализованный формат из непроверенных источников не принимается
+    public static CSRGraph read(byte[] data, String name) throws IOException {
+        return read(Channels.newChannel(new ByteArrayInputStream(data)), data.length, name, () -> {
+            throw new IOException(name + ": старый формат графа не поддерживается");
+        });
+    }
+
+    // Данные начинаются с заголовка текущего формата
+    public static boolean matches(byte[] data) {
+        return data.length >= MAGIC.length && Arrays.equals(Arrays.copyOf(data, MAGIC.length), MAGIC);
+    }
+
+    // Число вершин из заголовка данных data (без проверки заголовка и данных, -1 - заголовок неполон),
+    // чтобы отклонить слишком большой граф до выделения памяти
+    public static long peekVertexCount(byte[] data) {
+        return matches(data) && data.length >= HEADER_BYTES ? ByteBuffer.wrap(data).getLong(8) : -1;
+    }
+
+    // Чтение старого формата (вызывается, когда данные начинаются с потока сериализации)
+    private interface LegacyReader {
+        CSRGraph read() throws IOException;
+    }
+
+    // Чтение из канала channel размером size байт, source - источник для сообщений об ошибках
+    private static CSRGraph read(ReadableByteChannel channel, long size, String source, LegacyReader legacy)
+            throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+        while (header.hasRemaining() && channel.read(header) >= 0) { } // Читаем заголовок целиком
+        header.flip();
+        if (header.remaining() >= 2 && (header.getShort(0) & 0xFFFF) == LEGACY_MAGIC) {
+            return legacy.read();
+        }
+        if (header.remaining() < HEADER_BYTES || header.getInt(0) != ByteBuffer.wrap(MAGIC).getInt()) {
+            throw new IOException(source + " не является файлом графа");
+        }
+        CRC32C headerChecksum = new CRC32C();
+        headerChecksum.update(header.array(), 0, HEADER_BYTES - 4);
+        if (header.getInt(HEADER_BYTES - 4) != (int) headerChecksum.getValue()) {
+            throw new IOException(source + ": заголовок поврежден");
+        }
+        header.position(MAGIC.length);
+        int version = header.getShort();
+        if (version > VERSION) {
+            throw new IOException(source + " записан более новой версией формата (" + version + ")");
+        }
+        header.getShort(); // Флаги (пока не используются)
+        long V = header.getLong();
+        long E = header.getLong();
+        int expectedChecksum = header.getInt();
+        long payload = size - HEADER_BYTES;
+        // Каждая вершина и каждое ребро занимают хотя бы байт - это отсекает заведомо неверные размеры до выделения памяти
+        if (V < 0 || E < 0 || V >= Integer.MAX_VALUE || E > Integer.MAX_VALUE || V + E > payload) {
+            throw new IOException("Некорректные размеры графа (" + source + "): " + V + " вершин, " + E + " ребер");
+        }
+
+        Input in = new Input(channel);
+        int[] offsets = new int[(int) V + 1];
+        int[] targets = new int[(int) E];
+        int e = 0;
+        for (int v = 0; v < V; v++) {
+            int degree = in.readVarint();
+            if (degree < 0 || degree > E - e) throw new IOException("Некорректная степень вершины " + v + " (" + source + ")");
+            int previous = v;
+            for (int k = 0; k < degree; k++) {
+                int to = previous + unzigzag(in.readVarint());
+                if (to < 0 || to >= V) {
+                    throw new IOException("Ребро " + v + " -> " + to + " выходит за пределы графа (" + source + ")");
+                }
+                targets[e++] = to;
+                previous = to;
+            }
+            offsets[v + 1] = e;
+        }
+        if (e != E) throw new IOException("Число ребер не совпадает с заголовком (" + source + ")");
+        if (!in.atEnd()) throw new IOException("Лишние данные в конце (" + source + ")");
+        if ((int) in.checksum.getValue() != expectedChecksum) {
+            throw new IOException("Контрольная сумма не совпадает, данные повреждены (" + source + ")");
+        }
+        return new CSRGraph(offsets, targets);
+    }
+
+    // Чтение старого файла: сериализованный ArrayList<ArrayList<Integer>>. Любая ошибка содержимого
+    // (null вместо списка, объект другого класса, неверный поток) сообщается как IOException
+    @SuppressWarnings("unchecked")
+    private static CSRGraph readLegacy(Path path) throws IOException {
+        long size = Files.size(path);
+        try (ObjectInputStream in = new ObjectInputStream(new BufferedInputStream(Files.newInputStream(path), BUFFER_BYTES))) {
+            in.setObjectInputFilter(info -> checkLegacyClass(info, size));
+            return CSRGraph.fromAdjacencyList((List<List<Integer>>) in.readObject());
+        } catch (ClassNotFoundException | RuntimeException e) {
+            throw new IOException("Файл " + path + " не является графом старого формата: " + e, e);
+        }
+    }
+
+    // Фильтр старых файлов размером size байт: разрешены только списки (с их внутренними массивами) и числа,
+    // остальные классы отвергаются до создания объектов. Каждый элемент массива и каждая ссылка занимают
+    // в потоке хотя бы байт, поэтому длина массивов и число ссылок больше размера файла означают подделку
+    // (иначе несколько байт заголовка ArrayList заставили бы выделить огромный массив)
+    private static ObjectInputFilter.Status checkLegacyClass(ObjectInputFilter.FilterInfo info, long size) {
+        if (info.depth() > LEGACY_MAX_DEPTH || info.arrayLength() > size || info.references() > size
+                || info.streamBytes() > size) {
+            return ObjectInputFilter.Status.REJECTED;
+        }
+        Class<?> type = info.serialClass();
+        if (type == null || type == ArrayList.class || type == Integer.class || type == Number.class
+                || type == Object[].class) {
+            return ObjectInputFilter.Status.ALLOWED;
+        }
+        return ObjectInputFilter.Status.REJECTED;
+    }
+
+    // Отображение целого со знаком в беззнаковое: малые по модулю значения дают короткий varint
+    private static int zigzag(int value) {
+        return (value << 1) ^ (value >> 31);
+    }
+
+    private static int unzigzag(int value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    // Буферизованная запись в канал с подсчетом контрольной суммы, данные начинаются после заголовка
+    private static final class Output {
+        private final FileChannel channel;
+        private final byte[] buffer = new byte[BUFFER_BYTES];
+        private final CRC32C checksum = new CRC32C();
+        private int position;
+        private long filePosition = HEADER_BYTES;
+
+        Output(FileChannel channel) {
+            this.channel = channel;
+        }
+
+        // Запись беззнакового varint (7 бит на байт, старший бит - продолжение)
+        void writeVarint(int value) throws IOException {
+            if (position > BUFFER_BYTES - 5) flush();
+            while ((value & ~0x7F) != 0) {
+                buffer[position++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            buffer[position++] = (byte) value;
+        }
+
+        void flush() throws IOException {
+            checksum.update(buffer, 0, position);
+            ByteBuffer chunk = ByteBuffer.wrap(buffer, 0, position);
+            while (chunk.hasRemaining()) {
+                filePosition += channel.write(chunk, filePosition);
+            }
+            position = 0;
+        }
+    }
+
+    // Буферизованное чтение из канала с подсчетом контрольной суммы, начиная с текущей позиции (после заголовка)
+    private static final class Input {
+        private final ReadableByteChannel channel;
+        private final byte[] buffer = new byte[BUFFER_BYTES];
+        private final CRC32C checksum = new CRC32C();
+        private int position;
+        private int limit;
+
+        Input(ReadableByteChannel channel) {
+            this.channel = channel;
+        }
+
+        // Чтение беззнакового varint
+        int readVarint() throws IOException {
+            int result = 0;
+            for (int shift = 0; shift < 35; shift += 7) {
+                if (position == limit && !fill()) throw new EOFException("Неожиданный конец файла графа");
+                byte b = buffer[position++];
+                result |= (b & 0x7F) << shift;
+                if (b >= 0) return result;
+            }
+            throw new IOException("Некорректное число в файле графа");
+        }
+
+        // Проверка, что все данные прочитаны
+        boolean atEnd() throws IOException {
+            return position == limit && !fill();
+        }
+
+        // Загрузка следующей порции данных, false - конец файла
+        private boolean fill() throws IOException {
+            ByteBuffer chunk = ByteBuffer.wrap(buffer);
+            int read = channel.read(chunk);
+            if (read <= 0) return false;
+            checksum.update(buffer, 0, read);
+            position = 0;
+            limit = read;
+            return true;
+        }
+    }
+}
@@ -0,0 +1,26 @@
+import java.util.Arrays;
+import java.util.List;
+
+// Генератор случайных графов.
+// Все генераторы детерминированы: одинаковые число вершин, параметры и зерно дают одинаковый граф
+// независимо от числа потоков, на которых выполнялась генерация
+public interface GraphGenerator {
+    // Название генератора для отображения в интерфейсе
+    String getName();
+
+    // Названия числовых параметров генератора (для полей ввода)
+    String[] getParameterNames();
+
+    // Значения параметров по умолчанию (в порядке getParameterNames)
+    double[] getDefaultParameters();
+
+    // Построение графа, parameters значения параметров, seed зерно генератора.
+    // При недопустимых параметрах бросает IllegalArgumentException
+    CSRGraph generate(int vertexCount, double[] parameters, long seed);
+
+    // Все доступные генераторы (новые экземпляры)
+    static List<GraphGenerator> available() {
+        return Arrays.asList(new UniformGraphGenerator(), new ErdosRenyiGenerator(), new RMatGenerator(),
+                new PowerLawGenerator(), new PlantedSCCGenerator());
+    }
+}
@@ -1,13 +1,124 @@
 import javax.swing.*; // Импортируем библиотеку для работы с графическим интерфейсом
 import java.awt.*; // Импортируем библиотеку для работы с графикой
-import java.util.List; // Импортируем библиотеку для работы со списками
+import java.awt.event.MouseAdapter; // Обработка мыши (перетаскивание и колесо)
+import java.awt.event.MouseEvent;
+import java.awt.event.MouseWheelEvent;
+import java.awt.geom.AffineTransform; // Преобразование координат (масштаб экрана)
+import java.awt.image.BufferedImage; // Внеэкранное изображение статического слоя
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicBoolean; // Снимок раскладки ожидает вывода
 
-// Панель для визуализации графа и выполнения алгоритма
+// Панель для визуализации графа и выполнения алгоритма.
+// Вершины располагаются по окружности в мировых координатах (окружность растет с числом вершин, чтобы
+// вершины не перекрывались), а на экран выводятся с масштабом и сдвигом: колесо мыши меняет масштаб,
+// перетаскивание сдвигает вид, двойной щелчок возвращает весь граф в окно.
+// Отрисовка разделена на два слоя: статический рисуется во внеэкранное изображение, совместимое с экраном,
+// и пересоздается только при смене графа, результата, вида, размера или фона; поверх него на каждом шаге
+// рисуются лишь выделенные ребра и вершины.
+// Видимые вершины выбираются деревом квадрантов. Когда вершины на экране мельче LOD_VERTEX_PIXELS,
+// компоненты рисуются одним узлом в центре их вершин, ребра между компонентами - одним пучком
+// с толщиной по числу ребер, а мелкие на экране группы компонент - одной точкой, поэтому время
+// отрисовки кадра ограничено размером окна, а не размером графа.
+// Вершины раскрашиваются по состоянию алгоритма на текущем шаге (TraceIndex): найденные компоненты -
+// цветом компоненты, вершины в стеке, посещенные и непосещенные - своими цветами. При воспроизведении
+// больших графов статический слой с этой раскраской обновляется не чаще STATE_REFRESH_MILLIS.
+// Вместо окружности можно включить силовую раскладку (ForceLayout): она считается в фоновом потоке,
+// а промежуточные координаты выводятся по мере сходимости
 public class GraphPanel extends JPanel {
     private final SCCAlgorithm algorithm; // Ссылка на алгоритм
     // Цвета по умолчанию (можно перенести в SCCVisualizer, если нужно переключать тему)
     private final Color foregroundColor = new Color(200, 200, 200); // Светло-серый
     private final Color backgroundColor = new Color(40, 40, 40); // Темно-серый
+    // Разные пастельные цвета для разных компонент
+    private static final Color[] COMPONENT_COLORS = {
+            new Color(100, 149, 237), // Светло-голубой
+            new Color(152, 251, 152), // Светло-зеленый
+            new Color(255, 182, 193), // Светло-розовый
+            new Color(255, 255, 153), // Светло-желтый
+            new Color(218, 112, 214), // Светло-фиолетовый
+            new Color(255, 160, 122)  // Светло-коралловый
+    };
+    // Непрозрачные цвета уровня компонент: смешивание с прозрачностью в программном конвейере в десятки раз медленнее
+    private static final Color BUNDLE_COLOR = new Color(100, 100, 100); // Пучок ребер между компонентами
+    private static final Color CLUSTER_COLOR = new Color(170, 170, 170); // Группа компонент, слившихся на экране
+    // Состояние вершин, еще не отнесенных к найденной компоненте
+    private static final Color STACK_COLOR = new Color(255, 200, 120); // Вершина в стеке
+    private static final Color VISITED_COLOR = new Color(150, 150, 150); // Посещенная вершина
+    private static final Color UNVISITED_COLOR = new Color(85, 85, 85); // Непосещенная вершина (и ненайденная компонента)
+    private static final Font SMALL_FONT = new Font("Arial", Font.BOLD, 10); // Шрифт номеров для больших графов
+    private static final Font LARGE_FONT = new Font("Arial", Font.BOLD, 12); // Шрифт номеров для малых графов
+    private static final BasicStroke EDGE_STROKE = new BasicStroke(1.5f); // Обычное ребро
+    private static final BasicStroke THIN_STROKE = new BasicStroke(1f); // Ребро в упрощенном слое (рисуется быстрее)
+    private static final BasicStroke HIGHLIGHT_STROKE = new BasicStroke(2.5f); // Выделенное ребро
+    private static final BasicStroke[] BUNDLE_STROKES = new BasicStroke[8]; // Толщина пучка по log2 числа ребер
+    private static final int ARROW_SIZE = 10; // Размер наконечника стрелки
+    private static final int DETAILED_EDGE_LIMIT = 20000; // Больше ребер - в слое линии без сглаживания и наконечников
+    private static final int DETAILED_VERTEX_LIMIT = 2000; // Больше вершин - в слое круги без сглаживания и номеров
+    private static final double LABEL_PIXELS = 14; // Номера рисуются на вершинах не мельче этого размера
+    private static final double LOD_VERTEX_PIXELS = 4; // Вершины мельче - рисуются компоненты и пучки
+    private static final double LOD_CELL_PIXELS = 6; // Компоненты в ячейке такого размера сливаются в точку
+    private static final int MAX_FRAME_EDGES = 100000; // Наибольшее число ребер в кадре
+    private static final int MAX_FRAME_BUNDLES = 3000; // Наибольшее число пучков в кадре (самые тяжелые)
+    private static final int MAX_SCANNED_BUNDLES = 200000; // Наибольшее число пучков, проверяемых за кадр
+    private static final double MAX_ZOOM = 8; // Наибольшее увеличение (экранных точек на единицу мира)
+    private static final double ZOOM_STEP = 1.2; // Изменение масштаба на одно деление колеса
+    private static final int STATE_REFRESH_MILLIS = 250; // Наименьший интервал обновления раскраски по шагу
+    private static final long LAYOUT_FRAME_NANOS = 100_000_000; // Наименьший интервал вывода силовой раскладки
+
+    static {
+        for (int k = 0; k < BUNDLE_STROKES.length; k++) {
+            BUNDLE_STROKES[k] = new BasicStroke(1 + k / 2f);
+        }
+    }
+
+    // Кэш расположения вершин (мировые координаты)
+    private CSRGraph layoutGraph; // Граф, для которого вычислены координаты
+    private SCCResult layoutResult; // Результат, по которому упорядочены вершины
+    private boolean layoutGrouped; // Вершины упорядочены по компонентам
+    private int layoutWidth; // Размер панели, для которого вычислены координаты
+    private int layoutHeight;
+    private double[] xs = new double[0]; // Координаты вершин
+    private double[] ys = new double[0];
+    private int vertexSize; // Размер вершины
+    private QuadTree vertexTree; // Индекс вершин
+    private int[] shownFrame = new int[0]; // Кадр, в котором вершина видна (ребра к ней рисуются от нее)
+    private int frame; // Счетчик кадров подробной отрисовки
+    private CSRGraph incomingGraph; // Граф, для которого запрошены входящие ребра
+    private CSRGraph incoming; // Обращенный incomingGraph (null - еще строится); хранится, только пока граф на экране
+    private boolean forceLayout; // Координаты задает силовая раскладка, а не окружность
+    private volatile int layoutGeneration; // Номер запуска силовой раскладки (устаревшие запуски останавливаются)
+
+    // Вид: экранная точка = мировая * scale + offset
+    private double scale = 1; // Масштаб
+    private double offsetX; // Сдвиг
+    private double offsetY;
+    private double fitScale = 1; // Масштаб, при котором граф целиком помещается в окно
+    private int viewVersion; // Счетчик изменений вида
+
+    // Кэш уровня детализации по компонентам
+    private CSRGraph lodGraph; // Граф и результат, по которым построены компоненты и пучки
+    private SCCResult lodResult;
+    private double[] componentX = new double[0]; // Центры компонент
+    private double[] componentY = new double[0];
+    private int[] componentSize = new int[0]; // Размеры компонент
+    private int[] componentOf = new int[0]; // Компонента вершины (без результата - сама вершина)
+    private QuadTree componentTree; // Индекс центров компонент
+    private int[] bundleFrom = new int[0]; // Пучки ребер между компонентами по убыванию числа ребер
+    private int[] bundleTo = new int[0];
+    private int[] bundleWeight = new int[0];
+    private int[] incidentOffsets = new int[1]; // Пучки каждой компоненты (исходящие и входящие) по убыванию веса
+    private int[] incidentBundles = new int[0];
+    private int[] bundleFrame = new int[0]; // Кадр, в котором пучок уже выбран для отрисовки
+
+    // Кэш статического слоя
+    private BufferedImage staticLayer; // Ребра и вершины без выделений
+    private SCCResult layerResult; // Результат, по которому раскрашены вершины слоя
+    private Color layerBackground; // Фон, на котором нарисован слой
+    private double layerScale; // Масштаб экрана, для которого нарисован слой
+    private int layerViewVersion = -1; // Вид, для которого нарисован слой
+    private int layerStep = -1; // Шаг, по состоянию на котором раскрашен слой (-1 - раскраска по результату)
+    private final Timer stateRefresh = new Timer(STATE_REFRESH_MILLIS, e -> repaint()); // Отложенное обновление раскраски
+    private int paintedStep = -1; // Шаг, выделения которого сейчас на экране
 
     // Конструктор панели, algorithm объект алгоритма для визуализации
     public GraphPanel(SCCAlgorithm algorithm) {
@@ -16,6 +127,91 @@ public class GraphPanel extends JPanel {
         setBorder(BorderFactory.createLineBorder(Color.BLACK)); // Устанавливаем рамку панели
         setBackground(backgroundColor); // Устанавливаем темный фон
         setForeground(foregroundColor);
+
+        MouseAdapter navigation = new MouseAdapter() { // Масштаб и сдвиг вида мышью
+            private Point last; // Последняя точка перетаскивания
+
+            @Override
+            public void mousePressed(MouseEvent e) {
+                last = e.getPoint();
+            }
+
+            @Override
+            public void mouseDragged(MouseEvent e) {
+                if (last == null) return;
+                moveView(e.getX() - last.x, e.getY() - last.y); // Сдвигаем вид вслед за мышью
+                last = e.getPoint();
+            }
+
+            @Override
+            public void mouseWheelMoved(MouseWheelEvent e) {
+                zoom(Math.pow(ZOOM_STEP, -e.getPreciseWheelRotation()), e.getX(), e.getY()); // Масштаб вокруг курсора
+            }
+
+            @Override
+            public void mouseClicked(MouseEvent e) {
+                if (e.getClickCount() == 2) fitView(); // Двойной щелчок - весь граф в окне
+            }
+        };
+        addMouseListener(navigation);
+        addMouseMotionListener(navigation);
+        addMouseWheelListener(navigation);
+        stateRefresh.setRepeats(false);
+    }
+
+    // Изменение масштаба в factor раз с неподвижной экранной точкой (x, y)
+    public void zoom(double factor, double x, double y) {
+        double newScale = Math.max(fitScale / 4, Math.min(MAX_ZOOM, scale * factor));
+        offsetX = x - (x - offsetX) * newScale / scale;
+        offsetY = y - (y - offsetY) * newScale / scale;
+        scale = newScale;
+        viewChanged();
+    }
+
+    // Сдвиг вида на (dx, dy) экранных точек
+    public void moveView(double dx, double dy) {
+        offsetX += dx;
+        offsetY += dy;
+        viewChanged();
+    }
+
+    // Возврат к виду, в котором граф целиком помещается в окно
+    public void fitView() {
+        scale = fitScale;
+        offsetX = getWidth() / 2.0;
+        offsetY = getHeight() / 2.0;
+        viewChanged();
+    }
+
+    private void viewChanged() {
+        viewVersion++;
+        repaint();
+    }
+
+    // Перерисовка после смены шага: обновляются только области прежних и новых выделений.
+    // Смена графа или результата по-прежнему требует обычного repaint()
+    public void stepChanged() {
+        if (layoutGraph != algorithm.getCSRGraph() || layoutWidth != getWidth() || layoutHeight != getHeight()
+                || layerResult != algorithm.getResult() || layoutResult != algorithm.getResult()
+                || layerViewVersion != viewVersion) {
+            repaint(); // Расположение, раскраска или вид устарели - перерисовываем целиком
+            return;
+        }
+        if (layerStep != stateStep()) { // Раскраска по состоянию устарела
+            if (algorithm.getCSRGraph().vertexCount() <= DETAILED_VERTEX_LIMIT) {
+                repaint(); // Малый граф перерисовывается быстро
+                return;
+            }
+            if (!stateRefresh.isRunning()) stateRefresh.start(); // Большой - полностью не чаще STATE_REFRESH_MILLIS
+        }
+        Rectangle dirty = highlightBounds(paintedStep); // Область прежних выделений
+        Rectangle current = highlightBounds(algorithm.getCurrentStep()); // Область новых выделений
+        if (dirty == null) {
+            dirty = current;
+        } else if (current != null) {
+            dirty.add(current);
+        }
+        if (dirty != null) repaint(dirty); // Перерисовываем только измененную область
     }
 
     // Метод отрисовки компонента, g графический контекст
@@ -32,143 +228,664 @@ public class GraphPanel extends JPanel {
 
     // Отрисовка графа, g2d графический контекст
     private void drawGraph(Graphics2D g2d) {
-        List<List<Integer>> graph = algorithm.getGraph(); // Получаем список смежности графа
-        int vertexCount = graph.size(); // Определяем количество вершин
-        if (vertexCount == 0) return; // Если граф пустой, ничего не рисуем
+        CSRGraph graph = algorithm.getCSRGraph(); // Получаем граф в формате CSR
+        paintedStep = algorithm.getCurrentStep(); // Запоминаем шаг, выделения которого будут на экране
+        if (incomingGraph != null && incomingGraph != graph) { // Входящие ребра прежнего графа больше не нужны
+            incomingGraph = null;
+            incoming = null;
+        }
+        if (graph.vertexCount() == 0) return; // Если граф пустой, ничего не рисуем
 
-        int centerX = getWidth() / 2; // Вычисляем центр по X
-        int centerY = getHeight() / 2; // Вычисляем центр по Y
-        // Радиус расположения вершин (с отступом от краев)
-        int radius = Math.min(centerX, centerY) - 50;
+        updateLayout(graph); // Координаты вершин (пересчитываются только при смене графа, размера или порядка компонент)
+        updateStaticLayer(g2d, graph); // Статический слой (перерисовывается только при изменениях)
+        g2d.drawImage(staticLayer, 0, 0, getWidth(), getHeight(), null); // Копируем слой (только в области отсечения)
+        drawHighlights(g2d, graph, paintedStep); // Поверх рисуем выделения текущего шага
+    }
 
-        // Настройки отображения (адаптируемся под количество вершин)
-        int vertexSize = vertexCount > 10 ? 20 : 30; // Размер вершины
-        Font vertexFont = new Font("Arial", Font.BOLD, vertexCount > 10 ? 10 : 12); // Шрифт для номеров вершин
-        g2d.setFont(vertexFont); // Устанавливаем шрифт
+    // Вычисление мировых координат вершин по окружности для графа graph, сброс вида на весь граф.
+    // Если целиком граф виден только на уровне компонент, вершины на окружности идут по компонентам
+    // (каждая компонента - дуга), чтобы центры компонент не сливались в центре окружности
+    private void updateLayout(CSRGraph graph) {
+        SCCResult result = algorithm.getResult();
+        boolean resized = layoutGraph != graph || layoutWidth != getWidth() || layoutHeight != getHeight();
+        if (forceLayout) {
+            if (layoutGraph == graph) { // Силовая раскладка не зависит от раскраски, при смене размера только вписываем вид
+                layoutResult = result;
+                if (resized) fitForceLayout();
+                return;
+            }
+            forceLayout = false; // Граф сменился - возвращаемся к окружности
+            layoutGeneration++;
+        }
+        if (!resized && (!layoutGrouped || layoutResult == result)) return; // Кэш актуален
+        int vertexCount = graph.vertexCount(); // Определяем количество вершин
+        vertexSize = vertexCount > 10 ? 20 : 30; // Размер вершины (адаптируемся под количество вершин)
+        // Радиус расположения вершин (с отступом от краев), для больших графов - такой, чтобы вершины не перекрывались
+        double fitRadius = fitRadius();
+        double radius = Math.max(fitRadius, vertexCount * 1.5 * vertexSize / (2 * Math.PI));
+        layoutGrouped = vertexSize * fitRadius / radius < LOD_VERTEX_PIXELS;
+        int[] order = layoutGrouped && result.getVertexCount() == vertexCount ? result.getMembers() : null;
+        xs = new double[vertexCount];
+        ys = new double[vertexCount];
+        for (int i = 0; i < vertexCount; i++) { // Проходим по позициям на окружности
+            int v = order != null ? order[i] : i; // Вершина на позиции i
+            double angle = 2 * Math.PI * i / vertexCount; // Вычисляем угол
+            xs[v] = (int) (radius * Math.sin(angle)); // Вычисляем координату X (центр окружности в начале координат)
+            ys[v] = -(int) (radius * Math.cos(angle)); // Вычисляем координату Y
+        }
+        vertexTree = new QuadTree(xs, ys, null);
+        shownFrame = new int[vertexCount];
+        layoutGraph = graph;
+        layoutResult = result;
+        layoutWidth = getWidth();
+        layoutHeight = getHeight();
+        lodGraph = null; // Центры компонент вычислены для старых координат
+        staticLayer = null;
+        fitScale = fitRadius / radius;
+        if (resized) fitView(); // При смене одной раскраски вид сохраняется
+    }
+
+    // Радиус окна, в который вписывается граф (с отступом от краев)
+    private double fitRadius() {
+        return Math.max(1, Math.min(getWidth(), getHeight()) / 2.0 - 50);
+    }
 
-        // 1. Сначала рисуем все ребра (чтобы они были под вершинами)
-        for (int from = 0; from < vertexCount; from++) { // Проходим по всем вершинам
-            // Координаты начальной вершины
-            double angle1 = 2 * Math.PI * from / vertexCount; // Вычисляем угол
-            int x1 = centerX + (int) (radius * Math.sin(angle1)); // Вычисляем координату X
-            int y1 = centerY - (int) (radius * Math.cos(angle1)); // Вычисляем координату Y
+    // Запуск силовой раскладки текущего графа в фоновом потоке. Если компоненты уже найдены, раскладка
+    // начинается от раскладки графа конденсации, и вершины одной компоненты остаются рядом.
+    // Промежуточные координаты выводятся не чаще LAYOUT_FRAME_NANOS и не раньше, чем выведен прежний снимок
+    public void startForceLayout() {
+        CSRGraph graph = algorithm.getCSRGraph();
+        SCCResult result = algorithm.getResult();
+        int generation = ++layoutGeneration; // Прежний запуск остановится
+        if (graph.vertexCount() == 0) return;
+        AtomicBoolean pending = new AtomicBoolean(); // Снимок передан в поток событий, но еще не выведен
+        Thread worker = new Thread(() -> {
+            ForceLayout layout = result.getVertexCount() == graph.vertexCount()
+                    ? ForceLayout.seededByComponents(graph, result, 1)
+                    : new ForceLayout(graph, 1);
+            long published = 0;
+            boolean moving = true;
+            while (layoutGeneration == generation) {
+                long now = System.nanoTime();
+                if (!moving || (now - published >= LAYOUT_FRAME_NANOS && !pending.get())) {
+                    pending.set(true);
+                    double[] x = layout.getX();
+                    double[] y = layout.getY();
+                    boolean first = published == 0;
+                    SwingUtilities.invokeLater(() -> {
+                        pending.set(false);
+                        applyForceLayout(graph, generation, x, y, first);
+                    });
+                    published = now;
+                    if (!moving) break; // Последний снимок выведен
+                }
+                moving = layout.step();
+            }
+        }, "force-layout");
+        worker.setDaemon(true); // Не мешает завершению программы
+        worker.start();
+    }
 
-            // Рисуем ребра к соседям
-            for (int to : graph.get(from)) { // Проходим по соседям текущей вершины
-                // Координаты конечной вершины
-                double angle2 = 2 * Math.PI * to / vertexCount; // Вычисляем угол
-                int x2 = centerX + (int) (radius * Math.sin(angle2)); // Вычисляем координату X
-                int y2 = centerY - (int) (radius * Math.cos(angle2)); // Вычисляем координату Y
+    // Возврат к расположению вершин по окружности (останавливает силовую раскладку)
+    public void useCircleLayout() {
+        layoutGeneration++;
+        if (forceLayout) {
+            forceLayout = false;
+            layoutGraph = null; // Координаты будут пересчитаны при отрисовке
+            repaint();
+        }
+    }
 
-                setEdgeStyle(g2d, from, to); // Устанавливаем стиль ребра
-                drawArrow(g2d, x1, y1, x2, y2); // Рисуем стрелку
+    // Вывод снимка силовой раскладки generation для графа graph (в потоке событий)
+    private void applyForceLayout(CSRGraph graph, int generation, double[] x, double[] y, boolean first) {
+        if (generation != layoutGeneration) return; // Запуск устарел
+        if (graph != algorithm.getCSRGraph()) { // Граф сменился во время раскладки
+            layoutGeneration++;
+            return;
+        }
+        double x0 = Double.POSITIVE_INFINITY, y0 = Double.POSITIVE_INFINITY;
+        double x1 = Double.NEGATIVE_INFINITY, y1 = Double.NEGATIVE_INFINITY;
+        for (int v = 0; v < x.length; v++) {
+            x0 = Math.min(x0, x[v]);
+            y0 = Math.min(y0, y[v]);
+            x1 = Math.max(x1, x[v]);
+            y1 = Math.max(y1, y[v]);
+        }
+        double cx = (x0 + x1) / 2;
+        double cy = (y0 + y1) / 2;
+        for (int v = 0; v < x.length; v++) { // Центр раскладки - в начале координат, как у окружности
+            x[v] -= cx;
+            y[v] -= cy;
+        }
+        xs = x;
+        ys = y;
+        vertexSize = x.length > 10 ? 20 : 30;
+        vertexTree = new QuadTree(xs, ys, null);
+        if (shownFrame.length != x.length) shownFrame = new int[x.length];
+        forceLayout = true;
+        layoutGrouped = false;
+        layoutGraph = graph;
+        layoutResult = algorithm.getResult();
+        lodGraph = null; // Центры компонент вычислены для старых координат
+        staticLayer = null;
+        double extent = Math.max(x1 - x0, y1 - y0) / 2 + vertexSize; // Половина стороны раскладки
+        double previous = fitScale;
+        fitScale = fitRadius() / Math.max(1, extent);
+        if (first) {
+            layoutWidth = getWidth();
+            layoutHeight = getHeight();
+            fitView(); // Первый снимок - весь граф в окне
+        } else {
+            if (scale == previous) scale = fitScale; // Вид не менялся пользователем - следим за размером раскладки
+            viewChanged();
+        }
+    }
+
+    // Вписывание силовой раскладки в окно нового размера
+    private void fitForceLayout() {
+        double extent = 0;
+        for (int v = 0; v < xs.length; v++) extent = Math.max(extent, Math.max(Math.abs(xs[v]), Math.abs(ys[v])));
+        fitScale = fitRadius() / Math.max(1, extent + vertexSize);
+        layoutWidth = getWidth();
+        layoutHeight = getHeight();
+        staticLayer = null;
+        fitView();
+    }
+
+    // Центры компонент и пучки ребер между ними для текущего графа и результата
+    private void updateLevelOfDetail(CSRGraph graph, SCCResult result) {
+        if (lodGraph == graph && lodResult == result) return; // Кэш актуален
+        int V = graph.vertexCount();
+        int count;
+        if (result.getVertexCount() == V) { // Результат относится к этому графу
+            componentOf = result.getComponentOf();
+            count = result.getComponentCount();
+        } else { // Компоненты еще не найдены - каждая вершина сама по себе
+            componentOf = new int[V];
+            for (int v = 0; v < V; v++) componentOf[v] = v;
+            count = V;
+        }
+        componentX = new double[count];
+        componentY = new double[count];
+        componentSize = new int[count];
+        for (int v = 0; v < V; v++) {
+            int c = componentOf[v];
+            componentX[c] += xs[v];
+            componentY[c] += ys[v];
+            componentSize[c]++;
+        }
+        for (int c = 0; c < count; c++) {
+            componentX[c] /= componentSize[c]; // Центр компоненты - среднее ее вершин
+            componentY[c] /= componentSize[c];
+        }
+        componentTree = new QuadTree(componentX, componentY, componentSize);
+
+        // Пучки: ребра между компонентами, подсчитанные по парам компонент, как при построении конденсации
+        long[] pairs = new long[16];
+        int pairCount = 0;
+        for (int v = 0; v < V; v++) {
+            for (int e = graph.firstEdge(v); e < graph.lastEdge(v); e++) {
+                int c = componentOf[v];
+                int d = componentOf[graph.target(e)];
+                if (c == d) continue; // Ребро внутри компоненты
+                if (pairCount == pairs.length) pairs = Arrays.copyOf(pairs, pairCount * 2);
+                pairs[pairCount++] = (long) c << 32 | d;
+            }
+        }
+        Arrays.parallelSort(pairs, 0, pairCount);
+        long[] order = new long[pairCount]; // Пучки с весом, упорядочиваемые по убыванию веса
+        int bundles = 0;
+        for (int i = 0; i < pairCount; ) {
+            int j = i;
+            while (j < pairCount && pairs[j] == pairs[i]) j++;
+            pairs[bundles] = pairs[i];
+            order[bundles] = (long) (Integer.MAX_VALUE - (j - i)) << 32 | bundles;
+            bundles++;
+            i = j;
+        }
+        Arrays.sort(order, 0, bundles);
+        bundleFrom = new int[bundles];
+        bundleTo = new int[bundles];
+        bundleWeight = new int[bundles];
+        for (int k = 0; k < bundles; k++) {
+            long pair = pairs[(int) order[k]];
+            bundleFrom[k] = (int) (pair >>> 32);
+            bundleTo[k] = (int) pair;
+            bundleWeight[k] = Integer.MAX_VALUE - (int) (order[k] >>> 32);
+        }
+        // Пучки каждой компоненты сортировкой подсчетом; пучки перебираются по убыванию веса, поэтому списки тоже упорядочены
+        incidentOffsets = new int[count + 1];
+        for (int k = 0; k < bundles; k++) {
+            incidentOffsets[bundleFrom[k] + 1]++;
+            incidentOffsets[bundleTo[k] + 1]++;
+        }
+        for (int c = 0; c < count; c++) {
+            incidentOffsets[c + 1] += incidentOffsets[c];
+        }
+        int[] cursor = Arrays.copyOf(incidentOffsets, count);
+        incidentBundles = new int[2 * bundles];
+        for (int k = 0; k < bundles; k++) {
+            incidentBundles[cursor[bundleFrom[k]]++] = k;
+            incidentBundles[cursor[bundleTo[k]]++] = k;
+        }
+        bundleFrame = new int[bundles];
+        lodGraph = graph;
+        lodResult = result;
+    }
+
+    // Перерисовка статического слоя, если изменились граф, раскраска, вид, фон или масштаб экрана
+    private void updateStaticLayer(Graphics2D g2d, CSRGraph graph) {
+        AffineTransform transform = g2d.getTransform();
+        double deviceScale = Math.max(1, transform.getScaleX()); // Масштаб экрана (HiDPI)
+        SCCResult result = algorithm.getResult();
+        int step = stateStep();
+        Rectangle clip = g2d.getClipBounds();
+        boolean full = clip == null || clip.contains(0, 0, getWidth(), getHeight()); // Перерисовывается вся панель
+        if (staticLayer != null && layerResult == result && getBackground().equals(layerBackground)
+                && layerScale == deviceScale && layerViewVersion == viewVersion && (layerStep == step || !full)) {
+            return; // Слой актуален (раскраска по шагу обновляется только при полной перерисовке)
+        }
+        int width = Math.max(1, (int) Math.ceil(getWidth() * deviceScale));
+        int height = Math.max(1, (int) Math.ceil(getHeight() * deviceScale));
+        GraphicsConfiguration configuration = getGraphicsConfiguration();
+        // Изображение в формате экрана копируется на экран без преобразования пикселей и может кэшироваться видеокартой
+        BufferedImage image = staticLayer != null && staticLayer.getWidth() == width && staticLayer.getHeight() == height
+                ? staticLayer // При смене вида изображение используется повторно
+                : configuration != null
+                ? configuration.createCompatibleImage(width, height, Transparency.OPAQUE)
+                : new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D layer = image.createGraphics();
+        try {
+            layer.scale(deviceScale, deviceScale);
+            layer.setColor(getBackground()); // Заливаем фон
+            layer.fillRect(0, 0, getWidth(), getHeight());
+            if (vertexSize * scale < LOD_VERTEX_PIXELS) {
+                updateLevelOfDetail(graph, result);
+                drawComponents(layer, step);
+            } else {
+                drawVertices(layer, graph, result, step);
+            }
+        } finally {
+            layer.dispose();
+        }
+        staticLayer = image;
+        layerResult = result;
+        layerBackground = getBackground();
+        layerScale = deviceScale;
+        layerViewVersion = viewVersion;
+        layerStep = step;
+    }
+
+    // Шаг, по состоянию на котором раскрашиваются вершины (-1 - журнала нет, раскраска по результату)
+    private int stateStep() {
+        return algorithm.getTraceIndex() != null ? algorithm.getCurrentStep() : -1;
+    }
+
+    // Цвет вершины v по состоянию алгоритма на шаге step (index - индекс журнала, null - по результату)
+    private static Color getVertexColor(SCCResult result, TraceIndex index, int step, int v) {
+        if (index == null || v >= result.getVertexCount() || index.isAssigned(v, step)) {
+            return getVertexColor(result, v); // Компонента найдена
+        }
+        if (index.isOnStack(v, step)) return STACK_COLOR;
+        return index.isVisited(v, step) ? VISITED_COLOR : UNVISITED_COLOR;
+    }
+
+    // Подробная отрисовка: видимые вершины и ребра, которые к ним примыкают
+    private void drawVertices(Graphics2D layer, CSRGraph graph, SCCResult result, int step) {
+        double margin = vertexSize; // Вершины у края окна видны частично (мировые единицы)
+        int[] vertices = collectVisible(margin);
+        if (++frame == 0) Arrays.fill(shownFrame, 0); // Переполнение счетчика кадров
+        long edges = 0;
+        for (int v : vertices) {
+            shownFrame[v] = frame;
+            edges += graph.degree(v);
+        }
+        // На больших фрагментах ребра и вершины сливаются, поэтому детали (сглаживание, наконечники, номера),
+        // которые составляют основную часть времени отрисовки, опускаются
+        boolean detailedEdges = edges <= DETAILED_EDGE_LIMIT;
+        boolean detailedVertices = vertices.length <= DETAILED_VERTEX_LIMIT;
+        double size = vertexSize * scale; // Размер вершины на экране
+
+        // 1. Сначала рисуем ребра (чтобы они были под вершинами): исходящие из видимых вершин
+        // и входящие в них из невидимых, каждое ребро один раз
+        layer.setRenderingHint(RenderingHints.KEY_ANTIALIASING,
+                detailedEdges ? RenderingHints.VALUE_ANTIALIAS_ON : RenderingHints.VALUE_ANTIALIAS_OFF);
+        layer.setColor(Color.GRAY); // Устанавливаем серый цвет
+        layer.setStroke(detailedEdges ? EDGE_STROKE : THIN_STROKE); // Устанавливаем толщину линий
+        CSRGraph reversed = vertices.length < graph.vertexCount() ? incomingEdges(graph) : null;
+        int drawn = 0;
+        for (int v : vertices) {
+            for (int e = graph.firstEdge(v); e < graph.lastEdge(v) && drawn < MAX_FRAME_EDGES; e++, drawn++) {
+                drawEdge(layer, v, graph.target(e), detailedEdges);
+            }
+            if (reversed == null) continue;
+            for (int e = reversed.firstEdge(v); e < reversed.lastEdge(v) && drawn < MAX_FRAME_EDGES; e++) {
+                int from = reversed.target(e);
+                if (shownFrame[from] != frame) { // Начало невидимо (иначе ребро уже нарисовано)
+                    drawEdge(layer, from, v, detailedEdges);
+                    drawn++;
+                }
             }
         }
 
         // 2. Затем рисуем вершины поверх ребер
-        for (int i = 0; i < vertexCount; i++) { // Проходим по всем вершинам
-            // Координаты вершины
-            double angle = 2 * Math.PI * i / vertexCount; // Вычисляем угол
-            int x = centerX + (int) (radius * Math.sin(angle)); // Вычисляем координату X
-            int y = centerY - (int) (radius * Math.cos(angle)); // Вычисляем координату Y
-
-            // Получаем цвет вершины в зависимости от состояния
-            Color vertexColor = getVertexColor(i); // Определяем цвет вершины
-
-            // Рисуем вершину (круг)
-            g2d.setColor(vertexColor); // Устанавливаем цвет
-            g2d.fillOval(x - vertexSize / 2, y - vertexSize / 2, vertexSize, vertexSize); // Рисуем круг
-            g2d.setColor(foregroundColor); // Устанавливаем цвет границы
-            g2d.drawOval(x - vertexSize / 2, y - vertexSize / 2, vertexSize, vertexSize); // Рисуем границу круга
-
-            // Рисуем номер вершины (центрируем текст)
-            FontMetrics fm = g2d.getFontMetrics(); // Получаем метрики шрифта
-            String text = Integer.toString(i); // Преобразуем номер вершины в строку
-            int textWidth = fm.stringWidth(text); // Вычисляем ширину текста
-            g2d.setColor(foregroundColor);
-            g2d.drawString(text, x - textWidth / 2, y + fm.getAscent() / 2 - 2); // Рисуем текст
-        }
-    }
-
-    // Установка стиля ребра (цвет и толщина), g2d графический контекст, from начальная вершина, to конечная
-    private void setEdgeStyle(Graphics2D g2d, int from, int to) {
-        // Проверяем текущий шаг алгоритма
-        int currentStep = algorithm.getCurrentStep(); // Получаем текущий шаг
-        if (currentStep < algorithm.getSteps().size()) { // Если шаг в пределах списка шагов
-            String step = algorithm.getSteps().get(currentStep); // Получаем текущий шаг
-            // Если ребро относится к текущему шагу - выделяем его
-            if (step.contains("Переход из " + from + " в " + to) ||
-                    step.contains("Посещаем вершину " + from)) {
-                g2d.setColor(Color.RED); // Красный для активного ребра
-                g2d.setStroke(new BasicStroke(2.5f)); // Увеличиваем толщину линии
-                return; // Выходим из метода
+        layer.setRenderingHint(RenderingHints.KEY_ANTIALIASING,
+                detailedVertices ? RenderingHints.VALUE_ANTIALIAS_ON : RenderingHints.VALUE_ANTIALIAS_OFF);
+        layer.setFont(graph.vertexCount() > 10 ? SMALL_FONT : LARGE_FONT); // Устанавливаем шрифт
+        TraceIndex index = step >= 0 ? algorithm.getTraceIndex() : null;
+        for (int v : vertices) {
+            Color color = getVertexColor(result, index, step, v); // Цвет по состоянию на шаге
+            if (detailedVertices) {
+                drawVertex(layer, v, color); // Рисуем вершину с номером
+            } else {
+                int s = Math.max(1, (int) size);
+                layer.setColor(color);
+                layer.fillOval((int) screenX(v) - s / 2, (int) screenY(v) - s / 2, s, s); // Только круг
             }
         }
-        // Стандартный стиль для остальных ребер
-        g2d.setColor(Color.GRAY); // Устанавливаем серый цвет
-        g2d.setStroke(new BasicStroke(1.5f)); // Устанавливаем стандартную толщину
     }
 
-    // Определение цвета вершины, vertex номер вершины, vertex номер вершины
-    private Color getVertexColor(int vertex) {
-        // 1. Проверяем текущий шаг алгоритма
-        int currentStep = algorithm.getCurrentStep(); // Получаем текущий шаг
-        if (currentStep < algorithm.getSteps().size()) { // Если шаг в пределах списка шагов
-            String step = algorithm.getSteps().get(currentStep); // Получаем текущий шаг
-            if (step.contains("Посещаем вершину " + vertex)) {
-                return Color.RED; // Красный - текущая вершина
-            } else if (step.contains("Добавляем вершину " + vertex)) {
-                return Color.ORANGE; // Оранжевый - вершина в стеке
+    // Обращенный граф для входящих ребер видимых вершин. Строится в фоновом потоке при первом увеличении
+    // и принадлежит панели (а не кэшу графа), пока граф на экране; до готовности входящие ребра
+    // из невидимых вершин не рисуются, затем слой перерисовывается
+    private CSRGraph incomingEdges(CSRGraph graph) {
+        if (incomingGraph != graph) {
+            incomingGraph = graph;
+            incoming = null;
+            Thread worker = new Thread(() -> {
+                CSRGraph reversed = graph.transpose();
+                SwingUtilities.invokeLater(() -> {
+                    if (incomingGraph != graph) return; // Граф сменился
+                    incoming = reversed;
+                    layerViewVersion = -1; // Слой перерисуется с входящими ребрами
+                    repaint();
+                });
+            }, "incoming-edges");
+            worker.setDaemon(true);
+            worker.start();
+        }
+        return incoming;
+    }
+
+    // Номера вершин, видимых в окне с запасом margin мировых единиц
+    private int[] collectVisible(double margin) {
+        int[][] buffer = {new int[64]};
+        int[] count = {0};
+        vertexTree.query(worldX(0) - margin, worldY(0) - margin, worldX(getWidth()) + margin,
+                worldY(getHeight()) + margin, 0, new QuadTree.Visitor() {
+                    @Override
+                    public void point(int id) {
+                        if (count[0] == buffer[0].length) buffer[0] = Arrays.copyOf(buffer[0], count[0] * 2);
+                        buffer[0][count[0]++] = id;
+                    }
+
+                    @Override
+                    public void cluster(double x, double y, int size, long weight) {
+                        // При нулевом размере ячейки кластеров нет
+                    }
+                });
+        return Arrays.copyOf(buffer[0], count[0]);
+    }
+
+    // Отрисовка на уровне компонент: пучки ребер, затем компоненты и группы компонент.
+    // Кандидаты в пучки - пучки видимых компонент и (если часть компонент слилась в группы) самые тяжелые
+    // пучки графа; и тех и других просматривается не больше MAX_SCANNED_BUNDLES
+    private void drawComponents(Graphics2D layer, int step) {
+        double x0 = worldX(0), y0 = worldY(0), x1 = worldX(getWidth()), y1 = worldY(getHeight());
+
+        // 1. Видимые компоненты и группы компонент, слившихся на экране
+        int[][] points = {new int[64]};
+        double[][] clusters = {new double[64]}; // Тройки: x, y, вес
+        int[] counts = {0, 0};
+        componentTree.query(x0, y0, x1, y1, LOD_CELL_PIXELS / scale, new QuadTree.Visitor() {
+            @Override
+            public void point(int c) {
+                if (counts[0] == points[0].length) points[0] = Arrays.copyOf(points[0], counts[0] * 2);
+                points[0][counts[0]++] = c;
+            }
+
+            @Override
+            public void cluster(double x, double y, int size, long weight) {
+                if (counts[1] + 3 > clusters[0].length) clusters[0] = Arrays.copyOf(clusters[0], clusters[0].length * 2);
+                clusters[0][counts[1]++] = x;
+                clusters[0][counts[1]++] = y;
+                clusters[0][counts[1]++] = weight;
+            }
+        });
+
+        // 2. Кандидаты в пучки
+        if (++frame == 0) Arrays.fill(bundleFrame, 0); // Переполнение счетчика кадров
+        int[] candidates = new int[64];
+        int candidateCount = 0;
+        for (int i = 0; i < counts[0] && candidateCount < MAX_SCANNED_BUNDLES; i++) {
+            int c = points[0][i];
+            int last = Math.min(incidentOffsets[c + 1], incidentOffsets[c] + MAX_FRAME_BUNDLES);
+            for (int j = incidentOffsets[c]; j < last && candidateCount < MAX_SCANNED_BUNDLES; j++) {
+                int k = incidentBundles[j];
+                if (bundleFrame[k] == frame) continue; // Пучок между двумя видимыми компонентами уже взят
+                bundleFrame[k] = frame;
+                if (candidateCount == candidates.length) candidates = Arrays.copyOf(candidates, candidateCount * 2);
+                candidates[candidateCount++] = k;
             }
         }
+        if (counts[1] > 0) { // Пучки групп известны только в общем списке
+            int last = Math.min(bundleFrom.length, MAX_SCANNED_BUNDLES);
+            for (int k = 0; k < last; k++) {
+                if (bundleFrame[k] == frame) continue;
+                if (candidateCount == candidates.length) candidates = Arrays.copyOf(candidates, candidateCount * 2);
+                candidates[candidateCount++] = k;
+            }
+        }
+        Arrays.sort(candidates, 0, candidateCount); // Номера пучков упорядочены по убыванию веса
 
-        // 2. Проверяем принадлежность к компоненте
-        for (List<Integer> scc : algorithm.getSCCs()) { // Проходим по компонентам связности
-            if (scc.contains(vertex)) { // Если вершина в компоненте
-                // Разные пастельные цвета для разных компонент
-                int index = algorithm.getSCCs().indexOf(scc) % 6; // Индекс компоненты
-                return new Color[]{ // Возвращаем цвет в зависимости от индекса
-                        new Color(100, 149, 237), // Светло-голубой
-                        new Color(152, 251, 152), // Светло-зеленый
-                        new Color(255, 182, 193), // Светло-розовый
-                        new Color(255, 255, 153), // Светло-желтый
-                        new Color(218, 112, 214), // Светло-фиолетовый
-                        new Color(255, 160, 122)  // Светло-коралловый
-                }[index]; // Возвращаем цвет
+        // 3. Пучки от самых тяжелых к легким, пока не набрано MAX_FRAME_BUNDLES видимых
+        layer.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_OFF); // Толстые линии со сглаживанием дороги
+        layer.setColor(BUNDLE_COLOR);
+        int drawn = 0;
+        for (int i = 0; i < candidateCount && drawn < MAX_FRAME_BUNDLES; i++) {
+            int k = candidates[i];
+            int a = bundleFrom[k];
+            int b = bundleTo[k];
+            if (Math.max(componentX[a], componentX[b]) < x0 || Math.min(componentX[a], componentX[b]) > x1
+                    || Math.max(componentY[a], componentY[b]) < y0 || Math.min(componentY[a], componentY[b]) > y1) {
+                continue; // Пучок целиком вне окна
             }
+            int sx1 = (int) (componentX[a] * scale + offsetX), sy1 = (int) (componentY[a] * scale + offsetY);
+            int sx2 = (int) (componentX[b] * scale + offsetX), sy2 = (int) (componentY[b] * scale + offsetY);
+            if (sx1 == sx2 && sy1 == sy2) continue; // Концы слились в одну точку
+            int level = 31 - Integer.numberOfLeadingZeros(bundleWeight[k]); // log2 числа ребер
+            layer.setStroke(BUNDLE_STROKES[Math.min(level, BUNDLE_STROKES.length - 1)]);
+            layer.drawLine(sx1, sy1, sx2, sy2);
+            drawn++;
+        }
+
+        // 4. Компоненты: отдельные - кругом в цвете компоненты, слившиеся на экране - одной точкой
+        layer.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        double vertexPixels = vertexSize * scale;
+        layer.setColor(CLUSTER_COLOR);
+        TraceIndex index = step >= 0 && lodResult == algorithm.getResult() ? algorithm.getTraceIndex() : null;
+        for (int i = 0; i < counts[1]; i += 3) {
+            double[] cluster = clusters[0];
+            fillCircle(layer, cluster[i], cluster[i + 1], vertexPixels * Math.sqrt(cluster[i + 2]), 2 * LOD_CELL_PIXELS); // Не больше двух ячеек
         }
+        for (int i = 0; i < counts[0]; i++) {
+            int c = points[0][i];
+            boolean found = index == null || index.isFound(c, step); // Ненайденные компоненты - серым
+            layer.setColor(found ? COMPONENT_COLORS[c % COMPONENT_COLORS.length] : UNVISITED_COLOR);
+            fillCircle(layer, componentX[c], componentY[c], Math.max(LOD_CELL_PIXELS, vertexPixels * Math.sqrt(componentSize[c])), 60);
+        }
+    }
+
+    // Круг с центром в мировой точке (x, y) и экранным диаметром diameter (от 2 до max точек)
+    private void fillCircle(Graphics2D g2d, double x, double y, double diameter, double max) {
+        int d = (int) Math.max(2, Math.min(max, diameter));
+        g2d.fillOval((int) (x * scale + offsetX) - d / 2, (int) (y * scale + offsetY) - d / 2, d, d);
+    }
+
+    // Ребро from -> to: стрелка или (в упрощенном режиме) линия
+    private void drawEdge(Graphics2D g2d, int from, int to, boolean detailed) {
+        if (detailed) {
+            drawArrow(g2d, from, to); // Рисуем стрелку
+        } else {
+            g2d.drawLine((int) screenX(from), (int) screenY(from), (int) screenX(to), (int) screenY(to)); // Только линия
+        }
+    }
+
+    // Рисование выделений шага step поверх статического слоя
+    private void drawHighlights(Graphics2D g2d, CSRGraph graph, int step) {
+        StepTrace trace = algorithm.getTrace(); // Журнал шагов
+        if (!trace.contains(step)) return; // Шаг вне журнала - выделять нечего
+        int vertex = trace.first(step); // Вершина шага
+        if (vertex < 0 || vertex >= xs.length) return; // Журнал относится к другому графу
+        SCCResult result = algorithm.getResult();
+        TraceIndex index = algorithm.getTraceIndex();
+        g2d.setFont(graph.vertexCount() > 10 ? SMALL_FONT : LARGE_FONT);
+        switch (trace.type(step)) {
+            case TRAVERSE: // Выделяем пройденное ребро
+                int to = trace.second(step);
+                if (to < 0 || to >= xs.length) return;
+                g2d.setColor(Color.RED); // Красный для активного ребра
+                g2d.setStroke(HIGHLIGHT_STROKE); // Увеличиваем толщину линии
+                drawArrow(g2d, vertex, to);
+                drawVertex(g2d, vertex, getVertexColor(result, index, step, vertex)); // Концы ребра остаются поверх него
+                drawVertex(g2d, to, getVertexColor(result, index, step, to));
+                break;
+            case VISIT: // Выделяем вершину и все исходящие из нее ребра
+                g2d.setColor(Color.RED);
+                g2d.setStroke(HIGHLIGHT_STROKE);
+                int last = Math.min(graph.lastEdge(vertex), graph.firstEdge(vertex) + MAX_FRAME_EDGES);
+                for (int e = graph.firstEdge(vertex); e < last; e++) {
+                    drawArrow(g2d, vertex, graph.target(e));
+                }
+                for (int e = graph.firstEdge(vertex); e < last; e++) {
+                    int target = graph.target(e);
+                    drawVertex(g2d, target, getVertexColor(result, index, step, target));
+                }
+                drawVertex(g2d, vertex, Color.RED); // Красный - текущая вершина
+                break;
+            case PUSH:
+                drawVertex(g2d, vertex, Color.ORANGE); // Оранжевый - вершина в стеке
+                break;
+            default: // Фазы и найденные компоненты не выделяются на графе
+                break;
+        }
+    }
+
+    // Область панели, которую занимают выделения шага step (null - выделений нет)
+    private Rectangle highlightBounds(int step) {
+        StepTrace trace = algorithm.getTrace();
+        CSRGraph graph = algorithm.getCSRGraph();
+        if (!trace.contains(step)) return null;
+        int vertex = trace.first(step);
+        if (vertex < 0 || vertex >= xs.length) return null;
+        Rectangle bounds;
+        switch (trace.type(step)) {
+            case TRAVERSE:
+                if (trace.second(step) < 0 || trace.second(step) >= xs.length) return null;
+                bounds = vertexBounds(vertex);
+                bounds.add(vertexBounds(trace.second(step)));
+                return bounds;
+            case VISIT:
+                bounds = vertexBounds(vertex);
+                int last = Math.min(graph.lastEdge(vertex), graph.firstEdge(vertex) + MAX_FRAME_EDGES);
+                for (int e = graph.firstEdge(vertex); e < last; e++) {
+                    bounds.add(vertexBounds(graph.target(e)));
+                }
+                return bounds;
+            case PUSH:
+                return vertexBounds(vertex);
+            default:
+                return null;
+        }
+    }
+
+    // Квадрат вокруг вершины с запасом на толщину линий и наконечник стрелки (в экранных точках)
+    private Rectangle vertexBounds(int vertex) {
+        int half = highlightSize() / 2 + ARROW_SIZE;
+        return new Rectangle((int) screenX(vertex) - half, (int) screenY(vertex) - half, 2 * half, 2 * half);
+    }
 
+    // Экранный размер вершины (выделенные вершины не мельче 8 точек, чтобы быть заметными при любом масштабе)
+    private int highlightSize() {
+        return (int) Math.max(8, vertexSize * scale);
+    }
+
+    // Рисование вершины vertex цветом color вместе с границей и номером
+    private void drawVertex(Graphics2D g2d, int vertex, Color color) {
+        int x = (int) screenX(vertex); // Координаты вершины на экране
+        int y = (int) screenY(vertex);
+        int size = highlightSize();
+        // Рисуем вершину (круг)
+        g2d.setColor(color); // Устанавливаем цвет
+        g2d.fillOval(x - size / 2, y - size / 2, size, size); // Рисуем круг
+        g2d.setColor(foregroundColor); // Устанавливаем цвет границы
+        g2d.setStroke(EDGE_STROKE);
+        g2d.drawOval(x - size / 2, y - size / 2, size, size); // Рисуем границу круга
+        if (size < LABEL_PIXELS) return; // Номер не поместится
+
+        // Рисуем номер вершины (центрируем текст)
+        FontMetrics fm = g2d.getFontMetrics(); // Получаем метрики шрифта
+        String text = Integer.toString(vertex); // Преобразуем номер вершины в строку
+        int textWidth = fm.stringWidth(text); // Вычисляем ширину текста
+        g2d.drawString(text, x - textWidth / 2, y + fm.getAscent() / 2 - 2); // Рисуем текст
+    }
+
+    // Определение цвета вершины без учета шага, result результат поиска компонент, vertex номер вершины
+    private static Color getVertexColor(SCCResult result, int vertex) {
+        // Номер компоненты берется из индекса за O(1)
+        if (vertex < result.getVertexCount()) { // Если вершина вошла в результат
+            return COMPONENT_COLORS[result.componentOf(vertex) % COMPONENT_COLORS.length]; // Цвет по номеру компоненты
+        }
         return Color.WHITE; // Белый - вершина не обработана
     }
 
+    // Преобразование координат между миром и экраном
+    private double screenX(int vertex) {
+        return xs[vertex] * scale + offsetX;
+    }
+
+    private double screenY(int vertex) {
+        return ys[vertex] * scale + offsetY;
+    }
+
+    private double worldX(double screenX) {
+        return (screenX - offsetX) / scale;
+    }
+
+    private double worldY(double screenY) {
+        return (screenY - offsetY) / scale;
+    }
+
     /**
-     * Рисование стрелки от (x1,y1) к (x2,y2)
+     * Рисование стрелки от вершины from к вершине to текущим цветом и толщиной
      *
-     * @param g2d графический контекст
-     * @param x1  координата X начальной точки
-     * @param y1  координата Y начальной точки
-     * @param x2  координата X конечной точки
-     * @param y2  координата Y конечной точки
+     * @param g2d  графический контекст
+     * @param from начальная вершина
+     * @param to   конечная вершина
      */
-    private void drawArrow(Graphics2D g2d, int x1, int y1, int x2, int y2) {
+    private void drawArrow(Graphics2D g2d, int from, int to) {
+        int x1 = (int) screenX(from);
+        int y1 = (int) screenY(from);
+        int x2 = (int) screenX(to);
+        int y2 = (int) screenY(to);
         // Вычисляем угол наклона линии
         double angle = Math.atan2(y2 - y1, x2 - x1); // Вычисляем угол между точками
-        int arrowSize = 10; // Размер наконечника стрелки
-        int vertexSize = algorithm.getGraph().size() > 10 ? 20 : 30; // Размер вершины
+        double cos = Math.cos(angle);
+        double sin = Math.sin(angle);
+        double size = vertexSize * scale; // Размер вершины на экране
 
         // Корректируем конечную точку (чтобы стрелка не накладывалась на вершину)
-        x2 = (int) (x2 - (double) vertexSize / 2 * Math.cos(angle)); // Корректируем X
-        y2 = (int) (y2 - (double) vertexSize / 2 * Math.sin(angle)); // Корректируем Y
+        x2 = (int) (x2 - size / 2 * cos); // Корректируем X
+        y2 = (int) (y2 - size / 2 * sin); // Корректируем Y
 
         g2d.drawLine(x1, y1, x2, y2); // Рисуем линию от начальной до конечной точки
 
-        // Рисуем наконечник стрелки (две линии под углом)
-        int x3 = (int) (x2 - arrowSize * Math.cos(angle - Math.PI / 6)); // Координата X первой линии
-        int y3 = (int) (y2 - arrowSize * Math.sin(angle - Math.PI / 6)); // Координата Y первой линии
-        int x4 = (int) (x2 - arrowSize * Math.cos(angle + Math.PI / 6)); // Координата X второй линии
-        int y4 = (int) (y2 - arrowSize * Math.sin(angle + Math.PI / 6)); // Координата Y второй линии
-
-        g2d.drawLine(x2, y2, x3, y3); // Рисуем первую линию наконечника
-        g2d.drawLine(x2, y2, x4, y4); // Рисуем вторую линию наконечника
+        // Рисуем наконечник стрелки (две линии под углом 30 градусов, cos 30 = 0.866, sin 30 = 0.5)
+        double c1 = cos * 0.8660254037844387 + sin * 0.5; // cos(angle - 30)
+        double s1 = sin * 0.8660254037844387 - cos * 0.5; // sin(angle - 30)
+        double c2 = cos * 0.8660254037844387 - sin * 0.5; // cos(angle + 30)
+        double s2 = sin * 0.8660254037844387 + cos * 0.5; // sin(angle + 30)
+        g2d.drawLine(x2, y2, (int) (x2 - ARROW_SIZE * c1), (int) (y2 - ARROW_SIZE * s1)); // Первая линия наконечника
+        g2d.drawLine(x2, y2, (int) (x2 - ARROW_SIZE * c2), (int) (y2 - ARROW_SIZE * s2)); // Вторая линия наконечника
     }
-}
\ No newline at end of file
+}
@@ -1,12 +1,16 @@
 import javax.swing.*;
 import javax.swing.border.TitledBorder;
 import java.awt.*;
-import java.util.ArrayList;
 import java.util.List;
 
 // Панель для ввода параметров графа
 public class GraphParamsPanel extends JPanel {
     private JTextField vertexCountField; // Поле для ввода количества вершин
+    private JComboBox<String> generatorBox; // Выбор генератора графа
+    private JTextField seedField; // Зерно генератора (пусто - случайное)
+    private JPanel parametersPanel; // Поля параметров выбранного генератора
+    private JTextField[] parameterFields = new JTextField[0];
+    private final List<GraphGenerator> generators = GraphGenerator.available(); // Доступные генераторы
     private SCCVisualizer visualizer;    // Ссылка на главное окно визуализатора
     // Цвета по умолчанию (можно перенести в SCCVisualizer, если нужно переключать тему)
     private final Color foregroundColor = new Color(200, 200, 200); // Светло-серый
@@ -16,21 +20,48 @@ public class GraphParamsPanel extends JPanel {
     // Конструктор панели параметров, visualizer ссылка на главное окно
     public GraphParamsPanel(SCCVisualizer visualizer) {
         this.visualizer = visualizer; // Сохраняем ссылку на визуализатор
-        setLayout(new GridLayout(2, 2, 5, 5)); // Устанавливаем layout (2 строки, 2 столбца с отступами)
+        setLayout(new GridLayout(3, 1, 5, 5)); // Устанавливаем layout (строка ввода, параметры генератора, кнопки)
         setBorder(BorderFactory.createTitledBorder(new TitledBorder(null, "Параметры графа", TitledBorder.LEADING, TitledBorder.TOP, null, foregroundColor))); // Устанавливаем рамку с заголовком
         setBackground(backgroundColor);
         setForeground(foregroundColor);
 
         // Создаем элементы управления
+        JPanel inputPanel = new JPanel(new FlowLayout(FlowLayout.LEFT, 5, 0)); // Вершины, генератор и зерно
+        inputPanel.setBackground(backgroundColor);
         JLabel vertexLabel = new JLabel("Количество вершин:"); // Метка для поля ввода
         vertexLabel.setForeground(foregroundColor);
-        add(vertexLabel);
+        inputPanel.add(vertexLabel);
 
-        vertexCountField = new JTextField("6", 5); // Поле ввода с значением по умолчанию 6
-        vertexCountField.setBackground(backgroundColor);
-        vertexCountField.setForeground(foregroundColor);
-        vertexCountField.setCaretColor(foregroundColor);
-        add(vertexCountField);
+        vertexCountField = new JTextField("6", 7); // Поле ввода с значением по умолчанию 6
+        styleField(vertexCountField);
+        inputPanel.add(vertexCountField);
+
+        JLabel generatorLabel = new JLabel("Генератор:");
+        generatorLabel.setForeground(foregroundColor);
+        inputPanel.add(generatorLabel);
+        generatorBox = new JComboBox<>(generators.stream().map(GraphGenerator::getName).toArray(String[]::new));
+        generatorBox.setBackground(buttonColor);
+        generatorBox.setForeground(foregroundColor);
+        generatorBox.addActionListener(e -> showParameters()); // Поля параметров меняются вместе с генератором
+        inputPanel.add(generatorBox);
+
+        JLabel seedLabel = new JLabel("Зерно:");
+        seedLabel.setForeground(foregroundColor);
+        inputPanel.add(seedLabel);
+        seedField = new JTextField("", 10); // Пустое зерно - случайное (записывается в лог)
+        seedField.setToolTipText("Пусто - случайное зерно");
+        styleField(seedField);
+        inputPanel.add(seedField);
+        add(inputPanel);
+
+        parametersPanel = new JPanel(new FlowLayout(FlowLayout.LEFT, 5, 0));
+        parametersPanel.setBackground(backgroundColor);
+        add(parametersPanel);
+        showParameters();
+
+        JPanel buttonPanel = new JPanel(new GridLayout(1, 2, 5, 5)); // Кнопки генерации и ручного ввода
+        buttonPanel.setBackground(backgroundColor);
+        add(buttonPanel);
 
         JButton autoButton = new JButton("Сгенерировать"); // Кнопка для автоматической генерации графа
         autoButton.setBackground(buttonColor);
@@ -56,74 +87,72 @@ public class GraphParamsPanel extends JPanel {
                         JOptionPane.ERROR_MESSAGE);
             }
         });
-        add(autoButton);
+        buttonPanel.add(autoButton);
 
         JButton manualButton = new JButton("Ввести вручную"); // Кнопка для ручного ввода графа
         manualButton.setBackground(buttonColor);
         manualButton.setForeground(foregroundColor);
         // Обработчик кнопки ручного ввода
         manualButton.addActionListener(e -> showManualInputDialog()); // Показать диалог для ручного ввода
-        add(manualButton);
+        buttonPanel.add(manualButton);
     }
 
-    // Отображение диалога для ручного ввода графа
+    // Пересоздание полей параметров для выбранного генератора
+    private void showParameters() {
+        GraphGenerator generator = getGenerator();
+        String[] names = generator.getParameterNames();
+        double[] defaults = generator.getDefaultParameters();
+        parametersPanel.removeAll();
+        parameterFields = new JTextField[names.length];
+        for (int i = 0; i < names.length; i++) {
+            JLabel label = new JLabel(names[i] + ":");
+            label.setForeground(vertexCountField.getForeground()); // Цвет текущей темы
+            parametersPanel.add(label);
+            parameterFields[i] = new JTextField(defaults[i] == Math.rint(defaults[i])
+                    ? String.valueOf((long) defaults[i]) : String.valueOf(defaults[i]), 5);
+            styleField(parameterFields[i]);
+            parametersPanel.add(parameterFields[i]);
+        }
+        parametersPanel.revalidate();
+        parametersPanel.repaint();
+    }
+
+    // Цвета текстового поля: как у поля количества вершин, которое перекрашивается вместе с темой
+    private void styleField(JTextField field) {
+        boolean themed = vertexCountField != null && field != vertexCountField;
+        Color background = themed ? vertexCountField.getBackground() : backgroundColor;
+        Color foreground = themed ? vertexCountField.getForeground() : foregroundColor;
+        field.setBackground(background);
+        field.setForeground(foreground);
+        field.setCaretColor(foreground);
+    }
+
+    // Отображение диалога для ручного ввода графа: редактор матрицы смежности (AdjacencyEditor).
+    // Если число вершин совпадает с текущим графом, редактор открывается с его ребрами
     private void showManualInputDialog() {
         try {
             // Получаем количество вершин из поля ввода
             int vertexCount = Integer.parseInt(vertexCountField.getText());
             if (vertexCount <= 0) throw new NumberFormatException(); // Проверка на положительное число
 
-            // Создаем панель с таблицей смежности
-            JPanel panel = new JPanel(new GridLayout(vertexCount + 1, vertexCount + 1, 2, 2));
-            panel.setBackground(backgroundColor);
-            panel.setForeground(foregroundColor);
-
-            // Заголовки столбцов
-            panel.add(new JLabel("")); // Пустая ячейка для верхнего левого угла
-            for (int i = 0; i < vertexCount; i++) {
-                JLabel label = new JLabel("В " + i, SwingConstants.CENTER);
-                label.setForeground(foregroundColor);
-                panel.add(label); // Заголовки для каждой вершины
-            }
-
-            // Матрица смежности (чекбоксы)
-            JCheckBox[][] matrix = new JCheckBox[vertexCount][vertexCount]; // Создаем массив чекбоксов
-            for (int from = 0; from < vertexCount; from++) {
-                JLabel label = new JLabel("Из " + from);
-                label.setForeground(foregroundColor);
-                panel.add(label); // Заголовок строки для начальной вершины
-                for (int to = 0; to < vertexCount; to++) {
-                    matrix[from][to] = new JCheckBox(); // Создаем чекбокс для ребра
-                    matrix[from][to].setBackground(backgroundColor);
-                    matrix[from][to].setForeground(foregroundColor);
-                    if (from == to) matrix[from][to].setEnabled(false); // Запрещаем петли (ребра из вершины в саму себя)
-                    panel.add(matrix[from][to]); // Добавляем чекбокс на панель
-                }
-            }
+            AdjacencyEditor editor = new AdjacencyEditor(vertexCount, visualizer.getAlgorithm().getCSRGraph(),
+                    backgroundColor, foregroundColor);
 
             // Показываем диалоговое окно с матрицей смежности
             int result = JOptionPane.showConfirmDialog(
                     visualizer,
-                    panel,
+                    editor,
                     "Матрица смежности", // Заголовок диалога
                     JOptionPane.OK_CANCEL_OPTION, // Опции кнопок
                     JOptionPane.PLAIN_MESSAGE); // Стиль сообщения
 
             // Если пользователь нажал OK
             if (result == JOptionPane.OK_OPTION) {
-                List<List<Integer>> graph = new ArrayList<>(); // Создаем список для графа
-                for (int i = 0; i < vertexCount; i++) {
-                    graph.add(new ArrayList<>()); // Добавляем новый список для каждой вершины
-                    for (int j = 0; j < vertexCount; j++) {
-                        if (matrix[i][j].isSelected()) {
-                            graph.get(i).add(j); // Добавляем ребро, если чекбокс выбран
-                        }
-                    }
-                }
                 // Устанавливаем граф и обновляем отображение
-                visualizer.getAlgorithm().setGraph(graph); // Устанавливаем граф в алгоритм
+                visualizer.stopVisualization(); // Ожидающий запуск относится к прежнему графу
+                visualizer.getAlgorithm().setCSRGraph(editor.getGraph()); // Устанавливаем граф в алгоритм
                 visualizer.getGraphPanel().repaint(); // Перерисовываем панель графа
-                visualizer.getLogPanel().append("Граф введен вручную\n"); // Записываем в лог
+                visualizer.getLogPanel().append("Граф введен вручную (ребер: " + editor.getEdgeCount() + ")\n"); // Записываем в лог
             }
         } catch (NumberFormatException e) {
             // Обработка исключения при неверном вводе
@@ -139,4 +168,23 @@ public class GraphParamsPanel extends JPanel {
     public String getVertexCount() {
         return vertexCountField.getText(); // Возвращаем текст из поля ввода
     }
+
+    // Выбранный генератор графа
+    public GraphGenerator getGenerator() {
+        return generators.get(generatorBox.getSelectedIndex());
+    }
+
+    // Значения параметров генератора (NumberFormatException при некорректном вводе)
+    public double[] getParameters() {
+        double[] values = new double[parameterFields.length];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = Double.parseDouble(parameterFields[i].getText().trim().replace(',', '.'));
+        }
+        return values;
+    }
+
+    // Получение зерна генератора (пустая строка - случайное зерно)
+    public String getSeed() {
+        return seedField.getText().trim();
+    }
 }
\ No newline at end of file
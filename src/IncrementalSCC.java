@@ -0,0 +1,622 @@
+import java.util.Arrays;
+
+// Поддержка компонент сильной связности при вставке и удалении ребер без пересчета всего графа.
+// Компоненты упорядочены списком позиций с уникальными возрастающими метками (order maintenance),
+// согласованным с графом конденсации: для каждого ребра между компонентами a -> b ord(a) < ord(b).
+// Вставка ребра u -> v с ord(u) < ord(v) ничего не меняет. Иначе, как в алгоритме Пирса-Келли,
+// ищутся компоненты F (достижимые из v) и B (из которых достижима u) в окне [ord(v), ord(u)]:
+// если u достижима из v, компоненты F ∩ B сливаются в одну, затем номера окна переназначаются так,
+// чтобы B шли раньше F. Удаление ребра внутри компоненты пересчитывает только эту компоненту
+// алгоритмом Тарьяна. Стоимость операций пропорциональна размеру затронутой области.
+// Граф - мультиграф: кратные ребра хранятся одной записью со счетчиком кратности, вставка добавляет копию,
+// удаление снимает одну копию, и связность меняется только при удалении последней
+public class IncrementalSCC {
+    private static final long GAP = 1L << 20; // Начальный шаг между порядковыми номерами компонент
+
+    private final int V; // Количество вершин
+    private final int[][] out; // Различные концы исходящих ребер каждой вершины
+    private final int[][] multiplicity; // Кратность каждого исходящего ребра (параллельно out)
+    private final int[] outDegree; // Количество различных исходящих ребер
+    private final int[][] in; // Различные начала входящих ребер каждой вершины
+    private final int[] inDegree; // Количество различных входящих ребер
+    private int edgeCount; // Количество ребер с учетом кратности
+    private CSRGraph graph; // Текущий граф в формате CSR (null - изменился, строится при запросе)
+
+    private final int[] componentOf; // Номер компоненты вершины
+    private int[][] members; // Вершины каждой компоненты
+    private int[] size; // Размер компоненты (0 - номер свободен)
+    private int[] slotOf; // Позиция компоненты в топологическом порядке конденсации
+    private int[] freeIds; // Стек свободных номеров компонент
+    private int freeCount;
+    private int componentCount; // Количество компонент
+
+    private long[] label; // Метка позиции (строго возрастает вдоль списка)
+    private int[] nextSlot; // Следующая позиция списка (-1 - конец)
+    private int[] prevSlot; // Предыдущая позиция списка (-1 - начало)
+    private int[] slotComponent; // Компонента, занимающая позицию
+    private int firstSlot; // Первая позиция списка
+    private int[] freeSlots; // Стек свободных позиций
+    private int freeSlotCount;
+
+    private int[] forwardMark; // Отметки поиска F (сравниваются со stamp)
+    private int[] backwardMark; // Отметки поиска B
+    private int stamp; // Номер текущего поиска
+    private int[] localIndex; // Рабочие массивы Тарьяна при разбиении компоненты
+    private int[] low;
+
+    // Конструктор по исходному графу, компоненты вычисляются алгоритмом Косарайю.
+    // Кратные ребра сворачиваются в записи со счетчиком за O(V + E): position[w] - место w в списке
+    // текущей вершины, owner[w] - вершина, для которой оно записано
+    public IncrementalSCC(CSRGraph graph) {
+        V = graph.vertexCount();
+        out = new int[V][];
+        multiplicity = new int[V][];
+        outDegree = new int[V];
+        in = new int[V][];
+        inDegree = new int[V];
+        this.graph = graph; // Пока изменений нет, текущий граф - исходный
+        CSRGraph reversed = graph.transposed();
+        int[] owner = new int[V];
+        int[] position = new int[V];
+        Arrays.fill(owner, -1);
+        for (int v = 0; v < V; v++) {
+            out[v] = new int[Math.max(2, graph.degree(v))];
+            multiplicity[v] = new int[out[v].length];
+            for (int e = graph.firstEdge(v); e < graph.lastEdge(v); e++) {
+                int to = graph.target(e);
+                if (owner[to] != v) { // Первая копия ребра
+                    owner[to] = v;
+                    position[to] = outDegree[v];
+                    out[v][outDegree[v]++] = to;
+                }
+                multiplicity[v][position[to]]++;
+            }
+            edgeCount += graph.degree(v);
+        }
+        Arrays.fill(owner, -1);
+        for (int v = 0; v < V; v++) {
+            in[v] = new int[Math.max(2, reversed.degree(v))];
+            for (int e = reversed.firstEdge(v); e < reversed.lastEdge(v); e++) {
+                int from = reversed.target(e);
+                if (owner[from] != v) {
+                    owner[from] = v;
+                    in[v][inDegree[v]++] = from;
+                }
+            }
+        }
+
+        // Косарайю нумерует компоненты в топологическом порядке - это готовые порядковые номера
+        SCCResult result = new KosarajuEngine().findSCCs(graph, null);
+        componentOf = Arrays.copyOf(result.getComponentOf(), V);
+        componentCount = result.getComponentCount();
+        int capacity = Math.max(16, componentCount);
+        members = new int[capacity][];
+        size = new int[capacity];
+        slotOf = new int[capacity];
+        label = new long[capacity];
+        nextSlot = new int[capacity];
+        prevSlot = new int[capacity];
+        slotComponent = new int[capacity];
+        freeSlots = new int[capacity];
+        freeIds = new int[capacity];
+        forwardMark = new int[capacity];
+        backwardMark = new int[capacity];
+        int[] allMembers = result.getMembers();
+        int[] offsets = result.getMemberOffsets();
+        for (int c = 0; c < componentCount; c++) {
+            members[c] = Arrays.copyOfRange(allMembers, offsets[c], offsets[c + 1]);
+            size[c] = members[c].length;
+            slotOf[c] = c; // Позиция c занята компонентой c
+            slotComponent[c] = c;
+            label[c] = c * GAP;
+            prevSlot[c] = c - 1;
+            nextSlot[c] = c + 1 < componentCount ? c + 1 : -1;
+        }
+        firstSlot = componentCount > 0 ? 0 : -1;
+        for (int c = capacity - 1; c >= componentCount; c--) {
+            freeIds[freeCount++] = c; // Остальные номера и позиции свободны
+            freeSlots[freeSlotCount++] = c;
+        }
+        localIndex = new int[V];
+        low = new int[V];
+    }
+
+    // Количество вершин
+    public int getVertexCount() {
+        return V;
+    }
+
+    // Количество ребер (с учетом кратности)
+    public int getEdgeCount() {
+        return edgeCount;
+    }
+
+    // Количество компонент
+    public int getComponentCount() {
+        return componentCount;
+    }
+
+    // Номер компоненты вершины v (номера стабильны между операциями, но не обязательно подряд)
+    public int componentOf(int v) {
+        return componentOf[v];
+    }
+
+    // Проверка, что вершины u и v лежат в одной компоненте
+    public boolean sameComponent(int u, int v) {
+        return componentOf[u] == componentOf[v];
+    }
+
+    // Проверка наличия ребра from -> to
+    public boolean hasEdge(int from, int to) {
+        return indexOf(out[from], outDegree[from], to) >= 0;
+    }
+
+    // Кратность ребра from -> to (0 - ребра нет)
+    public int getMultiplicity(int from, int to) {
+        int i = indexOf(out[from], outDegree[from], to);
+        return i >= 0 ? multiplicity[from][i] : 0;
+    }
+
+    // Вставка ребра from -> to. Если ребро уже есть, добавляется его копия (компоненты не меняются)
+    // и возвращается false; true - появилось новое ребро
+    public boolean addEdge(int from, int to) {
+        checkVertex(from);
+        checkVertex(to);
+        edgeCount++;
+        graph = null;
+        int i = indexOf(out[from], outDegree[from], to);
+        if (i >= 0) {
+            multiplicity[from][i]++;
+            return false;
+        }
+        multiplicity[from] = append(multiplicity[from], outDegree[from], 1);
+        out[from] = append(out[from], outDegree[from]++, to);
+        in[to] = append(in[to], inDegree[to]++, from);
+
+        int cu = componentOf[from];
+        int cv = componentOf[to];
+        if (cu != cv && ord(cu) > ord(cv)) { // Порядок нарушен - возможно, появился цикл
+            restoreOrder(cu, cv);
+        }
+        return true;
+    }
+
+    // Удаление одной копии ребра from -> to, возвращает false, если ребра не было.
+    // Компоненты пересчитываются только при удалении последней копии
+    public boolean removeEdge(int from, int to) {
+        checkVertex(from);
+        checkVertex(to);
+        if (!removeEdgeOnly(from, to)) return false;
+        int c = componentOf[from];
+        if (c == componentOf[to] && !hasEdge(from, to)) {
+            split(c); // Ребро внутри компоненты - она могла распасться
+        }
+        return true;
+    }
+
+    // Пакетное изменение: removals и insertions - пары вершин (from0, to0, from1, to1, ...).
+    // Сначала удаляются ребра, и каждая затронутая компонента пересчитывается один раз, затем вставляются новые
+    public void applyBatch(int[] removals, int[] insertions) {
+        if (removals.length % 2 != 0 || insertions.length % 2 != 0) {
+            throw new IllegalArgumentException("Ребра задаются парами вершин");
+        }
+        stamp++;
+        int[] affected = new int[16];
+        int affectedCount = 0;
+        for (int i = 0; i < removals.length; i += 2) {
+            int from = removals[i];
+            int to = removals[i + 1];
+            checkVertex(from);
+            checkVertex(to);
+            if (removeEdgeOnly(from, to) && componentOf[from] == componentOf[to] && !hasEdge(from, to)) {
+                int c = componentOf[from];
+                if (forwardMark[c] != stamp) { // Запоминаем компоненту один раз
+                    forwardMark[c] = stamp;
+                    affected = append(affected, affectedCount++, c);
+                }
+            }
+        }
+        for (int i = 0; i < affectedCount; i++) {
+            split(affected[i]);
+        }
+        for (int i = 0; i < insertions.length; i += 2) {
+            addEdge(insertions[i], insertions[i + 1]);
+        }
+    }
+
+    // Текущее разбиение в компактном виде: компоненты пронумерованы подряд в топологическом порядке
+    public SCCResult snapshot() {
+        int[] renumber = new int[size.length];
+        int next = 0;
+        for (int slot = firstSlot; slot >= 0; slot = nextSlot[slot]) {
+            renumber[slotComponent[slot]] = next++; // Обходим список позиций по порядку
+        }
+        int[] result = new int[V];
+        for (int v = 0; v < V; v++) {
+            result[v] = renumber[componentOf[v]];
+        }
+        return new SCCResult(result, componentCount, SCCResult.Order.TOPOLOGICAL);
+    }
+
+    // Текущий граф в формате CSR (копии кратного ребра идут подряд). Граф строится за O(V + E) только
+    // после изменения ребер и хранится до следующего изменения, поэтому серия запросов без изменений
+    // и пакет изменений (applyBatch) обходятся одной сборкой
+    public CSRGraph toGraph() {
+        if (graph != null) return graph;
+        int[] offsets = new int[V + 1];
+        int[] targets = new int[edgeCount];
+        int e = 0;
+        for (int v = 0; v < V; v++) {
+            for (int i = 0; i < outDegree[v]; i++) {
+                for (int k = 0; k < multiplicity[v][i]; k++) targets[e++] = out[v][i];
+            }
+            offsets[v + 1] = e;
+        }
+        graph = new CSRGraph(offsets, targets);
+        return graph;
+    }
+
+    // Восстановление порядка после вставки ребра из компоненты cu в компоненту cv (ord(cu) > ord(cv))
+    private void restoreOrder(int cu, int cv) {
+        long lower = ord(cv);
+        long upper = ord(cu);
+        stamp++;
+
+        // F: компоненты, достижимые из cv, с меткой не больше upper
+        int[] forward = collect(cv, upper, true);
+        boolean cycle = forwardMark[cu] == stamp;
+        // B: компоненты, из которых достижима cu, с меткой не меньше lower
+        int[] backward = collect(cu, lower, false);
+
+        // Пул позиций окна: B \ M получают первые, F \ M - последние, слитая компонента - следующую за B \ M
+        int[] pool = new int[forward.length + backward.length];
+        int poolSize = 0;
+        for (int c : forward) pool[poolSize++] = slotOf[c];
+        for (int c : backward) if (forwardMark[c] != stamp) pool[poolSize++] = slotOf[c];
+        sortSlots(pool, poolSize);
+
+        int merged = -1; // Компонента, в которую сливаются F ∩ B
+        if (cycle) {
+            for (int c : forward) {
+                if (backwardMark[c] == stamp) merged = merged < 0 ? c : merge(merged, c);
+            }
+        }
+
+        int[] before = sortByOrd(backward, true);
+        int[] after = sortByOrd(forward, false);
+        int index = 0;
+        for (int c : before) place(c, pool[index++]);
+        if (merged >= 0) place(merged, pool[index++]);
+        int firstAfter = poolSize - after.length;
+        while (index < firstAfter) {
+            unlink(pool[index++]); // Позиции поглощенных компонент освобождаются
+        }
+        for (int c : after) place(c, pool[index++]);
+    }
+
+    // Поиск компонент в окне порядка: вперед (номер не больше bound) или назад (номер не меньше bound)
+    private int[] collect(int start, long bound, boolean forwardDirection) {
+        int[] mark = forwardDirection ? forwardMark : backwardMark;
+        int[] found = new int[16];
+        int count = 0;
+        mark[start] = stamp;
+        found[count++] = start;
+        for (int i = 0; i < count; i++) {
+            int c = found[i];
+            for (int j = 0; j < size[c]; j++) {
+                int v = members[c][j];
+                int[] edges = forwardDirection ? out[v] : in[v];
+                int degree = forwardDirection ? outDegree[v] : inDegree[v];
+                for (int e = 0; e < degree; e++) {
+                    int d = componentOf[edges[e]];
+                    boolean inside = forwardDirection ? ord(d) <= bound : ord(d) >= bound;
+                    if (mark[d] != stamp && inside) {
+                        mark[d] = stamp;
+                        found = append(found, count++, d);
+                    }
+                }
+            }
+        }
+        return Arrays.copyOf(found, count);
+    }
+
+    // Компоненты, не попавшие в слияние, по возрастанию метки; skipForward - пропускать отмеченные в F
+    private int[] sortByOrd(int[] components, boolean skipForward) {
+        int[] kept = new int[components.length];
+        long[] keys = new long[components.length];
+        int count = 0;
+        for (int c : components) {
+            boolean inBoth = forwardMark[c] == stamp && backwardMark[c] == stamp;
+            boolean skip = skipForward ? forwardMark[c] == stamp : inBoth;
+            if (!skip && size[c] > 0) {
+                keys[count] = ord(c);
+                kept[count++] = c;
+            }
+        }
+        sortByKeys(keys, kept, 0, count);
+        return Arrays.copyOf(kept, count);
+    }
+
+    // Слияние компонент a и b, возвращает номер получившейся компоненты (большая поглощает меньшую)
+    private int merge(int a, int b) {
+        if (size[a] < size[b]) {
+            int t = a;
+            a = b;
+            b = t;
+        }
+        if (members[a].length < size[a] + size[b]) {
+            members[a] = Arrays.copyOf(members[a], Math.max(size[a] + size[b], members[a].length * 2));
+        }
+        for (int j = 0; j < size[b]; j++) {
+            int v = members[b][j];
+            componentOf[v] = a;
+            members[a][size[a]++] = v;
+        }
+        release(b);
+        forwardMark[a] = backwardMark[a] = stamp; // Слитая компонента остается в F ∩ B
+        return a;
+    }
+
+    // Пересчет компоненты c алгоритмом Тарьяна только по ее вершинам и внутренним ребрам
+    private void split(int c) {
+        int n = size[c];
+        int[] vertices = Arrays.copyOf(members[c], n);
+        for (int i = 0; i < n; i++) {
+            localIndex[vertices[i]] = -1; // -1 - вершина не посещена
+        }
+        int[] stack = new int[n]; // Стек Тарьяна (вершины)
+        int stackTop = 0;
+        boolean[] onStack = new boolean[n];
+        int[] callStack = new int[n];
+        int[] cursor = new int[n];
+        int[] order = new int[n]; // Вершины по времени входа
+        int[] parts = new int[n]; // Номер части для каждой вершины в порядке входа
+        int partCount = 0;
+        int time = 0;
+
+        for (int s : vertices) {
+            if (localIndex[s] >= 0) continue;
+            int top = 0;
+            callStack[top++] = s;
+            localIndex[s] = low[s] = time;
+            order[time++] = s;
+            stack[stackTop++] = s;
+            onStack[localIndex[s]] = true;
+            while (top > 0) {
+                int v = callStack[top - 1];
+                int li = localIndex[v];
+                if (cursor[li] < outDegree[v]) {
+                    int to = out[v][cursor[li]++];
+                    if (componentOf[to] != c) continue; // Ребро ведет за пределы компоненты
+                    if (localIndex[to] < 0) {
+                        localIndex[to] = low[to] = time;
+                        order[time++] = to;
+                        stack[stackTop++] = to;
+                        onStack[localIndex[to]] = true;
+                        callStack[top++] = to;
+                    } else if (onStack[localIndex[to]] && localIndex[to] < low[v]) {
+                        low[v] = localIndex[to];
+                    }
+                } else {
+                    top--;
+                    if (low[v] == li) { // Корень части
+                        int w;
+                        do {
+                            w = stack[--stackTop];
+                            onStack[localIndex[w]] = false;
+                            parts[localIndex[w]] = partCount;
+                        } while (w != v);
+                        partCount++;
+                    }
+                    if (top > 0) {
+                        int parent = callStack[top - 1];
+                        if (low[v] < low[parent]) low[parent] = low[v];
+                    }
+                }
+            }
+        }
+        if (partCount == 1) return; // Компонента не распалась
+
+        // Тарьян выдает части в обратном топологическом порядке: последняя найденная часть - первая по порядку.
+        // Она занимает позицию компоненты, остальные получают новые позиции сразу за ней
+        int[] partSize = new int[partCount];
+        for (int i = 0; i < n; i++) partSize[parts[i]]++;
+        int[] ids = new int[partCount];
+        int slot = slotOf[c];
+        for (int p = partCount - 1; p >= 0; p--) {
+            ids[p] = p == partCount - 1 ? c : allocate();
+            members[ids[p]] = new int[Math.max(2, partSize[p])];
+            size[ids[p]] = 0;
+            if (p < partCount - 1) slot = insertAfter(slot);
+            place(ids[p], slot);
+        }
+        for (int i = 0; i < n; i++) {
+            int v = order[i];
+            int id = ids[parts[i]];
+            componentOf[v] = id;
+            members[id][size[id]++] = v;
+        }
+        componentCount += partCount - 1;
+    }
+
+    // Метка позиции компоненты c
+    private long ord(int c) {
+        return label[slotOf[c]];
+    }
+
+    // Размещение компоненты c в позиции slot
+    private void place(int c, int slot) {
+        slotOf[c] = slot;
+        slotComponent[slot] = c;
+    }
+
+    // Упорядочение первых count позиций по возрастанию меток
+    private void sortSlots(int[] slots, int count) {
+        long[] keys = new long[count];
+        for (int i = 0; i < count; i++) keys[i] = label[slots[i]];
+        sortByKeys(keys, slots, 0, count);
+    }
+
+    // Сортировка items[from .. to) по возрастанию различных ключей keys (параллельный массив) на примитивах:
+    // быстрая сортировка с рекурсией в меньшую часть, короткие отрезки - вставками
+    private static void sortByKeys(long[] keys, int[] items, int from, int to) {
+        while (to - from > 16) {
+            long pivot = keys[(from + to) >>> 1];
+            int i = from;
+            int j = to - 1;
+            while (i <= j) {
+                while (keys[i] < pivot) i++;
+                while (keys[j] > pivot) j--;
+                if (i <= j) swap(keys, items, i++, j--);
+            }
+            if (j + 1 - from < to - i) {
+                sortByKeys(keys, items, from, j + 1);
+                from = i;
+            } else {
+                sortByKeys(keys, items, i, to);
+                to = j + 1;
+            }
+        }
+        for (int i = from + 1; i < to; i++) {
+            for (int j = i; j > from && keys[j - 1] > keys[j]; j--) swap(keys, items, j - 1, j);
+        }
+    }
+
+    private static void swap(long[] keys, int[] items, int i, int j) {
+        long key = keys[i];
+        keys[i] = keys[j];
+        keys[j] = key;
+        int item = items[i];
+        items[i] = items[j];
+        items[j] = item;
+    }
+
+    // Новая позиция сразу после slot. Метка берется посередине промежутка до следующей позиции;
+    // если промежутка нет, метки ближайших позиций равномерно раздвигаются
+    private int insertAfter(int slot) {
+        int next = nextSlot[slot];
+        if (next >= 0 && label[next] - label[slot] < 2) {
+            relabel(slot);
+            next = nextSlot[slot];
+        }
+        if (freeSlotCount == 0) { // Расширяем массивы позиций
+            int capacity = label.length;
+            int grown = capacity * 2;
+            label = Arrays.copyOf(label, grown);
+            nextSlot = Arrays.copyOf(nextSlot, grown);
+            prevSlot = Arrays.copyOf(prevSlot, grown);
+            slotComponent = Arrays.copyOf(slotComponent, grown);
+            freeSlots = Arrays.copyOf(freeSlots, grown);
+            for (int s = grown - 1; s >= capacity; s--) {
+                freeSlots[freeSlotCount++] = s;
+            }
+        }
+        int created = freeSlots[--freeSlotCount];
+        label[created] = next >= 0 ? label[slot] + (label[next] - label[slot]) / 2 : label[slot] + GAP;
+        prevSlot[created] = slot;
+        nextSlot[created] = next;
+        nextSlot[slot] = created;
+        if (next >= 0) prevSlot[next] = created;
+        return created;
+    }
+
+    // Раздвигание меток начиная с позиции slot: захватывается столько следующих позиций,
+    // чтобы диапазон меток был больше квадрата их количества, затем метки распределяются равномерно
+    private void relabel(int slot) {
+        long base = label[slot];
+        int count = 1;
+        int end = nextSlot[slot];
+        while (end >= 0 && label[end] - base <= (long) count * count) {
+            count++;
+            end = nextSlot[end];
+        }
+        long span = end >= 0 ? label[end] - base : (long) count * GAP;
+        long step = span / count;
+        int current = slot;
+        for (int i = 0; i < count; i++) {
+            label[current] = base + step * i;
+            current = nextSlot[current];
+        }
+    }
+
+    // Исключение позиции из списка
+    private void unlink(int slot) {
+        int prev = prevSlot[slot];
+        int next = nextSlot[slot];
+        if (prev >= 0) nextSlot[prev] = next; else firstSlot = next;
+        if (next >= 0) prevSlot[next] = prev;
+        freeSlots[freeSlotCount++] = slot;
+    }
+
+    // Удаление одной копии ребра из списков смежности без пересчета компонент
+    private boolean removeEdgeOnly(int from, int to) {
+        int i = indexOf(out[from], outDegree[from], to);
+        if (i < 0) return false;
+        edgeCount--;
+        graph = null;
+        if (--multiplicity[from][i] > 0) return true; // Остались другие копии
+        int last = --outDegree[from];
+        out[from][i] = out[from][last]; // Перестановка последнего элемента на место удаленного
+        multiplicity[from][i] = multiplicity[from][last];
+        removeValue(in[to], inDegree[to], from);
+        inDegree[to]--;
+        return true;
+    }
+
+    // Выделение свободного номера компоненты
+    private int allocate() {
+        if (freeCount == 0) { // Расширяем массивы компонент
+            int capacity = size.length;
+            int grown = capacity * 2;
+            members = Arrays.copyOf(members, grown);
+            size = Arrays.copyOf(size, grown);
+            slotOf = Arrays.copyOf(slotOf, grown);
+            forwardMark = Arrays.copyOf(forwardMark, grown);
+            backwardMark = Arrays.copyOf(backwardMark, grown);
+            freeIds = Arrays.copyOf(freeIds, grown);
+            for (int c = grown - 1; c >= capacity; c--) {
+                freeIds[freeCount++] = c;
+            }
+        }
+        return freeIds[--freeCount];
+    }
+
+    // Освобождение номера компоненты
+    private void release(int c) {
+        size[c] = 0;
+        members[c] = null;
+        freeIds[freeCount++] = c;
+        componentCount--;
+    }
+
+    // Проверка номера вершины
+    private void checkVertex(int v) {
+        if (v < 0 || v >= V) throw new IllegalArgumentException("Вершина " + v + " вне графа");
+    }
+
+    // Позиция значения в первых count элементах массива (-1 - нет)
+    private static int indexOf(int[] values, int count, int value) {
+        for (int i = 0; i < count; i++) {
+            if (values[i] == value) return i;
+        }
+        return -1;
+    }
+
+    // Удаление значения перестановкой последнего элемента на его место
+    private static boolean removeValue(int[] values, int count, int value) {
+        for (int i = 0; i < count; i++) {
+            if (values[i] == value) {
+                values[i] = values[count - 1];
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Запись значения в позицию index с расширением массива при необходимости
+    private static int[] append(int[] values, int index, int value) {
+        if (index == values.length) values = Arrays.copyOf(values, Math.max(2, values.length * 2));
+        values[index] = value;
+        return values;
+    }
+}
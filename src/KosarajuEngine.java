@@ -0,0 +1,272 @@
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+
+// Алгоритм Косарайю: первый проход DFS определяет порядок завершения вершин,
+// второй проход по обращенному графу в обратном порядке выделяет компоненты.
+// Компоненты нумеруются в топологическом порядке графа конденсации; сам граф конденсации не строится,
+// его по первому запросу собирает SCCResult.getCondensation, поэтому поиск без него не тратит память.
+// Поиск выполняется пошагово (Execution): его можно прервать после любого шага и продолжить.
+// Этапы (первый проход, обращение графа, второй проход) замеряются для SCCMetrics, если сбор метрик включен;
+// обращение графа замеряется, только если граф действительно транспонируется, а не берется из кэша или prepare
+public class KosarajuEngine implements SCCEngine {
+    private static final String NAME = "Косарайю"; // Название алгоритма
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public SCCResult findSCCs(CSRGraph graph, StepTrace trace) {
+        Execution execution = new Execution(graph);
+        execution.advance(trace, Long.MAX_VALUE); // Выполнение целиком
+        return execution.getResult();
+    }
+
+    @Override
+    public SCCExecution start(CSRGraph graph) {
+        return new Execution(graph);
+    }
+
+    @Override
+    public boolean isSuspendable() {
+        return true;
+    }
+
+    // Пошаговое выполнение алгоритма: оба прохода DFS итеративные, поэтому все их состояние (явные стеки,
+    // курсоры по ребрам, стек порядка завершения) хранится в полях и выполнение можно прервать на любой вершине.
+    // Внутри advance состояние копируется в локальные переменные, поэтому выполнение целиком
+    // не медленнее обычных циклов
+    public static final class Execution implements SCCExecution {
+        // Этапы выполнения
+        private static final int START = 0; // Перед первым проходом
+        private static final int FIRST_PASS = 1; // Первый проход
+        private static final int TRANSPOSE = 2; // Перед построением обращенного графа
+        private static final int SECOND_START = 3; // Перед вторым проходом
+        private static final int SECOND_PASS = 4; // Второй проход
+        private static final int DONE = 5; // Выполнение завершено
+
+        private final CSRGraph graph; // Исходный граф
+        private final int V; // Количество вершин
+        private int stage = START; // Текущий этап
+        private final int[] stack; // Явный стек обхода (глубина не превышает числа вершин)
+        private int top; // Размер явного стека
+        private final int[] cursor; // Индекс следующего непросмотренного ребра для каждой вершины
+        private final int[] order; // Стек порядка завершения первого прохода
+        private int orderSize;
+
+        // Состояние первого прохода
+        private boolean[] visited; // Массив посещенных вершин (освобождается после прохода)
+        private int next; // Следующая стартовая вершина
+
+        // Состояние второго прохода
+        private CSRGraph reversed; // Обращенный граф
+        private int[] componentOf; // Номер компоненты (-1 - вершина еще не посещена)
+        private int[] members; // Вершины компонент в порядке обхода
+        private int[] memberOffsets; // Начала компонент в members
+        private int memberCount;
+        private int count; // Количество найденных компонент
+        private SCCResult result; // Результат (после завершения)
+        private int peakDepth; // Наибольшая глубина явного стека в текущем проходе
+        private final PhaseMeter meter; // Замер этапов (null - сбор метрик выключен)
+
+        // Выполнение на графе graph с начала
+        public Execution(CSRGraph graph) {
+            this.graph = graph;
+            V = graph.vertexCount();
+            stack = new int[V];
+            cursor = new int[V];
+            order = new int[V];
+            visited = new boolean[V];
+            meter = SCCMetrics.get().newMeter(NAME);
+        }
+
+        // Обращенный граф строится заранее (в потоке вызывающего), тогда этап TRANSPOSE лишь отмечается в журнале
+        @Override
+        public void prepare() {
+            if (stage < SECOND_START && reversed == null) reversed = graph.transposed();
+        }
+
+        @Override
+        public boolean advance(StepTrace trace, long budget) {
+            PhaseMeter meter = this.meter;
+            if (meter != null) meter.resume();
+            while (budget > 0 && stage != DONE) {
+                switch (stage) {
+                    case START:
+                        if (trace != null) trace.add(StepTrace.Type.PHASE, StepTrace.FIRST_PASS); // Начало первого прохода
+                        stage = FIRST_PASS;
+                        budget--;
+                        break;
+                    case FIRST_PASS:
+                        budget = firstPass(trace, budget);
+                        if (stage != FIRST_PASS && meter != null) {
+                            meter.phaseDone("Первый проход DFS", V, graph.edgeCount(), peakDepth);
+                        }
+                        break;
+                    case TRANSPOSE:
+                        if (trace != null) trace.add(StepTrace.Type.PHASE, StepTrace.TRANSPOSE); // Построение обращенного графа
+                        if (reversed == null) reversed = graph.getCachedTransposed();
+                        boolean computed = reversed == null; // Обращенный граф не готов заранее и не в кэше
+                        if (computed) reversed = graph.transposed();
+                        stage = SECOND_START;
+                        budget--;
+                        if (meter != null && computed) meter.phaseDone("Обращение графа", V, graph.edgeCount(), 0);
+                        break;
+                    case SECOND_START:
+                        if (trace != null) trace.add(StepTrace.Type.PHASE, StepTrace.SECOND_PASS); // Начало второго прохода
+                        componentOf = new int[V];
+                        Arrays.fill(componentOf, -1);
+                        members = new int[V];
+                        memberOffsets = new int[V + 1];
+                        peakDepth = 0;
+                        stage = SECOND_PASS;
+                        budget--;
+                        break;
+                    default:
+                        budget = secondPass(trace, budget);
+                        if (stage == DONE && meter != null) {
+                            meter.phaseDone("Второй проход DFS", V, reversed.edgeCount(), peakDepth);
+                        }
+                        break;
+                }
+            }
+            if (meter != null) meter.suspend();
+            return stage != DONE;
+        }
+
+        // Первый проход DFS не более budget шагов: заполняет order вершинами в порядке завершения.
+        // Явный стек вершин и курсор по ребрам для каждой вершины дают тот же порядок шагов и завершения,
+        // что и рекурсивная версия, но не зависят от глубины стека потока. Возвращает остаток бюджета
+        private long firstPass(StepTrace trace, long budget) {
+            int[] stack = this.stack;
+            int[] cursor = this.cursor;
+            boolean[] visited = this.visited;
+            int top = this.top;
+            int orderSize = this.orderSize;
+            int peak = peakDepth;
+            int s = next;
+            for (; budget > 0; budget--) {
+                if (top == 0) { // Обход из предыдущей стартовой вершины завершен
+                    while (s < V && visited[s]) s++; // Вершина уже обработана
+                    if (s == V) { // Все вершины завершены
+                        stage = TRANSPOSE;
+                        this.visited = null;
+                        break;
+                    }
+                    stack[top++] = s; // Кладем стартовую вершину
+                    if (top > peak) peak = top;
+                    visited[s] = true;
+                    cursor[s] = graph.firstEdge(s);
+                    if (trace != null) trace.add(StepTrace.Type.VISIT, s);
+                    continue;
+                }
+                int v = stack[top - 1]; // Текущая вершина на вершине стека
+                if (cursor[v] < graph.lastEdge(v)) { // Есть непросмотренные ребра
+                    int to = graph.target(cursor[v]++); // Следующий сосед
+                    if (!visited[to]) {
+                        if (trace != null) trace.add(StepTrace.Type.TRAVERSE, v, to);
+                        visited[to] = true;
+                        cursor[to] = graph.firstEdge(to);
+                        if (trace != null) trace.add(StepTrace.Type.VISIT, to);
+                        stack[top++] = to; // Спускаемся в соседа
+                        if (top > peak) peak = top;
+                    }
+                } else { // Все соседи обработаны
+                    top--;
+                    order[orderSize++] = v; // Добавляем вершину в стек порядка
+                    if (trace != null) trace.add(StepTrace.Type.PUSH, v);
+                }
+            }
+            this.top = top;
+            this.orderSize = orderSize;
+            peakDepth = peak;
+            next = s;
+            return budget;
+        }
+
+        // Второй проход DFS по обращенному графу в порядке, обратном завершению, не более budget шагов.
+        // Возвращает остаток бюджета
+        private long secondPass(StepTrace trace, long budget) {
+            int[] stack = this.stack;
+            int[] cursor = this.cursor;
+            int[] componentOf = this.componentOf;
+            int[] members = this.members;
+            int top = this.top;
+            int orderSize = this.orderSize;
+            int memberCount = this.memberCount;
+            int count = this.count;
+            int peak = peakDepth;
+            for (; budget > 0; budget--) {
+                if (top == 0) { // Начало новой компоненты
+                    while (orderSize > 0 && componentOf[order[orderSize - 1]] >= 0) orderSize--; // Уже в компоненте
+                    if (orderSize == 0) { // Все компоненты найдены
+                        stage = DONE;
+                        break;
+                    }
+                    int s = order[--orderSize]; // Берем вершину из стека
+                    stack[top++] = s;
+                    if (top > peak) peak = top;
+                    componentOf[s] = count;
+                    members[memberCount++] = s;
+                    cursor[s] = reversed.firstEdge(s);
+                    continue;
+                }
+                int v = stack[top - 1];
+                if (cursor[v] < reversed.lastEdge(v)) {
+                    int to = reversed.target(cursor[v]++);
+                    if (componentOf[to] < 0) { // Сосед не посещен
+                        componentOf[to] = count;
+                        members[memberCount++] = to;
+                        cursor[to] = reversed.firstEdge(to);
+                        stack[top++] = to;
+                        if (top > peak) peak = top;
+                    }
+                } else if (--top == 0) { // Все соседи обработаны - возвращаемся назад; стек пуст - компонента завершена
+                    memberOffsets[++count] = memberCount;
+                    if (trace != null) trace.add(StepTrace.Type.COMPONENT, count - 1);
+                }
+            }
+            this.top = top;
+            this.orderSize = orderSize;
+            this.memberCount = memberCount;
+            this.count = count;
+            peakDepth = peak;
+            if (stage == DONE) {
+                result = new SCCResult(componentOf, count, members, Arrays.copyOf(memberOffsets, count + 1),
+                        SCCResult.Order.TOPOLOGICAL, null);
+            }
+            return budget;
+        }
+
+        @Override
+        public boolean isDone() {
+            return stage == DONE;
+        }
+
+        @Override
+        public SCCResult getResult() {
+            return result;
+        }
+
+        @Override
+        public List<Integer> getComponent(int c) {
+            if (c < 0 || c >= count) throw new IndexOutOfBoundsException("Компонента " + c + " еще не найдена");
+            int from = memberOffsets[c];
+            int size = memberOffsets[c + 1] - from;
+            return new AbstractList<Integer>() {
+                @Override
+                public Integer get(int index) {
+                    if (index < 0 || index >= size) throw new IndexOutOfBoundsException(index);
+                    return members[from + index];
+                }
+
+                @Override
+                public int size() {
+                    return size;
+                }
+            };
+        }
+    }
+}
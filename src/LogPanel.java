@@ -1,34 +1,161 @@
 import javax.swing.*;
 import java.awt.*;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 
-// Класс LogPanel расширяет JScrollPane и предназначен для отображения логов (текста) с возможностью прокрутки
+// Класс LogPanel расширяет JScrollPane и предназначен для отображения логов (текста) с возможностью прокрутки.
+// Строки лога хранятся в кольцевом буфере на LINE_CAPACITY строк (старые строки вытесняются), а выводятся
+// списком JList с фиксированной высотой строки, который рисует только видимые строки.
+// Добавленный текст копится и переносится в список не чаще одного раза за FLUSH_MILLIS, поэтому
+// добавление стоит O(1), а память не растет с длиной прогона
 public class LogPanel extends JScrollPane {
-    private JTextArea logArea; // Текстовая область для вывода логов
+    public static final int LINE_CAPACITY = 50000; // Наибольшее число хранимых строк
+    private static final int FLUSH_MILLIS = 30; // Интервал переноса накопленных строк в список
+
+    private final LineModel lines = new LineModel(); // Строки лога
+    private final JList<String> logList; // Список для вывода логов
+    private final List<String> pending = new ArrayList<>(); // Завершенные строки, еще не перенесенные в список
+    private final StringBuilder openLine = new StringBuilder(); // Незавершенная строка (текст без перевода строки)
+    private boolean openLineChanged; // Незавершенная строка изменилась после последнего переноса
+    private final Timer flushTimer; // Перенос накопленных строк в потоке событий
+    private int widestLine; // Ширина самой длинной строки (точек)
     // Цвета по умолчанию (можно перенести в SCCVisualizer, если нужно переключать тему)
     private final Color backgroundColor = new Color(40, 40, 40); // Темно-серый
     private final Color foregroundColor = new Color(200, 200, 200); // Светло-серый
 
     // Конструктор класса LogPanel
     public LogPanel() {
-        logArea = new JTextArea(); // Создаем новую текстовую область
-        logArea.setEditable(false); // Запрещаем редактирование текста пользователем (лог только для чтения)
-        logArea.setBackground(backgroundColor);
-        logArea.setForeground(foregroundColor);
-        logArea.setCaretColor(foregroundColor); // Цвет курсора
-        setViewportView(logArea); // Устанавливаем текстовую область как видимую часть JScrollPane (панели с прокруткой)
+        logList = new JList<>(lines); // Создаем список строк лога
+        logList.setFont(new Font(Font.MONOSPACED, Font.PLAIN, 12));
+        logList.setBackground(backgroundColor);
+        logList.setForeground(foregroundColor);
+        // Фиксированная высота строки: списку не нужно измерять все строки, чтобы вычислить свой размер
+        logList.setFixedCellHeight(logList.getFontMetrics(logList.getFont()).getHeight() + 2);
+        logList.setFixedCellWidth(1);
+        setViewportView(logList); // Устанавливаем список как видимую часть JScrollPane (панели с прокруткой)
         getViewport().setBackground(backgroundColor);
         setBorder(BorderFactory.createLineBorder(backgroundColor));
+        flushTimer = new Timer(FLUSH_MILLIS, e -> flush());
+        flushTimer.setRepeats(false); // Таймер запускается при первом добавлении после переноса
     }
 
-    // Метод для добавления текста в лог
+    // Метод для добавления текста в лог (можно вызывать из любого потока).
+    // Текст разбивается на строки по '\n'; текст после последнего перевода строки продолжается следующим добавлением
     public void append(String text) {
-        logArea.append(text); // Добавляем текст в конец текстовой области
-        // Автоматически прокручиваем вниз, чтобы показать последний добавленный текст
-        logArea.setCaretPosition(logArea.getDocument().getLength());
+        synchronized (pending) {
+            int from = 0;
+            for (int i = text.indexOf('\n'); i >= 0; i = text.indexOf('\n', from)) {
+                openLine.append(text, from, i);
+                pending.add(openLine.toString()); // Строка завершена
+                openLine.setLength(0);
+                from = i + 1;
+            }
+            openLine.append(text, from, text.length());
+            openLineChanged = true;
+            if (pending.size() > LINE_CAPACITY) { // Больше буфера все равно не поместится
+                pending.subList(0, pending.size() - LINE_CAPACITY).clear();
+            }
+            if (!flushTimer.isRunning()) flushTimer.start(); // Один перенос на все добавления кадра
+        }
     }
 
     // Метод для очистки всего текста в логе
     public void clear() {
-        logArea.setText(""); // Очищаем текстовую область
+        synchronized (pending) {
+            pending.clear();
+            openLine.setLength(0);
+            openLineChanged = false;
+        }
+        if (SwingUtilities.isEventDispatchThread()) {
+            lines.clear();
+        } else {
+            SwingUtilities.invokeLater(lines::clear);
+        }
+    }
+
+    // Перенос накопленных строк в список (в потоке событий)
+    private void flush() {
+        String[] added;
+        String open;
+        synchronized (pending) {
+            added = pending.toArray(new String[0]);
+            pending.clear();
+            open = openLineChanged ? openLine.toString() : null;
+            openLineChanged = false;
+        }
+        JScrollBar bar = getVerticalScrollBar();
+        boolean atBottom = bar.getValue() + bar.getVisibleAmount() >= bar.getMaximum(); // Лог прокручен до конца
+        lines.add(added, open);
+        FontMetrics metrics = logList.getFontMetrics(logList.getFont());
+        int widest = widestLine;
+        for (String line : added) widest = Math.max(widest, metrics.stringWidth(line)); // Меряем только новые строки
+        if (open != null) widest = Math.max(widest, metrics.stringWidth(open));
+        if (widest > widestLine) {
+            widestLine = widest;
+            logList.setFixedCellWidth(widest + 8);
+        }
+        if (atBottom && lines.getSize() > 0) {
+            logList.ensureIndexIsVisible(lines.getSize() - 1); // Автоматически прокручиваем вниз
+        }
+    }
+
+    // Текущий текст строки index (0 - самая старая из хранимых)
+    public String getLine(int index) {
+        return lines.getElementAt(index);
+    }
+
+    // Число хранимых строк (без еще не перенесенных в список)
+    public int getLineCount() {
+        return lines.getSize();
+    }
+
+    // Модель списка над кольцевым буфером завершенных строк; незавершенная строка (если не пуста) идет последней
+    private static final class LineModel extends AbstractListModel<String> {
+        private final String[] buffer = new String[LINE_CAPACITY];
+        private int first; // Позиция самой старой строки в буфере
+        private int size; // Число завершенных строк
+        private String tail = ""; // Незавершенная строка
+
+        @Override
+        public int getSize() {
+            return tail.isEmpty() ? size : size + 1;
+        }
+
+        @Override
+        public String getElementAt(int index) {
+            return index == size ? tail : buffer[(first + index) % LINE_CAPACITY];
+        }
+
+        // Добавление завершенных строк added (не больше LINE_CAPACITY) и замена незавершенной строки на newTail
+        // (null - не изменилась). Прежняя незавершенная строка уже входит в added, если была завершена
+        void add(String[] added, String newTail) {
+            int before = getSize();
+            boolean hadTail = !tail.isEmpty();
+            int dropped = Math.max(0, size + added.length - LINE_CAPACITY); // Вытесняемые старые строки
+            first = (first + dropped) % LINE_CAPACITY;
+            size -= dropped;
+            for (String line : added) buffer[(first + size++) % LINE_CAPACITY] = line;
+            if (newTail != null) tail = newTail;
+            // Одно событие на каждый вид изменений, а не на каждую строку
+            if (dropped > 0) fireIntervalRemoved(this, 0, dropped - 1);
+            int kept = before - dropped; // Прежних строк осталось
+            if (hadTail && (added.length > 0 || newTail != null)) fireContentsChanged(this, kept - 1, kept - 1);
+            int after = getSize();
+            if (after > kept) {
+                fireIntervalAdded(this, kept, after - 1);
+            } else if (after < kept) {
+                fireIntervalRemoved(this, after, kept - 1);
+            }
+        }
+
+        void clear() {
+            int before = getSize();
+            Arrays.fill(buffer, null);
+            first = 0;
+            size = 0;
+            tail = "";
+            if (before > 0) fireIntervalRemoved(this, 0, before - 1);
+        }
     }
-}
\ No newline at end of file
+}
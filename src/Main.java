@@ -1,7 +1,19 @@
 import javax.swing.*;
+import java.util.Arrays;
 
+// Точка входа: без параметров открывается окно визуализатора, с параметрами выполняется
+// пакетная обработка файлов графов без графического интерфейса (см. SCCBatch),
+// с первым параметром --serve запускается HTTP-сервер поиска компонент (см. SCCServer)
 public class Main {
     public static void main(String[] args) {
+        if (args.length > 0 && args[0].equals("--serve")) { // Сервер: классы Swing не загружаются
+            SCCServer.main(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
+        if (args.length > 0) { // Пакетный режим: классы Swing не загружаются
+            SCCBatch.main(args);
+            return;
+        }
         // Запускаем GUI в потоке обработки событий Swing
         SwingUtilities.invokeLater(() -> {
             // Создаем экземпляр главного окна приложения
@@ -10,4 +22,4 @@ public class Main {
             visualizer.setVisible(true);
         });
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,350 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.ObjectStreamException;
+import java.io.UncheckedIOException;
+import java.lang.ref.Cleaner;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+// Граф CSR, отображенный из двоичного файла в память (FileChannel.map).
+// Массивы не копируются в кучу: страницы файла подгружаются операционной системой по мере обращения,
+// поэтому размер графа ограничен диском, а не -Xmx. При открытии проверяются только заголовок, размер файла
+// и крайние смещения; полная проверка массивов (один последовательный проход по файлу, чтобы поврежденный файл
+// не приводил к ошибкам индексов в алгоритмах) выполняется по запросу: open(path, true).
+// Формат файла (.csr, little-endian):
+//   int magic 'CSRG', int version, long vertexCount, long edgeCount, long reserved (заголовок 32 байта),
+//   int[vertexCount + 1] offsets, int[edgeCount] targets
+public class MappedCSRGraph extends CSRGraph {
+    public static final String EXTENSION = "csr"; // Расширение файлов формата
+    private static final int MAGIC = 0x47525343; // "CSRG" в порядке little-endian
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 32;
+    private static final int SEGMENT_SHIFT = 28; // Один сегмент отображения - 2^28 чисел (1 ГБ)
+    private static final int SEGMENT_MASK = (1 << SEGMENT_SHIFT) - 1;
+    private static final int BUFFER_BYTES = 1 << 16; // Буфер потоковой записи
+    private static final Cleaner CLEANER = Cleaner.create(); // Удаление временных файлов недостижимых графов
+
+    private final Path path; // Файл графа
+    private final int vertexCount;
+    private final int edgeCount;
+    private final transient IntBuffer[] segments; // Отображенные части файла, адресуются номером числа в файле
+    private final long targetsStart; // Номер числа, с которого начинаются targets
+
+    private MappedCSRGraph(Path path, int vertexCount, int edgeCount, IntBuffer[] segments) {
+        this.path = path;
+        this.vertexCount = vertexCount;
+        this.edgeCount = edgeCount;
+        this.segments = segments;
+        this.targetsStart = HEADER_BYTES / 4 + vertexCount + 1L;
+    }
+
+    // Открытие файла графа без чтения массивов: проверяются заголовок, размер файла и крайние смещения
+    public static MappedCSRGraph open(Path path) throws IOException {
+        return open(path, false);
+    }
+
+    // Открытие файла графа, verify - проверить все массивы CSR (см. validate)
+    public static MappedCSRGraph open(Path path, boolean verify) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            while (header.hasRemaining() && channel.read(header) >= 0) { } // Читаем заголовок целиком
+            header.flip();
+            if (header.remaining() < HEADER_BYTES || header.getInt() != MAGIC) {
+                throw new IOException("Файл " + path + " не является графом CSR");
+            }
+            int version = header.getInt();
+            if (version != VERSION) throw new IOException("Неподдерживаемая версия формата CSR: " + version);
+            long V = header.getLong();
+            long E = header.getLong();
+            if (V < 0 || V >= Integer.MAX_VALUE || E < 0 || E > Integer.MAX_VALUE) {
+                throw new IOException("Граф " + path + " слишком велик: " + V + " вершин, " + E + " ребер");
+            }
+            long size = HEADER_BYTES + 4 * (V + 1 + E);
+            if (channel.size() != size) {
+                throw new IOException("Размер файла " + path + " не совпадает с заголовком (" + channel.size() + " вместо " + size + ")");
+            }
+            MappedCSRGraph graph = new MappedCSRGraph(path, (int) V, (int) E, map(channel, FileChannel.MapMode.READ_ONLY, size));
+            int first = graph.get(HEADER_BYTES / 4);
+            int last = graph.get(HEADER_BYTES / 4 + V);
+            if (first != 0 || last != E) {
+                throw new IOException("Некорректные смещения в файле " + path + ": offsets[0] = " + first
+                        + ", offsets[" + V + "] = " + last + " при " + E + " ребрах");
+            }
+            if (verify) graph.validate();
+            return graph; // Отображение остается действительным после закрытия канала
+        }
+    }
+
+    // Проверка массивов за один последовательный проход по файлу: смещения начинаются с 0, не убывают
+    // и заканчиваются числом ребер, концы ребер - номера вершин
+    private void validate() throws IOException {
+        long start = HEADER_BYTES / 4;
+        int previous = get(start);
+        if (previous != 0) throw new IOException("Некорректные смещения в файле " + path + ": offsets[0] = " + previous);
+        for (int v = 1; v <= vertexCount; v++) {
+            int offset = get(start + v);
+            if (offset < previous) {
+                throw new IOException("Некорректные смещения в файле " + path + ": offsets[" + v + "] = " + offset
+                        + " меньше offsets[" + (v - 1) + "] = " + previous);
+            }
+            previous = offset;
+        }
+        if (previous != edgeCount) {
+            throw new IOException("Некорректные смещения в файле " + path + ": offsets[" + vertexCount + "] = " + previous
+                    + " вместо " + edgeCount);
+        }
+        for (int e = 0; e < edgeCount; e++) {
+            int target = get(targetsStart + e);
+            if (target < 0 || target >= vertexCount) {
+                throw new IOException("Некорректное ребро в файле " + path + ": targets[" + e + "] = " + target);
+            }
+        }
+    }
+
+    // Отображение файла размером size байт сегментами по 2^SEGMENT_SHIFT чисел
+    private static IntBuffer[] map(FileChannel channel, FileChannel.MapMode mode, long size) throws IOException {
+        long segmentBytes = 4L << SEGMENT_SHIFT;
+        IntBuffer[] segments = new IntBuffer[(int) ((size + segmentBytes - 1) / segmentBytes)];
+        for (int k = 0; k < segments.length; k++) {
+            long start = k * segmentBytes;
+            MappedByteBuffer buffer = channel.map(mode, start, Math.min(segmentBytes, size - start));
+            segments[k] = buffer.order(ByteOrder.LITTLE_ENDIAN).asIntBuffer();
+        }
+        return segments;
+    }
+
+    // Число с номером index от начала файла
+    private int get(long index) {
+        return segments[(int) (index >>> SEGMENT_SHIFT)].get((int) (index & SEGMENT_MASK));
+    }
+
+    // Файл, из которого отображен граф (у обращенного графа - временный файл, который может быть уже удален)
+    public Path getPath() {
+        return path;
+    }
+
+    @Override
+    public int vertexCount() {
+        return vertexCount;
+    }
+
+    @Override
+    public int edgeCount() {
+        return edgeCount;
+    }
+
+    @Override
+    public int firstEdge(int v) {
+        return get(HEADER_BYTES / 4 + v);
+    }
+
+    @Override
+    public int lastEdge(int v) {
+        return get(HEADER_BYTES / 4 + v + 1L);
+    }
+
+    @Override
+    public int degree(int v) {
+        return lastEdge(v) - firstEdge(v);
+    }
+
+    @Override
+    public int target(int edge) {
+        return get(targetsStart + edge);
+    }
+
+    // Транспонирование сортировкой подсчетом. Если обращенный граф с запасом помещается в свободную часть кучи,
+    // он строится обычным CSRGraph; иначе ребра раскладываются прямо в отображенный на запись временный файл,
+    // а в куче держатся только смещения обращенного графа
+    @Override
+    public CSRGraph transpose() {
+        int V = vertexCount;
+        int[] offsets = new int[V + 1];
+        for (int e = 0; e < edgeCount; e++) {
+            offsets[target(e) + 1]++; // Считаем входящие ребра
+        }
+        for (int v = 0; v < V; v++) {
+            offsets[v + 1] += offsets[v]; // Префиксные суммы дают начала списков
+        }
+        Runtime runtime = Runtime.getRuntime();
+        long free = runtime.maxMemory() - (runtime.totalMemory() - runtime.freeMemory());
+        return 4L * edgeCount <= free / 2 ? transposeToHeap(offsets) : transposeToFile(offsets);
+    }
+
+    // Раскладка ребер обращенного графа со смещениями offsets в массив кучи
+    private CSRGraph transposeToHeap(int[] offsets) {
+        int[] cursor = Arrays.copyOf(offsets, vertexCount); // Текущая позиция записи для каждой вершины
+        int[] targets = new int[edgeCount];
+        for (int v = 0; v < vertexCount; v++) {
+            for (int e = firstEdge(v); e < lastEdge(v); e++) {
+                targets[cursor[target(e)]++] = v; // Разворачиваем ребро
+            }
+        }
+        return new CSRGraph(offsets, targets);
+    }
+
+    // Раскладка ребер обращенного графа со смещениями offsets во временный файл формата CSR
+    private CSRGraph transposeToFile(int[] offsets) {
+        int V = vertexCount;
+        Path file = null;
+        try {
+            file = Files.createTempFile("transposed-", "." + EXTENSION);
+            long size = HEADER_BYTES + 4 * ((long) V + 1 + edgeCount);
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                IntBuffer[] output = map(channel, FileChannel.MapMode.READ_WRITE, size);
+                put(output, 0, MAGIC);
+                put(output, 1, VERSION);
+                put(output, 2, V); // long-поля заголовка: младшая половина, старшая равна нулю
+                put(output, 4, edgeCount);
+                for (int v = 0; v <= V; v++) {
+                    put(output, HEADER_BYTES / 4 + v, offsets[v]);
+                }
+                int[] cursor = offsets; // Смещения записаны, массив становится позициями записи
+                long reversedTargets = HEADER_BYTES / 4 + V + 1L;
+                for (int v = 0; v < V; v++) {
+                    for (int e = firstEdge(v); e < lastEdge(v); e++) {
+                        put(output, reversedTargets + cursor[target(e)]++, v); // Разворачиваем ребро
+                    }
+                }
+                MappedCSRGraph result = new MappedCSRGraph(file, V, edgeCount, output);
+                deleteWhenReleased(result, file);
+                return result;
+            }
+        } catch (IOException e) {
+            if (file != null) file.toFile().delete();
+            throw new UncheckedIOException("Не удалось записать обращенный граф", e);
+        }
+    }
+
+    // Временный файл нужен только отображению графа graph. В POSIX он удаляется сразу: данные остаются
+    // доступны через отображение, а место на диске освобождается, когда сборщик мусора снимет отображение
+    // вместе с графом. Если открытый файл удалить нельзя (Windows), он удаляется, когда граф станет
+    // недостижим, в крайнем случае - при выходе из JVM
+    private static void deleteWhenReleased(MappedCSRGraph graph, Path file) {
+        try {
+            Files.delete(file);
+        } catch (IOException e) {
+            file.toFile().deleteOnExit();
+            CLEANER.register(graph, () -> file.toFile().delete()); // Действие не должно ссылаться на граф
+        }
+    }
+
+    // Отображенный граф транспонируется последовательно: узкое место - диск, а не процессор
+    @Override
+    public CSRGraph transposeParallel(int parallelism) {
+        return transpose();
+    }
+
+    // Запись числа с номером index от начала файла
+    private static void put(IntBuffer[] segments, long index, int value) {
+        segments[(int) (index >>> SEGMENT_SHIFT)].put((int) (index & SEGMENT_MASK), value);
+    }
+
+    // При сериализации отображенный граф копируется в обычный CSRGraph
+    private Object writeReplace() throws ObjectStreamException {
+        int[] offsets = new int[vertexCount + 1];
+        for (int v = 0; v <= vertexCount; v++) {
+            offsets[v] = get(HEADER_BYTES / 4 + v);
+        }
+        int[] targets = new int[edgeCount];
+        for (int e = 0; e < edgeCount; e++) {
+            targets[e] = target(e);
+        }
+        return new CSRGraph(offsets, targets);
+    }
+
+    // Запись графа в файл формата CSR
+    public static void write(Path path, CSRGraph graph) throws IOException {
+        try (Writer writer = new Writer(path, graph.vertexCount())) {
+            for (int v = 0; v < graph.vertexCount(); v++) {
+                for (int e = graph.firstEdge(v); e < graph.lastEdge(v); e++) {
+                    writer.addEdge(v, graph.target(e));
+                }
+            }
+        }
+    }
+
+    // Потоковая запись файла CSR: ребра передаются по возрастанию начальной вершины и сразу уходят на диск.
+    // Смещения и концы ребер пишутся в две области файла (их границы известны по числу вершин),
+    // поэтому в памяти не хранится ничего, кроме двух буферов
+    public static class Writer implements Closeable {
+        private final FileChannel channel;
+        private final int vertexCount;
+        private final ByteBuffer offsetBuffer = ByteBuffer.allocateDirect(BUFFER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        private final ByteBuffer targetBuffer = ByteBuffer.allocateDirect(BUFFER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        private long offsetPosition = HEADER_BYTES; // Позиция записи смещений в файле
+        private long targetPosition; // Позиция записи концов ребер
+        private int current; // Вершина, ребра которой записываются сейчас
+        private long edgeCount;
+
+        // Создание файла path для графа из vertexCount вершин
+        public Writer(Path path, int vertexCount) throws IOException {
+            if (vertexCount < 0 || vertexCount == Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("Некорректное число вершин: " + vertexCount);
+            }
+            this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING);
+            this.vertexCount = vertexCount;
+            this.targetPosition = HEADER_BYTES + 4 * (vertexCount + 1L);
+            putOffset(0);
+        }
+
+        // Добавление ребра from -> to, начальные вершины не должны убывать
+        public void addEdge(int from, int to) throws IOException {
+            if (from < current || from >= vertexCount || to < 0 || to >= vertexCount) {
+                throw new IllegalArgumentException("Ребро " + from + " -> " + to
+                        + " выходит за пределы графа или нарушает порядок начальных вершин");
+            }
+            if (edgeCount == Integer.MAX_VALUE) throw new IOException("Слишком много ребер для формата CSR");
+            advanceTo(from);
+            if (!targetBuffer.hasRemaining()) targetPosition = flush(targetBuffer, targetPosition);
+            targetBuffer.putInt(to);
+            edgeCount++;
+        }
+
+        // Завершение записи смещений до вершины v включительно
+        private void advanceTo(int v) throws IOException {
+            while (current < v) {
+                current++;
+                putOffset((int) edgeCount); // Смещение вершины current - число уже записанных ребер
+            }
+        }
+
+        private void putOffset(int offset) throws IOException {
+            if (!offsetBuffer.hasRemaining()) offsetPosition = flush(offsetBuffer, offsetPosition);
+            offsetBuffer.putInt(offset);
+        }
+
+        // Запись содержимого буфера в позицию position, возвращает позицию после записанных данных
+        private long flush(ByteBuffer buffer, long position) throws IOException {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                position += channel.write(buffer, position);
+            }
+            buffer.clear();
+            return position;
+        }
+
+        // Дописывает оставшиеся смещения и заголовок
+        @Override
+        public void close() throws IOException {
+            try {
+                advanceTo(vertexCount); // Смещение vertexCount - общее число ребер
+                flush(offsetBuffer, offsetPosition);
+                flush(targetBuffer, targetPosition);
+                ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+                header.putInt(MAGIC).putInt(VERSION).putLong(vertexCount).putLong(edgeCount).putLong(0);
+                flush(header, 0);
+            } finally {
+                channel.close();
+            }
+        }
+    }
+}
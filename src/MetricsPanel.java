@@ -0,0 +1,83 @@
+import javax.swing.*;
+import javax.swing.table.AbstractTableModel;
+import java.awt.*;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+// Панель метрик этапов поиска компонент (последний замер каждого этапа из SCCMetrics).
+// Таблица перечитывает метрики раз в REFRESH_MILLIS и только если появились новые замеры
+public class MetricsPanel extends JScrollPane {
+    private static final int REFRESH_MILLIS = 500; // Интервал проверки новых замеров
+    private static final int VISIBLE_ROWS = 4; // Высота панели в строках таблицы
+
+    private final PhaseModel model = new PhaseModel(); // Строки таблицы
+    private long shownRecords = -1; // Число замеров, по которому построена таблица
+    // Цвета по умолчанию (как у LogPanel)
+    private final Color backgroundColor = new Color(40, 40, 40); // Темно-серый
+    private final Color foregroundColor = new Color(200, 200, 200); // Светло-серый
+
+    // Конструктор панели метрик
+    public MetricsPanel() {
+        JTable table = new JTable(model);
+        table.setFont(new Font(Font.MONOSPACED, Font.PLAIN, 12));
+        table.setBackground(backgroundColor);
+        table.setForeground(foregroundColor);
+        table.setRowHeight(table.getFontMetrics(table.getFont()).getHeight() + 2);
+        table.setFillsViewportHeight(true);
+        table.getColumnModel().getColumn(0).setPreferredWidth(220); // Название этапа длиннее чисел
+        setViewportView(table);
+        getViewport().setBackground(backgroundColor);
+        setBorder(BorderFactory.createLineBorder(backgroundColor));
+        setPreferredSize(new Dimension(100, table.getRowHeight() * (VISIBLE_ROWS + 1) + 8)); // Строки и заголовок
+        new Timer(REFRESH_MILLIS, e -> refresh()).start();
+    }
+
+    // Перечитывание метрик, если появились новые замеры
+    private void refresh() {
+        SCCMetrics metrics = SCCMetrics.get();
+        long records = metrics.getRecordedPhases();
+        if (records == shownRecords) return;
+        shownRecords = records;
+        model.setRows(metrics.getLastPhases());
+    }
+
+    // Модель таблицы: один замер этапа на строку
+    private static final class PhaseModel extends AbstractTableModel {
+        private static final String[] COLUMNS = {"Этап", "мс", "вершин/с", "ребер/с", "выделено, КБ", "глубина стека"};
+        private List<PhaseStats> rows = Collections.emptyList();
+
+        void setRows(List<PhaseStats> rows) {
+            this.rows = rows;
+            fireTableDataChanged();
+        }
+
+        @Override
+        public int getRowCount() {
+            return rows.size();
+        }
+
+        @Override
+        public int getColumnCount() {
+            return COLUMNS.length;
+        }
+
+        @Override
+        public String getColumnName(int column) {
+            return COLUMNS[column];
+        }
+
+        @Override
+        public Object getValueAt(int row, int column) {
+            PhaseStats stats = rows.get(row);
+            switch (column) {
+                case 0: return stats.getEngine() + " / " + stats.getPhase();
+                case 1: return String.format(Locale.ROOT, "%.3f", stats.getMillis());
+                case 2: return String.format(Locale.ROOT, "%,.0f", stats.getVerticesPerSecond());
+                case 3: return String.format(Locale.ROOT, "%,.0f", stats.getEdgesPerSecond());
+                case 4: return stats.getAllocatedBytes() >= 0 ? String.format(Locale.ROOT, "%,d", stats.getAllocatedBytes() / 1024) : "-";
+                default: return stats.getPeakStackDepth();
+            }
+        }
+    }
+}
@@ -0,0 +1,79 @@
+import java.util.Arrays;
+
+// Алгоритм Габова на основе путей (path-based SCC).
+// Вместо low-link значений поддерживается стек границ компонент на текущем пути DFS:
+// ребро в уже посещенную вершину незавершенной компоненты стягивает границы в одну компоненту.
+// Компоненты нумеруются в порядке завершения (обратный топологический порядок графа конденсации)
+public class PathBasedEngine implements SCCEngine {
+
+    @Override
+    public String getName() {
+        return "Габов (path-based)";
+    }
+
+    @Override
+    public SCCResult findSCCs(CSRGraph graph, StepTrace trace) {
+        int V = graph.vertexCount(); // Количество вершин
+        int[] preorder = new int[V]; // Время входа (-1 - не посещена)
+        Arrays.fill(preorder, -1);
+        int[] componentOf = new int[V]; // Номер компоненты (-1 - еще не назначен)
+        Arrays.fill(componentOf, -1);
+        int[] vertexStack = new int[V]; // Стек S: посещенные вершины без компоненты
+        int vertexTop = 0;
+        int[] boundaryStack = new int[V]; // Стек P: корни возможных компонент на пути
+        int boundaryTop = 0;
+        int[] callStack = new int[V]; // Явный стек обхода
+        int[] cursor = new int[V]; // Курсоры ребер
+        int[] members = new int[V]; // Вершины компонент в порядке выделения
+        int[] memberOffsets = new int[V + 1];
+        int memberCount = 0;
+        int count = 0; // Количество найденных компонент
+        int time = 0; // Счетчик времени входа
+
+        for (int s = 0; s < V; s++) {
+            if (preorder[s] >= 0) continue; // Вершина уже обработана
+            int top = 0;
+            callStack[top++] = s;
+            preorder[s] = time++;
+            vertexStack[vertexTop++] = s;
+            boundaryStack[boundaryTop++] = s;
+            cursor[s] = graph.firstEdge(s);
+            if (trace != null) trace.add(StepTrace.Type.VISIT, s);
+
+            while (top > 0) {
+                int v = callStack[top - 1]; // Текущая вершина
+                if (cursor[v] < graph.lastEdge(v)) { // Есть непросмотренные ребра
+                    int to = graph.target(cursor[v]++);
+                    if (preorder[to] < 0) { // Сосед не посещен - спускаемся
+                        if (trace != null) trace.add(StepTrace.Type.TRAVERSE, v, to);
+                        preorder[to] = time++;
+                        vertexStack[vertexTop++] = to;
+                        boundaryStack[boundaryTop++] = to;
+                        cursor[to] = graph.firstEdge(to);
+                        if (trace != null) trace.add(StepTrace.Type.VISIT, to);
+                        callStack[top++] = to;
+                    } else if (componentOf[to] < 0) { // Сосед на пути: стягиваем границы до него
+                        while (preorder[boundaryStack[boundaryTop - 1]] > preorder[to]) {
+                            boundaryTop--;
+                        }
+                    }
+                } else { // Вершина завершена
+                    top--;
+                    if (boundaryStack[boundaryTop - 1] == v) { // v - корень компоненты
+                        boundaryTop--;
+                        int w;
+                        do {
+                            w = vertexStack[--vertexTop];
+                            componentOf[w] = count;
+                            members[memberCount++] = w;
+                        } while (w != v);
+                        memberOffsets[++count] = memberCount;
+                        if (trace != null) trace.add(StepTrace.Type.COMPONENT, count - 1);
+                    }
+                }
+            }
+        }
+        return new SCCResult(componentOf, count, members, Arrays.copyOf(memberOffsets, count + 1),
+                SCCResult.Order.REVERSE_TOPOLOGICAL, null);
+    }
+}
@@ -0,0 +1,91 @@
+import java.util.Arrays;
+
+// Экономный по памяти вариант алгоритма Тарьяна (Pearce, 2016).
+// Вместо массивов index, low и onStack используется один массив rindex:
+// для активных вершин это время входа (или low-link), для завершенных - номер компоненты,
+// отсчитываемый от V - 1 вниз, поэтому он всегда больше любого времени входа.
+// Компоненты нумеруются в порядке завершения (обратный топологический порядок графа конденсации)
+public class PearceEngine implements SCCEngine {
+
+    @Override
+    public String getName() {
+        return "Пирс";
+    }
+
+    @Override
+    public SCCResult findSCCs(CSRGraph graph, StepTrace trace) {
+        int V = graph.vertexCount(); // Количество вершин
+        int[] rindex = new int[V]; // 0 - не посещена, иначе время входа/low-link или номер компоненты
+        boolean[] root = new boolean[V]; // Вершина пока считается корнем своей компоненты
+        int[] pending = new int[V]; // Стек вершин незавершенных компонент
+        int pendingTop = 0;
+        int[] callStack = new int[V]; // Явный стек обхода
+        int[] cursor = new int[V]; // Курсоры ребер
+        int[] members = new int[V]; // Вершины компонент в порядке выделения
+        int[] memberOffsets = new int[V + 1];
+        int memberCount = 0;
+        int index = 1; // Счетчик времени входа (уменьшается при выделении компонент)
+        int c = V - 1; // Следующий свободный номер компоненты (с конца)
+
+        for (int s = 0; s < V; s++) {
+            if (rindex[s] != 0) continue; // Вершина уже обработана
+            int top = 0;
+            callStack[top++] = s;
+            rindex[s] = index++;
+            root[s] = true;
+            cursor[s] = graph.firstEdge(s);
+            if (trace != null) trace.add(StepTrace.Type.VISIT, s);
+
+            while (top > 0) {
+                int v = callStack[top - 1]; // Текущая вершина
+                if (cursor[v] < graph.lastEdge(v)) { // Есть непросмотренные ребра
+                    int to = graph.target(cursor[v]++);
+                    if (rindex[to] == 0) { // Сосед не посещен - спускаемся
+                        if (trace != null) trace.add(StepTrace.Type.TRAVERSE, v, to);
+                        rindex[to] = index++;
+                        root[to] = true;
+                        cursor[to] = graph.firstEdge(to);
+                        if (trace != null) trace.add(StepTrace.Type.VISIT, to);
+                        callStack[top++] = to;
+                    } else if (rindex[to] < rindex[v]) { // Сосед в незавершенной компоненте выше по стеку
+                        rindex[v] = rindex[to];
+                        root[v] = false;
+                    }
+                } else { // Вершина завершена
+                    top--;
+                    if (root[v]) { // v - корень компоненты: все вершины выше нее в стеке принадлежат ей
+                        index--;
+                        while (pendingTop > 0 && rindex[v] <= rindex[pending[pendingTop - 1]]) {
+                            int w = pending[--pendingTop];
+                            rindex[w] = c;
+                            members[memberCount++] = w;
+                            index--;
+                        }
+                        rindex[v] = c;
+                        members[memberCount++] = v;
+                        c--;
+                        memberOffsets[V - 1 - c] = memberCount;
+                        if (trace != null) trace.add(StepTrace.Type.COMPONENT, V - 2 - c);
+                    } else {
+                        pending[pendingTop++] = v; // Компонента завершится в одном из предков
+                    }
+                    if (top > 0) { // Передаем low-link родителю
+                        int parent = callStack[top - 1];
+                        if (rindex[v] < rindex[parent]) {
+                            rindex[parent] = rindex[v];
+                            root[parent] = false;
+                        }
+                    }
+                }
+            }
+        }
+
+        int count = V - 1 - c; // Количество компонент
+        int[] componentOf = rindex; // Переводим номера компонент V-1, V-2, ... в 0, 1, ...
+        for (int v = 0; v < V; v++) {
+            componentOf[v] = V - 1 - rindex[v];
+        }
+        return new SCCResult(componentOf, count, members, Arrays.copyOf(memberOffsets, count + 1),
+                SCCResult.Order.REVERSE_TOPOLOGICAL, null);
+    }
+}
@@ -0,0 +1,80 @@
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+// Замер этапов одного выполнения алгоритма. Пошаговое выполнение идет отрезками (SCCExecution.advance),
+// поэтому время и выделенная потоком память накапливаются между resume и suspend, а итог этапа
+// публикуется в SCCMetrics и в событие JFR при его завершении (phaseDone).
+// Замер стоит несколько вызовов System.nanoTime и счетчика памяти на отрезок, а не на шаг
+public class PhaseMeter {
+    private static final com.sun.management.ThreadMXBean ALLOCATION = allocationBean(); // null - замер недоступен
+
+    private final String engine; // Алгоритм
+    private long activeNanos; // Время этапа в завершенных отрезках
+    private long allocatedBytes; // Память этапа в завершенных отрезках
+    private long segmentStart; // Начало текущего отрезка
+    private long segmentAllocated; // Счетчик памяти потока в начале отрезка
+    private SCCPhaseEvent event; // Событие JFR текущего этапа (null - этап еще не начат)
+
+    // Замер выполнения алгоритма engine (по названию)
+    public PhaseMeter(String engine) {
+        this.engine = engine;
+    }
+
+    private static com.sun.management.ThreadMXBean allocationBean() {
+        ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (!(bean instanceof com.sun.management.ThreadMXBean)) return null;
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) bean;
+        if (!threads.isThreadAllocatedMemorySupported()) return null;
+        if (!threads.isThreadAllocatedMemoryEnabled()) threads.setThreadAllocatedMemoryEnabled(true);
+        return threads;
+    }
+
+    // Загрузка классов замера заранее (счетчик памяти потока, событие JFR), вне замеряемых этапов
+    static void preload() {
+        allocated();
+        new SCCPhaseEvent().shouldCommit();
+    }
+
+    private static long allocated() {
+        return ALLOCATION != null ? ALLOCATION.getCurrentThreadAllocatedBytes() : 0;
+    }
+
+    // Начало отрезка выполнения
+    public void resume() {
+        if (event == null) {
+            event = new SCCPhaseEvent();
+            event.begin();
+        }
+        segmentAllocated = allocated();
+        segmentStart = System.nanoTime();
+    }
+
+    // Конец отрезка выполнения
+    public void suspend() {
+        activeNanos += System.nanoTime() - segmentStart;
+        allocatedBytes += allocated() - segmentAllocated;
+    }
+
+    // Завершение этапа phase внутри отрезка: итог публикуется, следующий этап начинается с этого момента.
+    // vertices и edges - объем графа, обработанный этапом, peakStackDepth - наибольшая глубина стека
+    public void phaseDone(String phase, long vertices, long edges, int peakStackDepth) {
+        suspend();
+        long allocatedTotal = ALLOCATION != null ? allocatedBytes : -1;
+        SCCMetrics.get().record(new PhaseStats(engine, phase, activeNanos, vertices, edges, allocatedTotal, peakStackDepth));
+        event.end();
+        if (event.shouldCommit()) { // Запись JFR включена для события
+            event.engine = engine;
+            event.phase = phase;
+            event.activeTime = activeNanos;
+            event.vertices = vertices;
+            event.edges = edges;
+            event.allocatedBytes = allocatedTotal;
+            event.peakStackDepth = peakStackDepth;
+            event.commit();
+        }
+        event = null;
+        activeNanos = 0;
+        allocatedBytes = 0;
+        resume();
+    }
+}
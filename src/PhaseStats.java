@@ -0,0 +1,72 @@
+import java.util.Locale;
+
+// Замер одного этапа поиска компонент: время выполнения, объем обработанного графа,
+// выделенная память и наибольшая глубина явного стека DFS
+public final class PhaseStats {
+    private final String engine; // Алгоритм
+    private final String phase; // Этап
+    private final long nanos; // Время выполнения этапа (без пауз пошагового выполнения)
+    private final long vertices; // Обработано вершин
+    private final long edges; // Обработано ребер
+    private final long allocatedBytes; // Выделено памяти потоком выполнения (-1 - замер недоступен)
+    private final int peakStackDepth; // Наибольшая глубина стека DFS (0 - этап без обхода)
+
+    public PhaseStats(String engine, String phase, long nanos, long vertices, long edges, long allocatedBytes,
+                      int peakStackDepth) {
+        this.engine = engine;
+        this.phase = phase;
+        this.nanos = nanos;
+        this.vertices = vertices;
+        this.edges = edges;
+        this.allocatedBytes = allocatedBytes;
+        this.peakStackDepth = peakStackDepth;
+    }
+
+    public String getEngine() {
+        return engine;
+    }
+
+    public String getPhase() {
+        return phase;
+    }
+
+    public long getNanos() {
+        return nanos;
+    }
+
+    public double getMillis() {
+        return nanos / 1e6;
+    }
+
+    public long getVertices() {
+        return vertices;
+    }
+
+    public long getEdges() {
+        return edges;
+    }
+
+    // Вершин в секунду
+    public double getVerticesPerSecond() {
+        return nanos > 0 ? vertices * 1e9 / nanos : 0;
+    }
+
+    // Ребер в секунду
+    public double getEdgesPerSecond() {
+        return nanos > 0 ? edges * 1e9 / nanos : 0;
+    }
+
+    public long getAllocatedBytes() {
+        return allocatedBytes;
+    }
+
+    public int getPeakStackDepth() {
+        return peakStackDepth;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(Locale.ROOT, "%s / %s: %.3f мс, %.0f вершин/с, %.0f ребер/с, выделено %d Б, глубина стека %d",
+                engine, phase, getMillis(), getVerticesPerSecond(), getEdgesPerSecond(), allocatedBytes, peakStackDepth);
+    }
+}
@@ -0,0 +1,68 @@
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+// Граф с заданной структурой компонент сильной связности.
+// Вершины случайно делятся на k групп почти равного размера. Внутри группы вершины связаны
+// гамильтоновым циклом (группа гарантированно сильно связна) и случайными хордами, а ребра между
+// группами идут только от группы с меньшим номером к большей, поэтому группы - в точности компоненты графа
+public class PlantedSCCGenerator implements GraphGenerator {
+
+    @Override
+    public String getName() {
+        return "Заданные компоненты";
+    }
+
+    @Override
+    public String[] getParameterNames() {
+        return new String[]{"Число компонент", "Степень внутри", "Степень между"};
+    }
+
+    @Override
+    public double[] getDefaultParameters() {
+        return new double[]{3, 1, 0.5};
+    }
+
+    @Override
+    public CSRGraph generate(int vertexCount, double[] parameters, long seed) {
+        String[] names = getParameterNames();
+        int k = (int) EdgeSampler.check(parameters[0], Math.min(1, vertexCount), Math.max(1, vertexCount), names[0]);
+        double inner = EdgeSampler.check(parameters[1], 0, EdgeSampler.MAX_DEGREE, names[1]);
+        double outer = EdgeSampler.check(parameters[2], 0, EdgeSampler.MAX_DEGREE, names[2]);
+        if (vertexCount == 0) return CSRGraph.empty();
+
+        int[] order = EdgeSampler.permutation(vertexCount, new SplittableRandom(seed ^ 0x9E3779B97F4A7C15L));
+        int[] start = new int[k + 1]; // Группа g занимает order[start[g] .. start[g + 1])
+        int[] group = new int[vertexCount];
+        for (int g = 0; g < k; g++) {
+            start[g + 1] = (int) ((long) vertexCount * (g + 1) / k);
+            for (int i = start[g]; i < start[g + 1]; i++) group[order[i]] = g;
+        }
+
+        // Обязательные ребра: цикл по вершинам каждой группы из двух и более вершин
+        long[] cycle = new long[vertexCount];
+        int cycleCount = 0;
+        for (int g = 0; g < k; g++) {
+            int size = start[g + 1] - start[g];
+            if (size < 2) continue;
+            for (int i = start[g]; i < start[g + 1]; i++) {
+                int next = i + 1 < start[g + 1] ? i + 1 : start[g];
+                cycle[cycleCount++] = EdgeSampler.edge(order[i], order[next]);
+            }
+        }
+        long[] fixed = Arrays.copyOf(cycle, cycleCount);
+
+        double innerShare = inner + outer > 0 ? inner / (inner + outer) : 0;
+        long edgeCount = Math.round((inner + outer) * vertexCount);
+        return EdgeSampler.sample(vertexCount, edgeCount, seed, random -> {
+            int u = random.nextInt(vertexCount);
+            int g = group[u];
+            if (random.nextDouble() < innerShare) { // Хорда внутри группы
+                int v = order[start[g] + random.nextInt(start[g + 1] - start[g])];
+                return EdgeSampler.edge(u, v);
+            }
+            int v = random.nextInt(vertexCount);
+            if (group[v] == g) return -1; // Ребро между группами должно связывать разные группы
+            return group[v] > g ? EdgeSampler.edge(u, v) : EdgeSampler.edge(v, u); // От меньшей группы к большей
+        }, fixed);
+    }
+}
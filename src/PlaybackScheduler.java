@@ -0,0 +1,115 @@
+import javax.swing.*;
+
+// Воспроизведение шагов алгоритма одним таймером Swing: все шаги выполняются в потоке событий,
+// поэтому очередь событий не переполняется, а отдельные потоки воспроизведения не создаются.
+// Таймер срабатывает не чаще раза за кадр (FRAME_MILLIS); если задержка между шагами меньше кадра,
+// за одно срабатывание выполняется столько шагов, сколько прошло по времени, и экран обновляется один раз.
+// В режиме максимальной скорости воспроизведение сразу переходит к последнему шагу без промежуточных кадров.
+// При пошаговом выполнении (SCCAlgorithm.isStepwise) шаги вычисляются здесь же, в каждом кадре не дольше
+// PRODUCE_NANOS и не дальше LOOKAHEAD шагов вперед, а показанные шаги освобождаются; остановка
+// воспроизведения останавливает и вычисление. Так воспроизводятся только алгоритмы, допускающие
+// приостановку (SCCEngine.isSuspendable), а то, что нельзя разбить на шаги, готовится заранее в фоне
+public class PlaybackScheduler {
+    private static final int FRAME_MILLIS = 16; // Наименьший интервал между кадрами (около 60 кадров в секунду)
+    private static final int MAX_LOGGED_STEPS = 200; // Наибольшее число описаний шагов в логе за кадр
+    private static final long PRODUCE_NANOS = 8_000_000L; // Наибольшее время вычисления шагов за кадр
+
+    private final SCCVisualizer visualizer; // Ссылка на главное окно визуализатора
+    private final Timer timer; // Таймер кадров
+    private long delayNanos = 1_000_000_000L; // Задержка между шагами
+    private boolean maxSpeed; // Режим максимальной скорости
+    private long lastTick; // Время предыдущего срабатывания
+    private long elapsed; // Накопленное время, еще не израсходованное на шаги
+    private int nextStep; // Следующий показываемый шаг
+
+    // Конструктор планировщика, visualizer ссылка на главное окно
+    public PlaybackScheduler(SCCVisualizer visualizer) {
+        this.visualizer = visualizer;
+        timer = new Timer(FRAME_MILLIS, e -> tick());
+        timer.setCoalesce(true); // Опоздавшие срабатывания сливаются в одно
+    }
+
+    // Запуск воспроизведения (в потоке событий). fromCurrent - первым показывается текущий шаг,
+    // иначе воспроизведение продолжается со следующего
+    public void start(boolean fromCurrent) {
+        if (timer.isRunning()) return;
+        visualizer.getControlPanel().setRunning(true);
+        lastTick = System.nanoTime();
+        elapsed = delayNanos; // Первый шаг - сразу
+        nextStep = visualizer.getAlgorithm().getCurrentStep() + (fromCurrent ? 0 : 1);
+        timer.setInitialDelay(0);
+        timer.start();
+    }
+
+    // Остановка воспроизведения с сохранением позиции для продолжения (в потоке событий)
+    public void pause() {
+        if (!timer.isRunning()) return;
+        timer.stop();
+        SCCAlgorithm algorithm = visualizer.getAlgorithm();
+        algorithm.setExecutionPosition(algorithm.getCurrentStep()); // Сохраняем позицию для продолжения
+        visualizer.getControlPanel().setRunning(false);
+        visualizer.getGraphPanel().repaint(); // Раскраска по состоянию на шаге остановки
+    }
+
+    // Идет ли воспроизведение
+    public boolean isRunning() {
+        return timer.isRunning();
+    }
+
+    // Задержка между шагами в миллисекундах (0 - все шаги, накопившиеся за кадр, показываются одним кадром)
+    public void setDelay(int delayMillis) {
+        delayNanos = Math.max(1_000L, delayMillis * 1_000_000L); // Не меньше микросекунды
+        timer.setDelay(Math.max(1, Math.min(FRAME_MILLIS, delayMillis))); // Редкие шаги не требуют частых срабатываний
+    }
+
+    // Режим максимальной скорости: переход к последнему шагу в следующем кадре
+    public void setMaxSpeed(boolean maxSpeed) {
+        this.maxSpeed = maxSpeed;
+    }
+
+    // Срабатывание таймера: выполнение шагов, накопившихся с предыдущего кадра
+    private void tick() {
+        SCCAlgorithm algorithm = visualizer.getAlgorithm();
+        long now = System.nanoTime();
+        elapsed += now - lastTick;
+        lastTick = now;
+        long due = maxSpeed ? 0 : elapsed / delayNanos; // Шагов за прошедшее время
+        // Вычисляем шаги этого кадра и запас впрок (в режиме максимальной скорости - сколько успеем)
+        long wanted = maxSpeed ? Integer.MAX_VALUE - 1L : nextStep - 1L + due + SCCAlgorithm.LOOKAHEAD;
+        boolean complete = algorithm.produceSteps((int) Math.min(Integer.MAX_VALUE - 1L, wanted), now + PRODUCE_NANOS);
+        StepTrace trace = algorithm.getTrace();
+        int total = trace.size();
+        int target;
+        if (maxSpeed) {
+            target = total - 1; // Промежуточные шаги пропускаются
+        } else {
+            elapsed -= due * delayNanos;
+            target = (int) Math.min(total - 1L, nextStep - 1L + due);
+        }
+        if (target >= nextStep) {
+            algorithm.setCurrentStep(target);
+            visualizer.getControlPanel().updateStepInfo(target + 1, total); // Обновляем информацию о текущем шаге
+            logSteps(algorithm, nextStep, target);
+            visualizer.getGraphPanel().stepChanged(); // Один кадр на все шаги срабатывания
+            nextStep = target + 1;
+            algorithm.discardStepsBefore(target - SCCAlgorithm.LOOKAHEAD); // Окно назад для ручных шагов
+        }
+        if (complete && nextStep >= total) { // Показан последний шаг
+            timer.stop();
+            algorithm.setExecutionPosition(0); // Сбрасываем позицию выполнения
+            visualizer.getControlPanel().setRunning(false);
+            visualizer.getControlPanel().updateStepInfo(total, total); // Итоговое число шагов известно
+            visualizer.getGraphPanel().repaint(); // Раскраска по состоянию на последнем шаге
+        }
+    }
+
+    // Описания шагов from..to в лог; при большом числе шагов за кадр выводятся только последние
+    private void logSteps(SCCAlgorithm algorithm, int from, int to) {
+        LogPanel log = visualizer.getLogPanel();
+        int first = Math.max(from, to - MAX_LOGGED_STEPS + 1);
+        if (first > from) log.append("... пропущено шагов: " + (first - from) + "\n");
+        for (int step = first; step <= to; step++) {
+            log.append(algorithm.describeStep(step) + "\n"); // Добавляем шаг в лог
+        }
+    }
+}
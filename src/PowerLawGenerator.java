@@ -0,0 +1,76 @@
+import java.util.SplittableRandom;
+
+// Граф со степенным распределением степеней (модель Чунга-Лу).
+// Вершине i приписывается вес (i + 1)^(-1 / (gamma - 1)), концы ребер выбираются пропорционально весам,
+// так что ожидаемые степени убывают по степенному закону с показателем gamma.
+// Номера вершин перемешиваются, чтобы крупные вершины не шли подряд с нуля
+public class PowerLawGenerator implements GraphGenerator {
+
+    @Override
+    public String getName() {
+        return "Степенной закон (Чунг-Лу)";
+    }
+
+    @Override
+    public String[] getParameterNames() {
+        return new String[]{"Средняя степень", "Показатель gamma"};
+    }
+
+    @Override
+    public double[] getDefaultParameters() {
+        return new double[]{3, 2.5};
+    }
+
+    @Override
+    public CSRGraph generate(int vertexCount, double[] parameters, long seed) {
+        String[] names = getParameterNames();
+        double degree = EdgeSampler.check(parameters[0], 0, EdgeSampler.MAX_DEGREE, names[0]);
+        double gamma = EdgeSampler.check(parameters[1], 1.01, 10, names[1]);
+        if (vertexCount == 0) return CSRGraph.empty();
+
+        // Таблица псевдонимов Уолкера: выбор вершины пропорционально весу за O(1) -
+        // равномерный выбор ячейки и одно сравнение с ее порогом
+        double exponent = -1 / (gamma - 1);
+        double[] weight = new double[vertexCount];
+        double sum = 0;
+        for (int i = 0; i < vertexCount; i++) {
+            weight[i] = Math.pow(i + 1, exponent);
+            sum += weight[i];
+        }
+        double[] threshold = new double[vertexCount]; // Вероятность оставить ячейку за ее вершиной
+        int[] alias = new int[vertexCount]; // Вершина-псевдоним ячейки
+        int[] small = new int[vertexCount];
+        int[] large = new int[vertexCount];
+        int smallCount = 0, largeCount = 0;
+        for (int i = 0; i < vertexCount; i++) {
+            threshold[i] = weight[i] * vertexCount / sum;
+            if (threshold[i] < 1) small[smallCount++] = i; else large[largeCount++] = i;
+        }
+        while (smallCount > 0 && largeCount > 0) {
+            int s = small[--smallCount];
+            int l = large[largeCount - 1];
+            alias[s] = l; // Недостаток ячейки s добирается вершиной l
+            threshold[l] -= 1 - threshold[s];
+            if (threshold[l] < 1) {
+                largeCount--;
+                small[smallCount++] = l;
+            }
+        }
+        while (largeCount > 0) threshold[large[--largeCount]] = 1; // Остатки из-за округления
+        while (smallCount > 0) threshold[small[--smallCount]] = 1;
+
+        int[] ids = EdgeSampler.permutation(vertexCount, new SplittableRandom(seed ^ 0x9E3779B97F4A7C15L));
+        long edgeCount = Math.round(degree * vertexCount);
+        return EdgeSampler.sample(vertexCount, edgeCount, seed, random -> {
+            int from = ids[pick(threshold, alias, random)];
+            int to = ids[pick(threshold, alias, random)];
+            return EdgeSampler.edge(from, to);
+        }, new long[0]);
+    }
+
+    // Выбор вершины по таблице псевдонимов
+    private static int pick(double[] threshold, int[] alias, SplittableRandom random) {
+        int cell = random.nextInt(threshold.length);
+        return random.nextDouble() < threshold[cell] ? cell : alias[cell];
+    }
+}
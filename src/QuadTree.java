@@ -0,0 +1,201 @@
+import java.util.Arrays;
+
+// Дерево квадрантов над набором точек с весами для выборки видимой области.
+// Точки хранятся в одном массиве, переставленном так, что точки каждого узла идут подряд;
+// для узла запоминаются плотные границы его точек, суммарный вес и взвешенный центр.
+// Запрос с размером ячейки отдает мелкие (на экране) узлы одним кластером, поэтому число
+// отданных элементов ограничено площадью области, а не числом точек.
+// Тот же принцип дает приближение Барнса-Хата: далекие узлы заменяются их центром и весом
+final class QuadTree {
+    private static final int LEAF_CAPACITY = 16; // Наибольшее число точек в листе
+    private static final int MAX_DEPTH = 32; // Ограничение глубины (совпадающие точки)
+
+    // Получатель результатов запроса
+    interface Visitor {
+        // Отдельная точка с номером id
+        void point(int id);
+
+        // Группа из count точек с суммарным весом weight и центром (x, y)
+        void cluster(double x, double y, int count, long weight);
+    }
+
+    private final double[] xs; // Координаты точек
+    private final double[] ys;
+    private final int[] weights; // Веса точек (null - все веса равны 1)
+    private final int[] items; // Номера точек, сгруппированные по узлам
+    private int nodeCount;
+    private int[] start = new int[16]; // Диапазон точек узла в items
+    private int[] end = new int[16];
+    private int[] firstChild = new int[16]; // Первый из потомков узла (-1 - лист), потомки идут подряд
+    private int[] childCount = new int[16];
+    private double[] minX = new double[16]; // Плотные границы точек узла
+    private double[] minY = new double[16];
+    private double[] maxX = new double[16];
+    private double[] maxY = new double[16];
+    private double[] centerX = new double[16]; // Взвешенный центр точек узла
+    private double[] centerY = new double[16];
+    private long[] weight = new long[16]; // Суммарный вес точек узла
+
+    // Построение дерева по точкам (xs[i], ys[i]) с весами weights (null - единичные веса)
+    QuadTree(double[] xs, double[] ys, int[] weights) {
+        this.xs = xs;
+        this.ys = ys;
+        this.weights = weights;
+        this.items = new int[xs.length];
+        for (int i = 0; i < items.length; i++) items[i] = i;
+        if (items.length > 0) build(reserve(1), 0, items.length, 0);
+    }
+
+    // Заполнение узла node над items[from, to) и построение его потомков
+    private void build(int node, int from, int to, int depth) {
+        fill(node, from, to);
+        if (to - from <= LEAF_CAPACITY || depth >= MAX_DEPTH
+                || (maxX[node] == minX[node] && maxY[node] == minY[node])) {
+            return; // Лист
+        }
+        double midX = (minX[node] + maxX[node]) / 2;
+        double midY = (minY[node] + maxY[node]) / 2;
+        int splitX = partition(from, to, xs, midX); // Левая и правая половины
+        int[] bounds = {from, partition(from, splitX, ys, midY), splitX, partition(splitX, to, ys, midY), to};
+        int count = 0;
+        for (int q = 0; q < 4; q++) {
+            if (bounds[q] < bounds[q + 1]) count++; // Непустые квадранты
+        }
+        int first = reserve(count); // Потомки занимают подряд идущие номера
+        firstChild[node] = first;
+        childCount[node] = count;
+        for (int q = 0, k = 0; q < 4; q++) {
+            if (bounds[q] < bounds[q + 1]) build(first + k++, bounds[q], bounds[q + 1], depth + 1);
+        }
+    }
+
+    // Перестановка items[from, to) так, что сначала идут точки с coordinate < pivot, возвращает границу
+    private int partition(int from, int to, double[] coordinate, double pivot) {
+        int i = from;
+        int j = to - 1;
+        while (i <= j) {
+            if (coordinate[items[i]] < pivot) {
+                i++;
+            } else {
+                int t = items[i];
+                items[i] = items[j];
+                items[j--] = t;
+            }
+        }
+        return i;
+    }
+
+    // Выделение count подряд идущих узлов, возвращает номер первого
+    private int reserve(int count) {
+        while (nodeCount + count > start.length) grow();
+        int first = nodeCount;
+        nodeCount += count;
+        return first;
+    }
+
+    // Заполнение узла node над items[from, to): границы, вес и центр его точек
+    private void fill(int node, int from, int to) {
+        start[node] = from;
+        end[node] = to;
+        firstChild[node] = -1;
+        childCount[node] = 0;
+        double x0 = Double.POSITIVE_INFINITY, y0 = Double.POSITIVE_INFINITY;
+        double x1 = Double.NEGATIVE_INFINITY, y1 = Double.NEGATIVE_INFINITY;
+        double sx = 0, sy = 0;
+        long total = 0;
+        for (int i = from; i < to; i++) {
+            int id = items[i];
+            int w = weights == null ? 1 : weights[id];
+            x0 = Math.min(x0, xs[id]);
+            y0 = Math.min(y0, ys[id]);
+            x1 = Math.max(x1, xs[id]);
+            y1 = Math.max(y1, ys[id]);
+            sx += xs[id] * w;
+            sy += ys[id] * w;
+            total += w;
+        }
+        minX[node] = x0;
+        minY[node] = y0;
+        maxX[node] = x1;
+        maxY[node] = y1;
+        weight[node] = total;
+        centerX[node] = total > 0 ? sx / total : (x0 + x1) / 2;
+        centerY[node] = total > 0 ? sy / total : (y0 + y1) / 2;
+    }
+
+    private void grow() {
+        int capacity = start.length * 2;
+        start = Arrays.copyOf(start, capacity);
+        end = Arrays.copyOf(end, capacity);
+        firstChild = Arrays.copyOf(firstChild, capacity);
+        childCount = Arrays.copyOf(childCount, capacity);
+        minX = Arrays.copyOf(minX, capacity);
+        minY = Arrays.copyOf(minY, capacity);
+        maxX = Arrays.copyOf(maxX, capacity);
+        maxY = Arrays.copyOf(maxY, capacity);
+        centerX = Arrays.copyOf(centerX, capacity);
+        centerY = Arrays.copyOf(centerY, capacity);
+        weight = Arrays.copyOf(weight, capacity);
+    }
+
+    // Обход точек в прямоугольнике [x0, x1] x [y0, y1]. Узлы, все точки которых умещаются в квадрат
+    // со стороной cellSize, отдаются одним кластером (cellSize = 0 - только отдельные точки)
+    void query(double x0, double y0, double x1, double y1, double cellSize, Visitor visitor) {
+        if (nodeCount == 0) return;
+        int[] stack = new int[64];
+        int top = 0;
+        stack[top++] = 0;
+        while (top > 0) {
+            int node = stack[--top];
+            if (maxX[node] < x0 || minX[node] > x1 || maxY[node] < y0 || minY[node] > y1) continue; // Вне области
+            int count = end[node] - start[node];
+            if (count > 1 && maxX[node] - minX[node] <= cellSize && maxY[node] - minY[node] <= cellSize) {
+                visitor.cluster(centerX[node], centerY[node], count, weight[node]); // Узел мельче ячейки
+            } else if (firstChild[node] < 0) { // Лист: проверяем точки по отдельности
+                for (int i = start[node]; i < end[node]; i++) {
+                    int id = items[i];
+                    if (xs[id] >= x0 && xs[id] <= x1 && ys[id] >= y0 && ys[id] <= y1) visitor.point(id);
+                }
+            } else {
+                if (top + 4 > stack.length) stack = Arrays.copyOf(stack, stack.length * 2);
+                for (int k = 0; k < childCount[node]; k++) stack[top++] = firstChild[node] + k;
+            }
+        }
+    }
+
+    // Обход для приближения Барнса-Хата из точки (x, y): узел, размер которого меньше theta * расстояние
+    // до его центра, отдается одним кластером, остальные раскрываются до отдельных точек.
+    // stack - рабочий массив обхода (может быть заменен большим), возвращается для повторного использования
+    int[] approximate(double x, double y, double theta, Visitor visitor, int[] stack) {
+        if (nodeCount == 0) return stack;
+        int top = 0;
+        stack[top++] = 0;
+        double theta2 = theta * theta;
+        while (top > 0) {
+            int node = stack[--top];
+            double size = Math.max(maxX[node] - minX[node], maxY[node] - minY[node]);
+            double dx = centerX[node] - x;
+            double dy = centerY[node] - y;
+            int count = end[node] - start[node];
+            if (count > 1 && size * size < theta2 * (dx * dx + dy * dy)) {
+                visitor.cluster(centerX[node], centerY[node], count, weight[node]); // Узел далеко
+            } else if (firstChild[node] < 0) {
+                for (int i = start[node]; i < end[node]; i++) visitor.point(items[i]);
+            } else {
+                if (top + 4 > stack.length) stack = Arrays.copyOf(stack, stack.length * 2);
+                for (int k = 0; k < childCount[node]; k++) stack[top++] = firstChild[node] + k;
+            }
+        }
+        return stack;
+    }
+
+    // Точка с номером index в порядке обхода дерева: соседние по порядку точки лежат рядом
+    int item(int index) {
+        return items[index];
+    }
+
+    // Вес точки id
+    int weightOf(int id) {
+        return weights == null ? 1 : weights[id];
+    }
+}
@@ -0,0 +1,57 @@
+// Генератор R-MAT (рекурсивная матрица, частный случай графов Кронекера).
+// Матрица смежности размером 2^k x 2^k рекурсивно делится на четверти, и ребро спускается в четверть
+// с вероятностями a, b, c, d = 1 - a - b - c. При a > d получаются степени с тяжелым хвостом
+// и сообщества, как в реальных сетях. Ребра за пределами n вершин отбрасываются
+public class RMatGenerator implements GraphGenerator {
+
+    @Override
+    public String getName() {
+        return "R-MAT (Кронекер)";
+    }
+
+    @Override
+    public String[] getParameterNames() {
+        return new String[]{"Средняя степень", "a", "b", "c"};
+    }
+
+    @Override
+    public double[] getDefaultParameters() {
+        return new double[]{4, 0.57, 0.19, 0.19};
+    }
+
+    @Override
+    public CSRGraph generate(int vertexCount, double[] parameters, long seed) {
+        String[] names = getParameterNames();
+        double degree = EdgeSampler.check(parameters[0], 0, EdgeSampler.MAX_DEGREE, names[0]);
+        double a = EdgeSampler.check(parameters[1], 0, 1, names[1]);
+        double b = EdgeSampler.check(parameters[2], 0, 1, names[2]);
+        double c = EdgeSampler.check(parameters[3], 0, 1, names[3]);
+        if (a + b + c > 1) throw new IllegalArgumentException("Сумма a + b + c не должна превышать 1");
+        // Четверть выбирается по 16 случайным битам через таблицу: одного nextLong хватает на четыре уровня,
+        // и спуск обходится без ветвлений (вероятности округляются до 1/65536)
+        byte[] quadrant = new byte[1 << 16];
+        for (int i = 0; i < quadrant.length; i++) {
+            double r = (i + 0.5) / quadrant.length;
+            quadrant[i] = (byte) (r < a ? 0 : r < a + b ? 1 : r < a + b + c ? 2 : 3); // Биты: строка, столбец
+        }
+        int levels = vertexCount > 1 ? 32 - Integer.numberOfLeadingZeros(vertexCount - 1) : 0; // 2^levels >= n
+        long edgeCount = Math.round(degree * vertexCount);
+        return EdgeSampler.sample(vertexCount, edgeCount, seed, random -> {
+            int from = 0;
+            int to = 0;
+            long bits = 0;
+            for (int level = 0; level < levels; level++) {
+                if ((level & 3) == 0) {
+                    int rest = levels - level; // Оставшиеся уровни: самая левая вершина поддиапазона - from << rest
+                    if ((long) from << rest >= vertexCount || (long) to << rest >= vertexCount) return -1; // Ребро уже вне графа
+                    bits = random.nextLong();
+                }
+                int q = quadrant[(int) bits & 0xFFFF];
+                bits >>>= 16;
+                from = from << 1 | q >> 1;
+                to = to << 1 | q & 1;
+            }
+            return from < vertexCount && to < vertexCount ? EdgeSampler.edge(from, to) : -1;
+        }, new long[0]);
+    }
+}
@@ -1,16 +1,25 @@
+import java.io.IOException;
+import java.io.ObjectOutputStream;
 import java.io.Serializable;
 import java.util.*;
 
-// Класс, реализующий алгоритм поиска компонент сильной связности (Косарайю)
+// Класс, хранящий граф и состояние поиска компонент сильной связности для визуализации.
+// Сам поиск выполняет выбранная реализация SCCEngine (по умолчанию Косарайю)
 public class SCCAlgorithm implements Serializable { // Реализуем Serializable для возможности экспорта/импорта графа
-    private List<List<Integer>> graph; // Исходный граф в виде списка смежности
-    private List<List<Integer>> reversedGraph; // Транспонированный граф
-    private List<String> steps; // Список шагов алгоритма для визуализации
-    private List<List<Integer>> sccs; // Найденные компоненты сильной связности
-    private boolean[] visited; // Массив посещенных вершин
-    private Stack<Integer> stack; // Стек для порядка обработки вершин
+    private CSRGraph graph; // Исходный граф в формате CSR
+    private StepTrace trace; // Журнал шагов алгоритма для визуализации
+    private SCCResult result; // Результат последнего запуска в компактном виде
+    private SCCEngine engine = new KosarajuEngine(); // Алгоритм поиска компонент
     private int currentStep; // Текущий шаг визуализации
     private int executionPosition; // Текущая позиция выполнения алгоритма
+    private transient IncrementalSCC incremental; // Инкрементальное сопровождение компонент (создается по запросу)
+    private transient TraceIndex traceIndex; // Индекс журнала для перехода к произвольному шагу (строится по запросу)
+    private transient SCCExecution execution; // Незавершенное пошаговое выполнение (null - нет)
+
+    // Графы, журнал которых (не больше 4 событий на вершину) длиннее, выполняются пошагово с окном журнала
+    public static final int FULL_TRACE_LIMIT = 1 << 22;
+    public static final int LOOKAHEAD = 1 << 16; // Событий, вычисляемых впрок при пошаговом выполнении
+    private static final int ADVANCE_BUDGET = 1 << 14; // Шагов алгоритма между проверками срока
 
     // Конструктор класса
     public SCCAlgorithm() {
@@ -19,143 +28,313 @@ public class SCCAlgorithm implements Serializable { // Реализуем Serial
 
     // Сброс состояния алгоритма
     public void reset() {
-        graph = new ArrayList<>(); // Очищаем граф
-        reversedGraph = new ArrayList<>(); // Очищаем транспонированный граф
-        steps = new ArrayList<>(); // Очищаем историю шагов
-        sccs = new ArrayList<>(); // Очищаем результаты
-        visited = new boolean[0]; // Сбрасываем массив посещений
-        stack = new Stack<>(); // Очищаем стек
+        graph = CSRGraph.empty(); // Очищаем граф
+        dropIncremental();
+        trace = new StepTrace(); // Очищаем историю шагов
+        execution = null;
+        result = new SCCResult(new int[0], 0); // Очищаем номера компонент
         currentStep = 0; // Сбрасываем счетчик шагов
         executionPosition = 0; // Сбрасываем позицию выполнения
     }
 
-    // Генерация случайного графа, vertexCount количество вершин в графе
+    // Генерация случайного графа исходной моделью со случайным зерном, vertexCount количество вершин в графе
     public void generateRandomGraph(int vertexCount) {
-        graph = new ArrayList<>(); // Создаем новый граф
-        Random random = new Random(); // Генератор случайных чисел
-
-        // Создаем вершины графа
-        for (int i = 0; i < vertexCount; i++) {
-            graph.add(new ArrayList<>()); // Добавляем пустой список смежности
-
-            // Генерируем случайное количество ребер (не более половины вершин + 1)
-            int edgesCount = random.nextInt(vertexCount / 2 + 1);
-
-            // Добавляем случайные ребра
-            for (int j = 0; j < edgesCount; j++) {
-                int to = random.nextInt(vertexCount); // Случайная вершина назначения
-                // Проверяем, чтобы не было петли и дубликатов ребер
-                if (to != i && !graph.get(i).contains(to)) {
-                    graph.get(i).add(to); // Добавляем ребро
-                }
-            }
-        }
+        generateRandomGraph(vertexCount, new SplittableRandom().nextLong());
+    }
+
+    // Генерация случайного графа исходной моделью (не более половины вершин попыток провести ребро из каждой вершины,
+    // без петель и повторов), seed зерно для воспроизводимости
+    public void generateRandomGraph(int vertexCount, long seed) {
+        UniformGraphGenerator generator = new UniformGraphGenerator();
+        generateGraph(generator, vertexCount, generator.getDefaultParameters(), seed);
+    }
+
+    // Генерация графа выбранным генератором, parameters параметры генератора, seed зерно
+    public void generateGraph(GraphGenerator generator, int vertexCount, double[] parameters, long seed) {
+        graph = generator.generate(vertexCount, parameters, seed); // Строим граф сразу в формате CSR
+        dropIncremental();
+        dropExecution();
     }
 
-    // Основной метод поиска компонент сильной связности, Поддерживает продолжение выполнения после остановки
+    // Основной метод поиска компонент сильной связности выбранным алгоритмом с записью шагов для визуализации.
+    // Результат и журнал для графа с тем же содержимым берутся из SCCCache без повторного запуска
     public void findSCCs() {
-        // Если выполнение только начинается - инициализируем данные
-        if (executionPosition == 0) {
-            steps.clear(); // Очищаем предыдущие шаги
-            sccs.clear(); // Очищаем предыдущие результаты
-            int V = graph.size(); // Количество вершин
-            visited = new boolean[V]; // Массив посещений
-            stack = new Stack<>(); // Инициализируем стек
-            steps.add("Начало первого прохода DFS"); // Добавляем первый шаг
+        publish(prepareSCCs().run());
+    }
+
+    // Поиск компонент, подготовленный для фонового потока: граф и алгоритм фиксируются при создании,
+    // журнал, результат и индекс журнала вычисляются в собственных полях, а состояние визуализации
+    // меняется только при публикации (publish) в потоке, владеющем алгоритмом
+    public static final class Computation {
+        private final CSRGraph graph;
+        private final SCCEngine engine;
+        private StepTrace trace;
+        private SCCResult result;
+        private TraceIndex index; // null - не построен
+
+        private Computation(CSRGraph graph, SCCEngine engine) {
+            this.graph = graph;
+            this.engine = engine;
+        }
+
+        // Поиск компонент (результат и журнал для графа с тем же содержимым берутся из SCCCache)
+        public Computation run() {
+            SCCCache cache = SCCCache.getShared();
+            SCCCache.Entry cached = cache.get(graph, engine, true);
+            if (cached != null) {
+                trace = cached.getTrace();
+                result = cached.getResult();
+            } else {
+                trace = new StepTrace();
+                result = engine.findSCCs(graph, trace); // Выполняем алгоритм
+                cache.put(graph, engine, result, trace); // Журнал разделяется с кэшем и больше не изменяется
+            }
+            return this;
         }
 
-        // Выполняем алгоритм по этапам
-        switch (executionPosition) {
-            case 0: // Первый проход DFS (заполнение стека)
-                for (int i = 0; i < graph.size(); i++) {
-                    if (!visited[i]) { // Если вершина не посещена
-                        dfs(i); // Выполняем поиск в глубину
-                    }
-                }
-                executionPosition++; // Переходим к следующему этапу
-                // Намеренно отсутствует break для перехода к следующему case
-
-            case 1: // Построение обратного графа
-                steps.add("Построение обращенного графа"); // Логируем шаг
-                reversedGraph = new ArrayList<>(graph.size()); // Инициализируем обратный граф
-                // Заполняем пустыми списками
-                for (int i = 0; i < graph.size(); i++) {
-                    reversedGraph.add(new ArrayList<>()); // Добавляем пустой список для каждой вершины
-                }
-
-                // Транспонируем граф (разворачиваем ребра)
-                for (int i = 0; i < graph.size(); i++) {
-                    for (int j : graph.get(i)) {
-                        reversedGraph.get(j).add(i); // Добавляем обратное ребро
-                    }
-                }
-                executionPosition++; // Переходим к следующему этапу
-                // Намеренно отсутствует break для перехода к следующему case
-
-            case 2: // Второй проход DFS (поиск компонент)
-                steps.add("Начало второго прохода DFS"); // Логируем шаг
-                visited = new boolean[graph.size()]; // Сбрасываем массив посещений
-                // Обрабатываем вершины в порядке стека
-                while (!stack.isEmpty()) {
-                    int v = stack.pop(); // Берем вершину из стека
-                    if (!visited[v]) { // Если не посещена
-                        List<Integer> scc = new ArrayList<>(); // Создаем новую компоненту
-                        dfsReversed(v, scc); // Обходим в обратном графе
-                        sccs.add(scc); // Добавляем найденную компоненту
-                        steps.add("Найден компонент: " + scc); // Логируем
-                    }
-                }
-                executionPosition = 0; // Алгоритм завершен
-                break; // Завершаем выполнение метода
+        // Построение индекса журнала заранее, чтобы первый переход к шагу не ждал прохода по журналу
+        public Computation indexTrace() {
+            if (trace.size() > 0) index = new TraceIndex(trace, result);
+            return this;
         }
     }
 
-    // Поиск в глубину для первого прохода, v текущая вершина
-    private void dfs(int v) {
-        visited[v] = true; // Помечаем вершину как посещенную
-        steps.add("Посещаем вершину " + v); // Логируем шаг
+    // Поиск компонент текущего графа текущим алгоритмом для выполнения в другом потоке (Computation.run)
+    public Computation prepareSCCs() {
+        return new Computation(getCSRGraph(), engine);
+    }
+
+    // Установка результата поиска computation. Возвращает false (состояние не меняется), если с момента
+    // подготовки поиска граф или алгоритм заменены
+    public boolean publish(Computation computation) {
+        if (computation.graph != getCSRGraph() || computation.engine != engine) return false;
+        execution = null;
+        executionPosition = 0; // Алгоритм завершен
+        trace = computation.trace;
+        result = computation.result;
+        if (computation.index != null) traceIndex = computation.index;
+        return true;
+    }
 
-        // Обходим всех соседей
-        for (int i : graph.get(v)) {
-            if (!visited[i]) { // Если сосед не посещен
-                steps.add("Переход из " + v + " в " + i); // Логируем переход
-                dfs(i); // Рекурсивно обрабатываем соседа
+    // Поиск выполняется пошагово: события журнала производятся по запросу (produceSteps), а журнал
+    // хранит только окно вокруг текущего шага. Нужно для больших графов, у которых полный журнал
+    // долго вычислять и не помещается в память
+    public boolean isStepwise() {
+        return 4L * getCSRGraph().vertexCount() > FULL_TRACE_LIMIT;
+    }
+
+    // Начало пошагового поиска выбранным алгоритмом: события еще не вычислены, результат прежний
+    // до завершения поиска. Возвращает выполнение, у которого до первого produceSteps нужно вызвать
+    // prepare (в фоновом потоке). Алгоритм должен допускать приостановку (SCCEngine.isSuspendable)
+    public SCCExecution startSCCs() {
+        if (!engine.isSuspendable()) {
+            throw new IllegalStateException("Алгоритм " + engine.getName() + " не поддерживает пошаговое выполнение");
+        }
+        trace = new StepTrace(); // Память прежнего журнала освобождается
+        execution = engine.start(getCSRGraph());
+        currentStep = 0;
+        executionPosition = 0;
+        return execution;
+    }
+
+    // Продолжение пошагового поиска, пока в журнале нет шага step или не наступил срок deadline (System.nanoTime).
+    // Возвращает true, если поиск завершен (все шаги журнала вычислены)
+    public boolean produceSteps(int step, long deadline) {
+        while (execution != null && trace.size() <= step) {
+            if (!execution.advance(trace, ADVANCE_BUDGET)) {
+                result = execution.getResult();
+                execution = null;
+                SCCCache.getShared().put(getCSRGraph(), engine, result, null); // Журнал хранится лишь окном
+            } else if (System.nanoTime() - deadline >= 0) {
+                break;
             }
         }
+        return execution == null;
+    }
 
-        stack.push(v); // Добавляем вершину в стек после обработки всех соседей
-        steps.add("Добавляем вершину " + v + " в стек"); // Логируем шаг
+    // Все шаги журнала вычислены
+    public boolean isComplete() {
+        return execution == null;
     }
 
-    // Поиск в глубину для второго прохода (в обращенном графе), scc текущая компонента сильной связности
-    private void dfsReversed(int v, List<Integer> scc) {
-        visited[v] = true; // Помечаем вершину как посещенную
-        scc.add(v); // Добавляем вершину в компоненту
+    // Освобождение шагов журнала перед step (при пошаговом выполнении)
+    public void discardStepsBefore(int step) {
+        if (execution != null || trace.getStart() > 0) trace.discardBefore(step);
+    }
 
-        // Обходим соседей в обращенном графе
-        for (int i : reversedGraph.get(v)) {
-            if (!visited[i]) { // Если сосед не посещен
-                dfsReversed(i, scc); // Рекурсивно обрабатываем
-            }
+    // Поиск компонент с заданным уровнем записи шагов, level FULL - как findSCCs(), NONE - без журнала.
+    // В режиме NONE состояние визуализации (шаги, списки компонент, позиция выполнения) не затрагивается,
+    // алгоритм вызывается напрямую: граф не хэшируется и не сохраняется в SCCCache вместе с результатом
+    // (кэш для повторных запусков подключается явно: SCCCache.findSCCs)
+    public SCCResult findSCCs(TraceLevel level) {
+        if (level == TraceLevel.FULL) {
+            findSCCs();
+            return result;
         }
+        return engine.findSCCs(getCSRGraph(), null);
+    }
+
+    // Инкрементальное сопровождение компонент текущего графа: текущее разбиение доступно
+    // после каждой операции без полного пересчета
+    public IncrementalSCC getIncremental() {
+        if (incremental == null) {
+            incremental = new IncrementalSCC(getCSRGraph());
+        }
+        return incremental;
+    }
+
+    // Вставка ребра from -> to с инкрементальным пересчетом компонент (false - добавлена копия
+    // существующего ребра, см. IncrementalSCC.addEdge)
+    public boolean addEdge(int from, int to) {
+        return getIncremental().addEdge(from, to);
+    }
+
+    // Удаление одной копии ребра from -> to с инкрементальным пересчетом компонент
+    public boolean removeEdge(int from, int to) {
+        return getIncremental().removeEdge(from, to);
+    }
+
+    // Пакетное изменение ребер, removals и insertions - пары вершин (см. IncrementalSCC.applyBatch)
+    public void applyBatch(int[] removals, int[] insertions) {
+        getIncremental().applyBatch(removals, insertions);
+    }
+
+    // Сброс инкрементального состояния при полной замене графа
+    private void dropIncremental() {
+        incremental = null;
+    }
+
+    // Незавершенное пошаговое выполнение относится к прежнему графу: следующий запуск начнется с начала
+    private void dropExecution() {
+        if (execution == null) return;
+        execution = null;
+        executionPosition = 0;
+    }
+
+    // При сериализации сохраняется актуальный граф
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        getCSRGraph();
+        out.defaultWriteObject();
     }
 
     // Геттеры и сеттеры
     public List<List<Integer>> getGraph() {
-        return graph;
-    } // Возвращает граф
+        return getCSRGraph().asAdjacencyList();
+    } // Возвращает граф в виде списка смежности (представление только для чтения)
 
     public void setGraph(List<List<Integer>> graph) {
+        this.graph = CSRGraph.fromAdjacencyList(graph);
+        dropIncremental();
+        dropExecution();
+    } // Устанавливает граф из списка смежности
+
+    public CSRGraph getCSRGraph() {
+        if (incremental != null) { // CSR хранится в IncrementalSCC и пересобирается только после изменения ребер
+            graph = incremental.toGraph();
+        }
+        return graph;
+    } // Возвращает граф в формате CSR
+
+    public void setCSRGraph(CSRGraph graph) {
         this.graph = graph;
-    } // Устанавливает граф
+        dropIncremental();
+        dropExecution();
+    } // Устанавливает граф в формате CSR
 
     public List<String> getSteps() {
-        return steps;
-    } // Возвращает шаги
+        return new AbstractList<String>() {
+            @Override
+            public String get(int index) {
+                return describeStep(index);
+            }
+
+            @Override
+            public int size() {
+                return trace.size();
+            }
+        };
+    } // Возвращает шаги в виде текста (строки формируются по запросу)
+
+    public StepTrace getTrace() {
+        return trace;
+    } // Возвращает журнал шагов
+
+    // Индекс журнала последнего запуска для восстановления состояния на любом шаге (null - журнал пуст, неполон
+    // или не относится к текущему результату). Строится при первом обращении за один проход по журналу
+    public TraceIndex getTraceIndex() {
+        if (trace.size() == 0 || execution != null || trace.getStart() > 0) return null; // Журнал пуст или неполон
+        if (result.getVertexCount() != getCSRGraph().vertexCount()) return null;
+        TraceIndex index = traceIndex;
+        if (index == null || !index.matches(trace, result)) {
+            index = new TraceIndex(trace, result);
+            traceIndex = index;
+        }
+        return index;
+    }
+
+    // Текстовое описание состояния алгоритма после шага step: этап, посещенные вершины, стек и найденные компоненты
+    public String describeState(int step) {
+        TraceIndex index = getTraceIndex();
+        if (index == null) return "";
+        TraceIndex.State state = index.stateAt(step);
+        StringBuilder sb = new StringBuilder();
+        if (state.getPhase() == StepTrace.FIRST_PASS) sb.append("Первый проход, ");
+        else if (state.getPhase() == StepTrace.TRANSPOSE) sb.append("Обращение графа, ");
+        else if (state.getPhase() == StepTrace.SECOND_PASS) sb.append("Второй проход, ");
+        sb.append("посещено ").append(state.getVisitedCount())
+                .append(", в стеке ").append(state.getStackSize());
+        int[] top = index.stackTop(state, 5);
+        if (top.length > 0) {
+            sb.append(" (верх: ");
+            for (int i = 0; i < top.length; i++) sb.append(i > 0 ? ", " : "").append(top[i]);
+            sb.append(top.length < state.getStackSize() ? ", ...)" : ")");
+        }
+        sb.append(", компонент ").append(state.getComponentCount());
+        return sb.toString();
+    }
+
+    // Текстовое описание шага с номером index для вывода в лог
+    public String describeStep(int index) {
+        int first = trace.first(index);
+        switch (trace.type(index)) {
+            case PHASE:
+                if (first == StepTrace.FIRST_PASS) return "Начало первого прохода DFS";
+                if (first == StepTrace.TRANSPOSE) return "Построение обращенного графа";
+                return "Начало второго прохода DFS";
+            case VISIT:
+                return "Посещаем вершину " + first;
+            case TRAVERSE:
+                return "Переход из " + first + " в " + trace.second(index);
+            case PUSH:
+                return "Добавляем вершину " + first + " в стек";
+            default:
+                return "Найден компонент: " + (execution != null ? execution.getComponent(first) : getSCCs().get(first));
+        }
+    }
 
     public List<List<Integer>> getSCCs() {
-        return sccs;
-    } // Возвращает найденные компоненты
+        return result.getComponents();
+    } // Возвращает найденные компоненты (списки вершин в порядке их обнаружения, только для чтения)
+
+    public SCCResult getResult() {
+        return result;
+    } // Возвращает результат последнего полного запуска в компактном виде
+
+    public CSRGraph getCondensation() {
+        return result.getCondensation(getCSRGraph());
+    } // Возвращает граф конденсации последнего запуска (вершины - номера компонент)
+
+    public int[] getTopologicalOrder() {
+        return result.getTopologicalOrder(getCSRGraph());
+    } // Возвращает номера компонент в топологическом порядке графа конденсации
+
+    public SCCEngine getEngine() {
+        return engine;
+    } // Возвращает алгоритм поиска компонент
+
+    public void setEngine(SCCEngine engine) {
+        this.engine = engine;
+    } // Устанавливает алгоритм поиска компонент
 
     public int getCurrentStep() {
         return currentStep;
@@ -0,0 +1,318 @@
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintStream;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+// Пакетный поиск компонент без графического интерфейса (классы Swing не загружаются).
+// Запуск: java Main [--engine kosaraju] [--threads N] [--format csv|json] [--out results.csv] [--cache-mb N]
+//   файл|каталог|шаблон ...
+// Шаблоны - glob относительно своего начала без подстановочных знаков (graphs/*.graph, data/**/*.csr),
+// каталог означает все файлы графов (.graph, .csr) в нем и подкаталогах.
+// Файлы обрабатываются параллельно пулом из N потоков без записи шагов; в обработке одновременно
+// не больше WINDOW_PER_THREAD файлов на поток, поэтому память ограничена графами, которые читаются
+// и обрабатываются в данный момент. Строки результата выводятся по мере готовности в порядке файлов.
+// Кэш результатов (SCCCache) по умолчанию выключен: в пакете файлы обычно разные, а кэш удерживал бы
+// их графы и результаты; --cache-mb N включает кэш объемом N мегабайт для наборов с повторами
+public class SCCBatch {
+    private static final int WINDOW_PER_THREAD = 4; // Файлов в обработке на один поток
+
+    // Формат вывода результатов
+    enum Format { CSV, JSON }
+
+    private SCCEngine engine = new KosarajuEngine(); // Алгоритм поиска компонент
+    private int threads = Runtime.getRuntime().availableProcessors(); // Потоков обработки
+    private Format format = Format.CSV; // Формат вывода
+    private Path output; // Файл с результатами (null - стандартный вывод)
+    private SCCCache cache; // Кэш результатов (null - выключен)
+    private final List<String> patterns = new ArrayList<>(); // Файлы, каталоги и шаблоны
+    private boolean help; // Запрошена справка (--help, -h)
+
+    // Результат обработки одного файла
+    static final class Row {
+        final Path file; // Файл графа
+        int vertices; // Число вершин
+        long edges; // Число ребер
+        int components; // Число компонент
+        int largest; // Размер наибольшей компоненты
+        double readMillis; // Время чтения графа
+        double sccMillis; // Время поиска компонент
+        String error; // Ошибка (null - файл обработан)
+
+        Row(Path file) {
+            this.file = file;
+        }
+    }
+
+    public static void main(String[] args) {
+        SCCMetrics.init(); // До замеров времени файлов
+        SCCBatch batch = new SCCBatch();
+        try {
+            batch.parse(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            printUsage(System.err);
+            System.exit(2);
+        }
+        if (batch.help) {
+            printUsage(System.out);
+            return;
+        }
+        try {
+            System.exit(batch.run() ? 0 : 1);
+        } catch (IOException e) {
+            System.err.println("Ошибка: " + e.getMessage());
+            System.exit(2);
+        }
+    }
+
+    private static void printUsage(PrintStream out) {
+        out.println("Использование: java Main [--engine kosaraju|tarjan|pearce|pathbased|forwardbackward]"
+                + " [--threads N] [--format csv|json] [--out файл] [--cache-mb N] файл|каталог|шаблон ...");
+    }
+
+    // Разбор параметров командной строки
+    private void parse(String[] args) {
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("--help") || args[i].equals("-h")) { // Остальные параметры не проверяются
+                help = true;
+                return;
+            }
+            if (!args[i].startsWith("--")) { // Файл, каталог или шаблон
+                patterns.add(args[i]);
+                continue;
+            }
+            String option = args[i++];
+            String value = i < args.length ? args[i] : null; // Проверяется только у известных параметров (value)
+            switch (option) {
+                case "--engine":
+                    engine = SCCEngine.find(value(option, value));
+                    if (engine == null) throw new IllegalArgumentException("Неизвестный алгоритм: " + value);
+                    break;
+                case "--threads":
+                    threads = Integer.parseInt(value(option, value));
+                    if (threads <= 0) throw new IllegalArgumentException("Число потоков должно быть положительным");
+                    break;
+                case "--format":
+                    try {
+                        format = Format.valueOf(value(option, value).toUpperCase());
+                    } catch (IllegalArgumentException e) {
+                        throw new IllegalArgumentException("Неизвестный формат: " + value);
+                    }
+                    break;
+                case "--out":
+                    output = Paths.get(value(option, value));
+                    break;
+                case "--cache-mb":
+                    long megabytes = Long.parseLong(value(option, value));
+                    if (megabytes < 0) throw new IllegalArgumentException("Объем кэша не может быть отрицательным");
+                    cache = megabytes > 0 ? new SCCCache(megabytes << 20) : null;
+                    break;
+                default:
+                    throw new IllegalArgumentException("Неизвестный параметр: " + option);
+            }
+        }
+        if (patterns.isEmpty()) throw new IllegalArgumentException("Не указаны файлы графов");
+    }
+
+    // Значение параметра option (null - параметр последний в строке)
+    private static String value(String option, String value) {
+        if (value == null) throw new IllegalArgumentException("Нет значения для " + option);
+        return value;
+    }
+
+    // Обработка всех файлов, возвращает false, если файлов нет или хотя бы один файл не обработан
+    private boolean run() throws IOException {
+        List<Path> files = new ArrayList<>();
+        for (String pattern : patterns) {
+            List<Path> matched = expand(pattern);
+            if (matched.isEmpty()) System.err.println("Нет файлов по шаблону " + pattern);
+            files.addAll(matched);
+        }
+        ExecutorService pool = Executors.newFixedThreadPool(threads, new ThreadFactory() {
+            private int count; // Созданных потоков
+
+            @Override
+            public synchronized Thread newThread(Runnable task) {
+                Thread thread = new Thread(task, "scc-batch-" + ++count);
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+        long start = System.nanoTime();
+        int failed = 0;
+        try (PrintWriter out = output != null
+                ? new PrintWriter(Files.newBufferedWriter(output, StandardCharsets.UTF_8))
+                : new PrintWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8))) {
+            writeHeader(out);
+            ArrayDeque<Future<Row>> window = new ArrayDeque<>(); // Файлы в обработке в порядке вывода
+            int written = 0;
+            for (int i = 0; i <= files.size(); i++) {
+                // Перед добавлением нового файла (и в конце) выводим готовые строки из начала окна
+                while (!window.isEmpty() && (i == files.size() || window.size() >= threads * WINDOW_PER_THREAD
+                        || window.peekFirst().isDone())) {
+                    Row row = await(window.pollFirst());
+                    if (row.error != null) {
+                        failed++;
+                        System.err.println(row.file + ": " + row.error);
+                    }
+                    writeRow(out, row, written++ == 0);
+                }
+                if (i < files.size()) {
+                    Path file = files.get(i);
+                    window.addLast(pool.submit(() -> process(file)));
+                }
+            }
+            writeFooter(out, written > 0);
+        } finally {
+            pool.shutdownNow();
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.err.printf(Locale.ROOT, "Обработано файлов: %d (ошибок: %d) за %.3f с, %.1f файлов/с, потоков: %d%n",
+                files.size(), failed, seconds, files.size() / Math.max(seconds, 1e-9), threads);
+        return failed == 0 && !files.isEmpty();
+    }
+
+    // Результат задачи (ошибки обработки уже записаны в строку)
+    private static Row await(Future<Row> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Обработка прервана", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    // Чтение графа и поиск компонент без журнала шагов (через кэш результатов, если он включен)
+    private Row process(Path file) {
+        Row row = new Row(file);
+        try {
+            long start = System.nanoTime();
+            CSRGraph graph = file.getFileName().toString().toLowerCase().endsWith("." + MappedCSRGraph.EXTENSION)
+                    ? MappedCSRGraph.open(file) : GraphFormat.read(file);
+            long read = System.nanoTime();
+            SCCResult result = cache != null ? cache.findSCCs(graph, engine) : engine.findSCCs(graph, null);
+            long found = System.nanoTime();
+            row.vertices = graph.vertexCount();
+            row.edges = graph.edgeCount();
+            row.components = result.getComponentCount();
+            for (int size : result.getComponentSizes()) row.largest = Math.max(row.largest, size);
+            row.readMillis = (read - start) / 1e6;
+            row.sccMillis = (found - read) / 1e6;
+        } catch (IOException | RuntimeException | OutOfMemoryError e) {
+            row.error = e.getMessage() != null ? e.getMessage() : e.toString();
+        }
+        return row;
+    }
+
+    // Файлы по аргументу pattern: файл - он сам, каталог - все файлы графов в нем и подкаталогах,
+    // шаблон glob - совпадающие файлы в порядке имен
+    static List<Path> expand(String pattern) throws IOException {
+        int wildcard = -1; // Первый подстановочный знак
+        for (int i = 0; i < pattern.length() && wildcard < 0; i++) {
+            if ("*?[{".indexOf(pattern.charAt(i)) >= 0) wildcard = i;
+        }
+        if (wildcard < 0) {
+            Path path = Paths.get(pattern);
+            if (!Files.isDirectory(path)) return Collections.singletonList(path); // Отсутствие файла - ошибка обработки
+            return walk(path, Integer.MAX_VALUE, file -> {
+                String name = file.getFileName().toString().toLowerCase();
+                return name.endsWith("." + GraphFormat.EXTENSION) || name.endsWith("." + MappedCSRGraph.EXTENSION);
+            });
+        }
+        int slash = Math.max(pattern.lastIndexOf('/', wildcard), pattern.lastIndexOf(FileSystems.getDefault().getSeparator(), wildcard));
+        Path base = Paths.get(slash < 0 ? "" : pattern.substring(0, slash + 1)); // Начало шаблона без подстановочных знаков
+        String relative = pattern.substring(slash + 1);
+        PathMatcher matcher = FileSystems.getDefault().getPathMatcher("glob:" + relative);
+        int depth = relative.contains("**") ? Integer.MAX_VALUE : relative.split("/").length; // Глубина обхода каталогов
+        return walk(base, depth, file -> matcher.matches(base.relativize(file)));
+    }
+
+    // Обычные файлы каталога directory до глубины depth, удовлетворяющие filter, в порядке имен
+    private static List<Path> walk(Path directory, int depth, Predicate<Path> filter) throws IOException {
+        Path root = directory.toString().isEmpty() ? Paths.get(".") : directory;
+        if (!Files.isDirectory(root)) return Collections.emptyList();
+        try (Stream<Path> files = Files.walk(root, depth)) {
+            return files.filter(Files::isRegularFile)
+                    .map(file -> root == directory ? file : root.relativize(file)) // Пути относительно текущего каталога без "./"
+                    .filter(filter)
+                    .sorted()
+                    .collect(Collectors.toList());
+        }
+    }
+
+    // Начало вывода
+    private void writeHeader(PrintWriter out) {
+        if (format == Format.CSV) {
+            out.println("file,vertices,edges,components,largestComponent,readMillis,sccMillis,error");
+        } else {
+            out.println("{");
+            out.println("  \"engine\": " + quote(engine.getName()) + ",");
+            out.println("  \"threads\": " + threads + ",");
+            out.println("  \"results\": [");
+        }
+        out.flush();
+    }
+
+    // Строка результата row (first - первая строка вывода)
+    private void writeRow(PrintWriter out, Row row, boolean first) {
+        String readMillis = String.format(Locale.ROOT, "%.3f", row.readMillis);
+        String sccMillis = String.format(Locale.ROOT, "%.3f", row.sccMillis);
+        if (format == Format.CSV) {
+            out.println(csv(row.file.toString()) + "," + row.vertices + "," + row.edges + "," + row.components + ","
+                    + row.largest + "," + readMillis + "," + sccMillis + "," + (row.error != null ? csv(row.error) : ""));
+        } else {
+            // Запятая ставится перед строкой: о последней строке становится известно только в конце
+            StringBuilder line = new StringBuilder(first ? "    {" : ",\n    {");
+            line.append("\"file\": ").append(quote(row.file.toString()));
+            if (row.error != null) {
+                line.append(", \"error\": ").append(quote(row.error));
+            } else {
+                line.append(", \"vertices\": ").append(row.vertices);
+                line.append(", \"edges\": ").append(row.edges);
+                line.append(", \"components\": ").append(row.components);
+                line.append(", \"largestComponent\": ").append(row.largest);
+                line.append(", \"readMillis\": ").append(readMillis);
+                line.append(", \"sccMillis\": ").append(sccMillis);
+            }
+            out.print(line.append('}'));
+        }
+        out.flush(); // Строки видны по мере готовности
+    }
+
+    // Конец вывода, rows - были ли строки результата
+    private void writeFooter(PrintWriter out, boolean rows) {
+        if (format == Format.JSON) {
+            if (rows) out.println();
+            out.println("  ]");
+            out.println("}");
+        }
+    }
+
+    // Значение CSV (в кавычках, если содержит разделитель, кавычку или перевод строки)
+    private static String csv(String value) {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return "\"" + value.replace("\"", "\"\"") + "\"";
+    }
+
+    // Строка в кавычках JSON
+    private static String quote(String value) {
+        StringBuilder result = new StringBuilder("\"");
+        for (char ch : value.toCharArray()) {
+            if (ch == '"' || ch == '\\') result.append('\\').append(ch);
+            else if (ch < 0x20) result.append(String.format("\\u%04x", (int) ch));
+            else result.append(ch);
+        }
+        return result.append('"').toString();
+    }
+}
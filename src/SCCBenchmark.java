@@ -0,0 +1,436 @@
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.lang.management.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.util.*;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+// Замеры производительности поиска компонент, транспонирования и генерации графов.
+// Запуск: java SCCBenchmark [--shapes sparse,dense,chain,tiny,giant] [--sizes 1000,10000,...]
+//   [--benchmarks findSCCs,transpose,transposeParallel,generate] [--engines all|kosaraju,tarjan,...]
+//   [--warmup 2] [--iterations 5] [--time 1000] [--out results.json]
+// Каждый замер - серия итераций фиксированной длительности после прогрева. Для каждого замера выводятся
+// пропускная способность (операций в секунду), выделенная память на операцию, число и время сборок мусора
+// и пиковое заполнение кучи. Результаты пишутся в JSON, чтобы сравнивать запуски между собой.
+// findSCCs вызывает алгоритм напрямую, минуя SCCCache, и перед каждой операцией сбрасывает кэш обращенного
+// графа, поэтому транспонирование входит в замер; для алгоритмов, которые транспонируют граф, отдельно
+// измеряется вариант с уже обращенным графом (transpose: cached)
+public class SCCBenchmark {
+    private static final long DENSE_EDGES = 1L << 25; // Бюджет ребер для плотных графов
+    private static final int LEGACY_GENERATOR_LIMIT = 1 << 14; // Исходная модель дает квадратичное число ребер
+
+    // Форма тестового графа
+    enum Shape {
+        SPARSE("sparse"), // Четыре случайных ребра из каждой вершины
+        DENSE("dense"), // Случайные ребра в пределах бюджета DENSE_EDGES (полный граф для малых размеров)
+        CHAIN("chain"), // Путь 0 -> 1 -> ... -> V-1: только одиночные компоненты и максимальная глубина DFS
+        TINY("tiny"), // Циклы из трех вершин, соединенные в цепочку: много маленьких компонент
+        GIANT("giant"); // Гамильтонов цикл и две случайные хорды из каждой вершины: одна компонента
+
+        final String key; // Имя формы в параметрах и отчете
+
+        Shape(String key) {
+            this.key = key;
+        }
+
+        // Степень вершины для графа из vertexCount вершин
+        int degree(int vertexCount) {
+            switch (this) {
+                case SPARSE: return Math.min(4, vertexCount - 1);
+                case DENSE: return (int) Math.min(vertexCount - 1, Math.max(8, DENSE_EDGES / vertexCount));
+                case GIANT: return Math.min(3, vertexCount);
+                default: return 1;
+            }
+        }
+
+        // Построение графа, seed зерно генератора (одинаковое зерно дает одинаковый граф)
+        CSRGraph generate(int vertexCount, long seed) {
+            SplittableRandom random = new SplittableRandom(seed);
+            int V = vertexCount;
+            if (this == CHAIN || this == TINY) {
+                CSRGraph.Builder builder = new CSRGraph.Builder(V);
+                for (int v = 0; v + 1 < V; v++) {
+                    if (this == TINY && v % 3 == 2) {
+                        builder.addEdge(v, v - 2); // Замыкаем тройку в цикл
+                    }
+                    builder.addEdge(v, v + 1); // Переход к следующей вершине (и к следующей тройке)
+                }
+                return builder.build();
+            }
+            int d = degree(V);
+            int[] offsets = new int[V + 1];
+            for (int v = 0; v < V; v++) {
+                offsets[v + 1] = offsets[v] + d;
+            }
+            int[] targets = new int[offsets[V]];
+            for (int v = 0; v < V; v++) {
+                int e = offsets[v];
+                if (this == GIANT) {
+                    targets[e++] = v + 1 < V ? v + 1 : 0; // Ребро цикла
+                }
+                while (e < offsets[v + 1]) {
+                    targets[e++] = random.nextInt(V);
+                }
+            }
+            return new CSRGraph(offsets, targets);
+        }
+
+        // Форма по имени из параметров
+        static Shape of(String key) {
+            for (Shape shape : values()) {
+                if (shape.key.equalsIgnoreCase(key)) return shape;
+            }
+            throw new IllegalArgumentException("Неизвестная форма графа: " + key);
+        }
+    }
+
+    // Результат одного замера
+    static class Measurement {
+        String benchmark; // Что измерялось
+        String engine; // Алгоритм поиска компонент (для findSCCs) или генератор (для generate)
+        Shape shape;
+        int vertices;
+        int edges;
+        boolean tracing; // Записывались ли шаги алгоритма
+        String transpose; // Для findSCCs: included - транспонирование в каждой операции, cached - граф уже обращен
+        double score; // Среднее число операций в секунду
+        double scoreError; // Стандартное отклонение по итерациям
+        double[] iterations; // Пропускная способность каждой итерации
+        long operations; // Число операций за все измерительные итерации
+        double allocatedBytesPerOp; // Выделено байт на операцию (все потоки)
+        long gcCount; // Сборок мусора за время измерения
+        long gcTimeMs; // Время сборок мусора
+        long peakHeapBytes; // Пиковое заполнение кучи за время замера
+        String skipped; // Причина пропуска замера (null - выполнен)
+    }
+
+    private final Set<Shape> shapes = EnumSet.allOf(Shape.class); // Формы графов
+    private int[] sizes = {1_000, 10_000, 100_000, 1_000_000, 10_000_000}; // Размеры графов
+    private final Set<String> benchmarks = new LinkedHashSet<>(Arrays.asList("findSCCs", "transpose", "transposeParallel", "generate"));
+    private final List<SCCEngine> engines = new ArrayList<>(Collections.singletonList(new KosarajuEngine()));
+    private int warmup = 2; // Прогревочных итераций
+    private int iterations = 5; // Измерительных итераций
+    private long iterationMillis = 1000; // Длительность итерации
+    private Path output = Paths.get("scc-benchmark.json"); // Файл с результатами
+    private long sink; // Накопитель результатов, чтобы JIT не выбросил вычисления
+
+    public static void main(String[] args) throws IOException {
+        SCCBenchmark benchmark = new SCCBenchmark();
+        benchmark.parse(args);
+        List<Measurement> results = benchmark.run();
+        benchmark.write(results);
+        System.out.println("Результаты записаны в " + benchmark.output.toAbsolutePath());
+    }
+
+    // Разбор параметров командной строки
+    private void parse(String[] args) {
+        for (int i = 0; i < args.length; i++) {
+            String value = i + 1 < args.length ? args[i + 1] : null;
+            if (value == null) throw new IllegalArgumentException("Нет значения для " + args[i]);
+            switch (args[i++]) {
+                case "--shapes":
+                    shapes.clear();
+                    for (String key : value.split(",")) shapes.add(Shape.of(key.trim()));
+                    break;
+                case "--sizes":
+                    sizes = Arrays.stream(value.split(",")).map(String::trim).mapToInt(Integer::parseInt).toArray();
+                    break;
+                case "--benchmarks":
+                    benchmarks.clear();
+                    benchmarks.addAll(Arrays.asList(value.split(",")));
+                    break;
+                case "--engines":
+                    engines.clear();
+                    List<String> keys = Arrays.asList(value.toLowerCase().split(","));
+                    for (SCCEngine engine : SCCEngine.available()) {
+                        // Алгоритм выбирается по названию или по имени класса без суффикса Engine (kosaraju, tarjan, ...)
+                        String key = engine.getClass().getSimpleName().replace("Engine", "").toLowerCase();
+                        if (value.equals("all") || keys.contains(key) || keys.contains(engine.getName().toLowerCase())) {
+                            engines.add(engine);
+                        }
+                    }
+                    if (engines.isEmpty()) throw new IllegalArgumentException("Неизвестный алгоритм: " + value);
+                    break;
+                case "--warmup":
+                    warmup = Integer.parseInt(value);
+                    break;
+                case "--iterations":
+                    iterations = Integer.parseInt(value);
+                    break;
+                case "--time":
+                    iterationMillis = Long.parseLong(value);
+                    break;
+                case "--out":
+                    output = Paths.get(value);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Неизвестный параметр: " + args[i - 1]);
+            }
+        }
+    }
+
+    // Выполнение всех замеров
+    private List<Measurement> run() {
+        List<Measurement> results = new ArrayList<>();
+        for (Shape shape : shapes) {
+            for (int size : sizes) {
+                long seed = 31L * size + shape.ordinal(); // Граф воспроизводим между запусками
+                long graphBytes = 4L * size * (shape.degree(size) + 1); // Байт на один граф CSR
+                CSRGraph graph = null;
+                if (graphBytes * 3 <= Runtime.getRuntime().maxMemory()) {
+                    graph = shape.generate(size, seed);
+                }
+                int first = results.size();
+                for (String name : benchmarks) {
+                    switch (name) {
+                        case "findSCCs":
+                            for (SCCEngine engine : engines) {
+                                results.add(measureFind(shape, size, graph, engine, false, false, graphBytes));
+                                if (usesTranspose(engine)) {
+                                    results.add(measureFind(shape, size, graph, engine, false, true, graphBytes));
+                                }
+                                results.add(measureFind(shape, size, graph, engine, true, false, graphBytes));
+                            }
+                            break;
+                        case "transpose":
+                            results.add(measure(name, shape, size, graph, graphBytes * 3,
+                                    g -> () -> g.transpose().edgeCount()));
+                            break;
+                        case "transposeParallel":
+                            int parallelism = Runtime.getRuntime().availableProcessors();
+                            results.add(measure(name, shape, size, graph, graphBytes * 3,
+                                    g -> () -> g.transposeParallel(parallelism).edgeCount()));
+                            break;
+                        case "generate":
+                            results.add(measure(name, shape, size, graph, graphBytes * 2,
+                                    g -> () -> shape.generate(size, seed).edgeCount()));
+                            if (shape == Shape.SPARSE) { // Генераторы приложения с параметрами по умолчанию
+                                for (GraphGenerator generator : GraphGenerator.available()) {
+                                    if (generator instanceof UniformGraphGenerator && size > LEGACY_GENERATOR_LIMIT) continue;
+                                    double[] parameters = generator.getDefaultParameters();
+                                    Measurement m = measure("generate", shape, size, graph, graphBytes * 4,
+                                            g -> () -> generator.generate(size, parameters, seed).edgeCount());
+                                    m.engine = generator.getName();
+                                    results.add(m);
+                                }
+                            }
+                            break;
+                        default:
+                            throw new IllegalArgumentException("Неизвестный замер: " + name);
+                    }
+                    for (int i = first; i < results.size(); i++) print(results.get(i));
+                    first = results.size();
+                }
+            }
+        }
+        return results;
+    }
+
+    // Алгоритмы, которые обращают граф (CSRGraph.transposed) и зависят от его кэша
+    private static boolean usesTranspose(SCCEngine engine) {
+        return engine instanceof KosarajuEngine || engine instanceof ForwardBackwardEngine;
+    }
+
+    // Замер поиска компонент, tracing - с записью шагов для визуализации, transposeCached - обращенный граф
+    // строится при прогреве и остается в кэше графа (иначе кэш сбрасывается перед каждой операцией).
+    // Алгоритм вызывается напрямую: через SCCAlgorithm повторные запуски брали бы результат из SCCCache
+    private Measurement measureFind(Shape shape, int size, CSRGraph graph, SCCEngine engine, boolean tracing,
+                                    boolean transposeCached, long graphBytes) {
+        StepTrace trace = tracing ? new StepTrace() : null;
+        // Граф, обращенный граф и рабочие массивы; с журналом добавляются записи шагов
+        // и списки вершин компонент (около 160 байт на вершину при одиночных компонентах)
+        long required = graphBytes * 4 + (tracing ? 160L * size : 0);
+        Measurement m = measure("findSCCs", shape, size, graph, required, g -> () -> {
+            if (!transposeCached) g.dropTransposed();
+            if (trace != null) trace.clear();
+            return engine.findSCCs(g, trace).getComponentCount();
+        });
+        if (graph != null) graph.dropTransposed(); // Обращенный граф не переходит в следующие замеры
+        m.engine = engine.getName();
+        m.tracing = tracing;
+        m.transpose = usesTranspose(engine) ? (transposeCached ? "cached" : "included") : null;
+        return m;
+    }
+
+    // Общий цикл замера: прогрев, затем итерации фиксированной длительности.
+    // required - оценка памяти, нужной операции вместе с графом (больше -Xmx - замер пропускается)
+    private Measurement measure(String name, Shape shape, int size, CSRGraph graph, long required,
+                                Function<CSRGraph, LongSupplier> setup) {
+        Measurement m = new Measurement();
+        m.benchmark = name;
+        m.shape = shape;
+        m.vertices = size;
+        if (graph == null || required > Runtime.getRuntime().maxMemory()) {
+            m.skipped = "недостаточно памяти (-Xmx " + Runtime.getRuntime().maxMemory() / (1 << 20) + " МБ)";
+            return m;
+        }
+        m.edges = graph.edgeCount();
+        LongSupplier operation = setup.apply(graph);
+
+        long allocatedBefore, gcCountBefore, gcTimeBefore;
+        try {
+            for (int i = 0; i < warmup; i++) {
+                iterate(operation);
+            }
+            System.gc();
+            resetPeakUsage();
+            allocatedBefore = allocatedBytes();
+            gcCountBefore = gcCount();
+            gcTimeBefore = gcTime();
+            m.iterations = new double[iterations];
+            for (int i = 0; i < iterations; i++) {
+                long start = System.nanoTime();
+                long ops = iterate(operation);
+                m.iterations[i] = ops * 1e9 / (System.nanoTime() - start);
+                m.operations += ops;
+            }
+        } catch (OutOfMemoryError e) { // Оценка памяти оказалась занижена - замер пропускается, остальные продолжаются
+            m.iterations = null;
+            m.skipped = "OutOfMemoryError (-Xmx " + Runtime.getRuntime().maxMemory() / (1 << 20) + " МБ)";
+            return m;
+        }
+        m.allocatedBytesPerOp = (double) (allocatedBytes() - allocatedBefore) / m.operations;
+        m.gcCount = gcCount() - gcCountBefore;
+        m.gcTimeMs = gcTime() - gcTimeBefore;
+        m.peakHeapBytes = peakHeapUsage();
+
+        double sum = 0;
+        for (double score : m.iterations) sum += score;
+        m.score = sum / iterations;
+        double variance = 0;
+        for (double score : m.iterations) variance += (score - m.score) * (score - m.score);
+        m.scoreError = iterations > 1 ? Math.sqrt(variance / (iterations - 1)) : 0;
+        return m;
+    }
+
+    // Вывод результата замера в консоль
+    private static void print(Measurement m) {
+        String name = m.engine == null ? m.benchmark : m.benchmark + " " + m.engine + (m.tracing ? " +шаги" : "")
+                + ("cached".equals(m.transpose) ? " (без транспонирования)" : "");
+        if (m.skipped != null) {
+            System.out.printf("%-40s %-6s %,12d  пропущен: %s%n", name, m.shape.key, m.vertices, m.skipped);
+        } else {
+            System.out.printf("%-40s %-6s %,12d %12.3f ± %.3f ops/s %,16.0f Б/оп  пик %,d МБ%n", name, m.shape.key,
+                    m.vertices, m.score, m.scoreError, m.allocatedBytesPerOp, m.peakHeapBytes >> 20);
+        }
+    }
+
+    // Одна итерация: операция повторяется, пока не истечет iterationMillis (но выполняется хотя бы раз)
+    private long iterate(LongSupplier operation) {
+        long deadline = System.nanoTime() + iterationMillis * 1_000_000;
+        long ops = 0;
+        do {
+            sink += operation.getAsLong();
+            ops++;
+        } while (System.nanoTime() < deadline);
+        return ops;
+    }
+
+    // Суммарно выделенная живыми потоками память (рабочие потоки пулов тоже учитываются)
+    private static long allocatedBytes() {
+        ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (!(bean instanceof com.sun.management.ThreadMXBean)) return 0;
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) bean;
+        if (!threads.isThreadAllocatedMemorySupported()) return 0;
+        threads.setThreadAllocatedMemoryEnabled(true);
+        long total = 0;
+        for (long bytes : threads.getThreadAllocatedBytes(threads.getAllThreadIds())) {
+            if (bytes > 0) total += bytes;
+        }
+        return total;
+    }
+
+    // Число сборок мусора всеми сборщиками
+    private static long gcCount() {
+        long total = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            total += Math.max(0, gc.getCollectionCount());
+        }
+        return total;
+    }
+
+    // Время сборок мусора в миллисекундах
+    private static long gcTime() {
+        long total = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            total += Math.max(0, gc.getCollectionTime());
+        }
+        return total;
+    }
+
+    // Сброс пиковых значений пулов кучи
+    private static void resetPeakUsage() {
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP) pool.resetPeakUsage();
+        }
+    }
+
+    // Сумма пиковых заполнений пулов кучи с момента сброса
+    private static long peakHeapUsage() {
+        long total = 0;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP) total += pool.getPeakUsage().getUsed();
+        }
+        return total;
+    }
+
+    // Запись результатов в JSON
+    private void write(List<Measurement> results) throws IOException {
+        try (PrintWriter out = new PrintWriter(Files.newBufferedWriter(output, StandardCharsets.UTF_8))) {
+            out.println("{");
+            out.println("  \"timestamp\": " + quote(Instant.now().toString()) + ",");
+            out.println("  \"jvm\": " + quote(System.getProperty("java.vm.name") + " " + System.getProperty("java.version")) + ",");
+            out.println("  \"processors\": " + Runtime.getRuntime().availableProcessors() + ",");
+            out.println("  \"maxHeapBytes\": " + Runtime.getRuntime().maxMemory() + ",");
+            out.println("  \"warmupIterations\": " + warmup + ",");
+            out.println("  \"measurementIterations\": " + iterations + ",");
+            out.println("  \"iterationMillis\": " + iterationMillis + ",");
+            out.println("  \"results\": [");
+            for (int i = 0; i < results.size(); i++) {
+                Measurement m = results.get(i);
+                StringBuilder line = new StringBuilder("    {");
+                line.append("\"benchmark\": ").append(quote(m.benchmark));
+                if (m.engine != null) line.append(", \"engine\": ").append(quote(m.engine));
+                line.append(", \"shape\": ").append(quote(m.shape.key));
+                line.append(", \"vertices\": ").append(m.vertices);
+                line.append(", \"edges\": ").append(m.edges);
+                line.append(", \"tracing\": ").append(m.tracing);
+                if (m.transpose != null) line.append(", \"transpose\": ").append(quote(m.transpose));
+                if (m.skipped != null) {
+                    line.append(", \"skipped\": ").append(quote(m.skipped));
+                } else {
+                    line.append(", \"mode\": \"thrpt\", \"unit\": \"ops/s\"");
+                    line.append(", \"score\": ").append(m.score);
+                    line.append(", \"scoreError\": ").append(m.scoreError);
+                    line.append(", \"iterations\": ").append(Arrays.toString(m.iterations));
+                    line.append(", \"operations\": ").append(m.operations);
+                    line.append(", \"allocatedBytesPerOp\": ").append(m.allocatedBytesPerOp);
+                    line.append(", \"gcCount\": ").append(m.gcCount);
+                    line.append(", \"gcTimeMs\": ").append(m.gcTimeMs);
+                    line.append(", \"peakHeapBytes\": ").append(m.peakHeapBytes);
+                }
+                line.append(i + 1 < results.size() ? "}," : "}");
+                out.println(line);
+            }
+            out.println("  ],");
+            out.println("  \"sink\": " + sink);
+            out.println("}");
+        }
+    }
+
+    // Строка в кавычках JSON
+    private static String quote(String value) {
+        StringBuilder result = new StringBuilder("\"");
+        for (char ch : value.toCharArray()) {
+            if (ch == '"' || ch == '\\') result.append('\\').append(ch);
+            else if (ch < 0x20) result.append(String.format("\\u%04x", (int) ch));
+            else result.append(ch);
+        }
+        return result.append('"').toString();
+    }
+}
@@ -0,0 +1,188 @@
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+
+// Кэш результатов поиска компонент по содержимому графа: ключ - алгоритм, число вершин и ребер
+// и 64-битный хэш массивов CSR (CSRGraph.contentHash), поэтому повторный запуск на том же или
+// на заново загруженном таком же графе не пересчитывает компоненты. Запись хранит и сам граф: найденная
+// по хэшу запись отдается, только если ее граф совпадает с запрошенным (CSRGraph.contentEquals), иначе это
+// промах, поэтому совпадение хэшей разных графов не дает чужой результат. Вместе с результатом может храниться
+// журнал шагов; запись без журнала не подходит для запроса с журналом (пересчитывается и заменяется).
+// Размер ограничен оценкой памяти графов, результатов и журналов, при превышении вытесняются давно
+// не использованные записи (LRU). Хранимые граф, результат и журнал разделяются между получателями
+// и не должны изменяться. Общий кэш процесса (getShared) имеет объем -Dscc.cache.mb мегабайт
+// (по умолчанию 256, 0 - выключен)
+public final class SCCCache {
+    private static final SCCCache SHARED = new SCCCache(Long.getLong("scc.cache.mb", 256) << 20);
+    private static final long ENTRY_OVERHEAD = 128; // Оценка памяти записи без массивов
+
+    private final long capacity; // Наибольший объем записей в байтах
+    private final LinkedHashMap<Key, Entry> entries = new LinkedHashMap<>(16, 0.75f, true); // В порядке использования
+    private long bytes; // Объем записей
+    private long hits; // Найдено в кэше
+    private long misses; // Не найдено
+    private long evictions; // Вытеснено записей
+    private long collisions; // Совпадений хэша у разных графов
+
+    // Ключ записи: алгоритм и содержимое графа
+    private static final class Key {
+        final String engine;
+        final long hash;
+        final int vertices;
+        final int edges;
+
+        Key(CSRGraph graph, SCCEngine engine) {
+            this.engine = engine.getClass().getName();
+            this.hash = graph.contentHash();
+            this.vertices = graph.vertexCount();
+            this.edges = graph.edgeCount();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Key)) return false;
+            Key other = (Key) o;
+            return hash == other.hash && vertices == other.vertices && edges == other.edges && engine.equals(other.engine);
+        }
+
+        @Override
+        public int hashCode() {
+            return Long.hashCode(hash) * 31 + engine.hashCode();
+        }
+    }
+
+    // Граф, результат поиска и, возможно, журнал шагов
+    public static final class Entry {
+        private final CSRGraph graph; // Граф, для которого получен результат (для проверки совпадения)
+        private final SCCResult result;
+        private final StepTrace trace; // null - журнал не хранится
+        private final long bytes; // Оценка памяти
+
+        private Entry(CSRGraph graph, SCCResult result, StepTrace trace) {
+            this.graph = graph;
+            this.result = result;
+            this.trace = trace;
+            long V = result.getVertexCount();
+            long C = result.getComponentCount();
+            // Номера компонент и списки вершин (8 на вершину), начала списков, размеры и топологический порядок
+            // компонент (12 на компоненту) и граф конденсации, которые SCCResult строит по запросу:
+            // его ребер не больше ребер графа и не больше C * (C - 1)
+            long condensation = 4 * (C + 1) + 4 * Math.min(graph.edgeCount(), C * (C - 1));
+            long size = ENTRY_OVERHEAD + graph.getByteSize() + 8 * V + 12 * C + condensation;
+            this.bytes = size + (trace != null ? trace.getByteSize() : 0);
+        }
+
+        public SCCResult getResult() {
+            return result;
+        }
+
+        // Журнал шагов (null - не хранится)
+        public StepTrace getTrace() {
+            return trace;
+        }
+    }
+
+    // Кэш объемом capacity байт (0 - ничего не хранится)
+    public SCCCache(long capacity) {
+        this.capacity = capacity;
+    }
+
+    // Общий кэш процесса
+    public static SCCCache getShared() {
+        return SHARED;
+    }
+
+    // Запись для графа graph и алгоритма engine, withTrace - нужна запись с журналом (null - нет в кэше)
+    public Entry get(CSRGraph graph, SCCEngine engine, boolean withTrace) {
+        if (capacity <= 0) return null;
+        Key key = new Key(graph, engine); // Хэш вычисляется вне блокировки
+        Entry entry;
+        synchronized (this) {
+            entry = entries.get(key);
+        }
+        // Граф записи сравнивается вне блокировки (для того же объекта графа - сразу)
+        boolean same = entry != null && entry.graph.contentEquals(graph);
+        synchronized (this) {
+            if (entry != null && !same) collisions++;
+            if (same && (!withTrace || entry.trace != null)) {
+                hits++;
+                return entry;
+            }
+            misses++;
+            return null;
+        }
+    }
+
+    // Сохранение результата result (и журнала trace, если не null) для графа graph и алгоритма engine.
+    // Журнал больше не пополняется, его неиспользуемая часть освобождается.
+    // Запись без журнала не заменяет запись с журналом того же графа; запись больше объема кэша не сохраняется
+    public Entry put(CSRGraph graph, SCCEngine engine, SCCResult result, StepTrace trace) {
+        if (trace != null && capacity > 0) trace.trimToSize();
+        Entry entry = new Entry(graph, result, trace);
+        if (entry.bytes > capacity) return entry;
+        Key key = new Key(graph, engine);
+        Entry existing;
+        synchronized (this) {
+            existing = entries.get(key);
+        }
+        boolean same = existing != null && existing.graph.contentEquals(graph); // Иначе - совпадение хэша
+        synchronized (this) {
+            Entry previous = entries.get(key);
+            if (previous != null && previous == existing && same && previous.trace != null && trace == null) return previous;
+            if (previous != null) bytes -= previous.bytes;
+            entries.put(key, entry);
+            bytes += entry.bytes;
+            Iterator<Entry> eldest = entries.values().iterator();
+            while (bytes > capacity && eldest.hasNext()) { // Вытесняем с давно не использованных
+                Entry evicted = eldest.next();
+                if (evicted == entry) continue;
+                eldest.remove();
+                bytes -= evicted.bytes;
+                evictions++;
+            }
+        }
+        return entry;
+    }
+
+    // Поиск компонент без журнала через кэш
+    public SCCResult findSCCs(CSRGraph graph, SCCEngine engine) {
+        Entry entry = get(graph, engine, false);
+        if (entry != null) return entry.getResult();
+        SCCResult result = engine.findSCCs(graph, null);
+        put(graph, engine, result, null);
+        return result;
+    }
+
+    // Удаление всех записей (счетчики сохраняются)
+    public synchronized void clear() {
+        entries.clear();
+        bytes = 0;
+    }
+
+    public long getCapacity() {
+        return capacity;
+    } // Возвращает наибольший объем записей в байтах
+
+    public synchronized long getByteSize() {
+        return bytes;
+    } // Возвращает оценку объема записей в байтах
+
+    public synchronized int size() {
+        return entries.size();
+    } // Возвращает число записей
+
+    public synchronized long getHits() {
+        return hits;
+    } // Возвращает число найденных в кэше результатов
+
+    public synchronized long getMisses() {
+        return misses;
+    } // Возвращает число промахов
+
+    public synchronized long getEvictions() {
+        return evictions;
+    } // Возвращает число вытесненных записей
+
+    public synchronized long getCollisions() {
+        return collisions;
+    } // Возвращает число совпадений хэша у разных графов
+}
@@ -0,0 +1,40 @@
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.List;
+
+// Алгоритм поиска компонент сильной связности.
+// Все реализации дают одинаковое разбиение на компоненты, нумерация компонент может отличаться
+public interface SCCEngine extends Serializable {
+    // Название алгоритма для отображения в интерфейсе
+    String getName();
+
+    // Поиск компонент, graph граф, trace журнал шагов (null - шаги не записываются)
+    SCCResult findSCCs(CSRGraph graph, StepTrace trace);
+
+    // Пошаговое выполнение поиска на графе graph. По умолчанию поиск выполняется целиком в prepare
+    // с записью всего журнала, алгоритмы с собственным пошаговым вариантом переопределяют метод
+    default SCCExecution start(CSRGraph graph) {
+        return new BufferedExecution(this, graph);
+    }
+
+    // Выполнение можно приостановить между шагами без хранения всего журнала (собственный вариант start).
+    // Только такие алгоритмы подходят для пошагового воспроизведения больших графов
+    default boolean isSuspendable() {
+        return false;
+    }
+
+    // Алгоритм по названию или по имени класса без суффикса Engine (kosaraju, tarjan, ...), null - неизвестен
+    static SCCEngine find(String key) {
+        for (SCCEngine engine : available()) {
+            String name = engine.getClass().getSimpleName().replace("Engine", "");
+            if (key.equalsIgnoreCase(name) || key.equalsIgnoreCase(engine.getName())) return engine;
+        }
+        return null;
+    }
+
+    // Все доступные алгоритмы (новые экземпляры)
+    static List<SCCEngine> available() {
+        return Arrays.asList(new KosarajuEngine(), new TarjanEngine(), new PearceEngine(), new PathBasedEngine(),
+                new ForwardBackwardEngine());
+    }
+}
@@ -0,0 +1,24 @@
+import java.util.List;
+
+// Пошаговое выполнение поиска компонент: события журнала производятся по запросу порциями,
+// а между порциями состояние алгоритма сохраняется, поэтому выполнение можно остановить и продолжить
+// с того же места. Бюджет порции - число элементарных шагов (событие журнала или просмотр ребра)
+public interface SCCExecution {
+    // Продолжение выполнения не более чем на budget шагов с записью событий в trace (null - без журнала).
+    // Возвращает false, если поиск завершен
+    boolean advance(StepTrace trace, long budget);
+
+    // Подготовка до первого advance: долгие действия, которые нельзя разбить на шаги (например, обращение графа),
+    // выполняются здесь, чтобы вызывающий мог сделать это в фоновом потоке, а не в потоке событий
+    default void prepare() {
+    }
+
+    // Поиск завершен
+    boolean isDone();
+
+    // Результат поиска (null - поиск еще не завершен)
+    SCCResult getResult();
+
+    // Вершины компоненты c, о которой уже записано событие COMPONENT
+    List<Integer> getComponent(int c);
+}
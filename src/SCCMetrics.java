@@ -0,0 +1,141 @@
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Метрики этапов поиска компонент: последний замер каждого этапа, число замеров и суммарное время.
+// Единственный экземпляр регистрируется как MBean платформы (OBJECT_NAME) и виден в JConsole/JMC.
+// Сбор включен по умолчанию и выключается свойством -Dscc.metrics=false или через setEnabled;
+// выключенный сбор не создает замеров (PhaseMeter) вовсе и не регистрирует MBean.
+// Регистрация и загрузка классов замера стоят сотни миллисекунд, поэтому точки входа вызывают init
+// до первых замеров, иначе эта стоимость попала бы в первый замеренный этап
+public class SCCMetrics implements SCCMetricsMBean {
+    public static final String OBJECT_NAME = "SCCVisualizer:type=SCCMetrics"; // Имя MBean
+    private static final SCCMetrics INSTANCE = new SCCMetrics();
+
+    private volatile boolean enabled = !"false".equalsIgnoreCase(System.getProperty("scc.metrics"));
+    private volatile boolean prepared; // MBean зарегистрирован, классы замера загружены
+    private final Map<String, PhaseStats> last = new LinkedHashMap<>(); // Последний замер по этапу
+    private final Map<String, long[]> totals = new LinkedHashMap<>(); // Число замеров и суммарное время по этапу
+    private long recorded; // Всего замеров
+
+    private SCCMetrics() {
+    }
+
+    // Подготовка метрик процесса до первых замеров (при выключенном сборе ничего не делает)
+    public static SCCMetrics init() {
+        if (INSTANCE.enabled) INSTANCE.prepare();
+        return INSTANCE;
+    }
+
+    // Регистрация MBean (если сервер JMX недоступен, метрики остаются доступны в приложении)
+    // и загрузка классов замера; выполняется один раз
+    private synchronized void prepare() {
+        if (prepared) return;
+        try {
+            ManagementFactory.getPlatformMBeanServer().registerMBean(this, new ObjectName(OBJECT_NAME));
+        } catch (JMException | SecurityException e) {
+            System.err.println("MBean " + OBJECT_NAME + " не зарегистрирован: " + e.getMessage());
+        }
+        PhaseMeter.preload();
+        prepared = true;
+    }
+
+    // Метрики процесса
+    public static SCCMetrics get() {
+        return INSTANCE;
+    }
+
+    // Замер для нового выполнения алгоритма engine (null - сбор метрик выключен)
+    public PhaseMeter newMeter(String engine) {
+        if (!enabled) return null;
+        if (!prepared) prepare(); // Точка входа не вызвала init
+        return new PhaseMeter(engine);
+    }
+
+    // Запись замера этапа (из любого потока)
+    public synchronized void record(PhaseStats stats) {
+        String key = stats.getEngine() + " / " + stats.getPhase();
+        last.put(key, stats);
+        long[] total = totals.computeIfAbsent(key, k -> new long[2]);
+        total[0]++;
+        total[1] += stats.getNanos();
+        recorded++;
+    }
+
+    // Последние замеры этапов в порядке первого замера
+    public synchronized List<PhaseStats> getLastPhases() {
+        return new ArrayList<>(last.values());
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @Override
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+        if (enabled) prepare();
+    }
+
+    @Override
+    public synchronized long getRecordedPhases() {
+        return recorded;
+    }
+
+    @Override
+    public synchronized String[] getPhaseNames() {
+        return last.keySet().toArray(new String[0]);
+    }
+
+    @Override
+    public synchronized double[] getLastMillis() {
+        return last.values().stream().mapToDouble(PhaseStats::getMillis).toArray();
+    }
+
+    @Override
+    public synchronized double[] getLastVerticesPerSecond() {
+        return last.values().stream().mapToDouble(PhaseStats::getVerticesPerSecond).toArray();
+    }
+
+    @Override
+    public synchronized double[] getLastEdgesPerSecond() {
+        return last.values().stream().mapToDouble(PhaseStats::getEdgesPerSecond).toArray();
+    }
+
+    @Override
+    public synchronized long[] getLastAllocatedBytes() {
+        return last.values().stream().mapToLong(PhaseStats::getAllocatedBytes).toArray();
+    }
+
+    @Override
+    public synchronized int[] getLastPeakStackDepth() {
+        return last.values().stream().mapToInt(PhaseStats::getPeakStackDepth).toArray();
+    }
+
+    @Override
+    public synchronized long[] getPhaseCounts() {
+        return totals.values().stream().mapToLong(total -> total[0]).toArray();
+    }
+
+    @Override
+    public synchronized double[] getTotalMillis() {
+        return totals.values().stream().mapToDouble(total -> total[1] / 1e6).toArray();
+    }
+
+    @Override
+    public synchronized String[] getLastPhasesSummary() {
+        return last.values().stream().map(PhaseStats::toString).toArray(String[]::new);
+    }
+
+    @Override
+    public synchronized void reset() {
+        last.clear();
+        totals.clear();
+        recorded = 0;
+    }
+}
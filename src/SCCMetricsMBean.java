@@ -0,0 +1,36 @@
+// Интерфейс JMX для метрик поиска компонент (см. SCCMetrics). Массивы по этапам
+// согласованы с getPhaseNames: элемент i относится к этапу getPhaseNames()[i]
+public interface SCCMetricsMBean {
+    // Сбор метрик включен
+    boolean isEnabled();
+
+    void setEnabled(boolean enabled);
+
+    // Всего записано замеров этапов
+    long getRecordedPhases();
+
+    // Этапы в виде "алгоритм / этап" в порядке первого замера
+    String[] getPhaseNames();
+
+    // Последний замер каждого этапа
+    double[] getLastMillis();
+
+    double[] getLastVerticesPerSecond();
+
+    double[] getLastEdgesPerSecond();
+
+    long[] getLastAllocatedBytes();
+
+    int[] getLastPeakStackDepth();
+
+    // Число замеров и суммарное время каждого этапа
+    long[] getPhaseCounts();
+
+    double[] getTotalMillis();
+
+    // Последние замеры этапов текстом
+    String[] getLastPhasesSummary();
+
+    // Очистка накопленных замеров
+    void reset();
+}
@@ -0,0 +1,32 @@
+import jdk.jfr.*;
+
+// Событие JFR об одном этапе поиска компонент. Длительность события - от начала до конца этапа
+// (при пошаговом выполнении включает паузы воспроизведения), activeTime - время собственно вычислений
+@Name("scc.Phase")
+@Label("SCC Phase")
+@Category("SCC")
+@Description("Этап поиска компонент сильной связности")
+public class SCCPhaseEvent extends Event {
+    @Label("Engine")
+    String engine;
+
+    @Label("Phase")
+    String phase;
+
+    @Label("Active Time")
+    @Timespan(Timespan.NANOSECONDS)
+    long activeTime;
+
+    @Label("Vertices")
+    long vertices;
+
+    @Label("Edges")
+    long edges;
+
+    @Label("Allocated")
+    @DataAmount
+    long allocatedBytes;
+
+    @Label("Peak Stack Depth")
+    int peakStackDepth;
+}
@@ -0,0 +1,235 @@
+import java.io.Serializable;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+
+// Результат поиска компонент сильной связности в компактном виде:
+// для каждой вершины хранится номер ее компоненты, а вершины компонент сгруппированы в одном массиве.
+// Граф конденсации (компоненты как вершины) и топологический порядок компонент строятся по запросу,
+// если алгоритм не передал их готовыми
+public class SCCResult implements Serializable {
+    // Порядок нумерации компонент относительно графа конденсации
+    public enum Order {
+        TOPOLOGICAL, // Ребра конденсации идут от меньших номеров к большим
+        REVERSE_TOPOLOGICAL, // Ребра конденсации идут от больших номеров к меньшим
+        UNORDERED // Нумерация не связана с порядком
+    }
+
+    private final int[] componentOf; // Номер компоненты для каждой вершины
+    private final int componentCount; // Количество компонент
+    private final Order order; // Порядок нумерации компонент
+    private volatile int[] members; // Вершины, сгруппированные по компонентам (volatile публикует и memberOffsets:
+                                    // результат из SCCCache читается из разных потоков)
+    private int[] memberOffsets; // Начало вершин каждой компоненты в members (длина componentCount + 1)
+    // Поля, вычисляемые по запросу, volatile: вычисление повторяемо, и гонка дает лишь повторную работу,
+    // а volatile гарантирует, что другой поток увидит массив заполненным
+    private volatile int[] sizes; // Размеры компонент
+    private volatile CSRGraph condensation; // Граф конденсации
+    private volatile int[] topologicalOrder; // Номера компонент в топологическом порядке
+
+    // Конструктор результата, componentOf номера компонент вершин, componentCount количество компонент.
+    // Списки вершин компонент строятся по запросу (по возрастанию номеров вершин)
+    public SCCResult(int[] componentOf, int componentCount) {
+        this(componentOf, componentCount, Order.UNORDERED);
+    }
+
+    // Конструктор результата с известным порядком нумерации компонент
+    public SCCResult(int[] componentOf, int componentCount, Order order) {
+        this(componentOf, componentCount, null, null, order, null);
+    }
+
+    // Конструктор с готовыми списками вершин в порядке их обнаружения алгоритмом
+    public SCCResult(int[] componentOf, int componentCount, int[] members, int[] memberOffsets) {
+        this(componentOf, componentCount, members, memberOffsets, Order.UNORDERED, null);
+    }
+
+    // Конструктор с готовыми списками вершин, порядком нумерации и графом конденсации (null - построить по запросу)
+    public SCCResult(int[] componentOf, int componentCount, int[] members, int[] memberOffsets,
+                     Order order, CSRGraph condensation) {
+        this.componentOf = componentOf;
+        this.componentCount = componentCount;
+        this.members = members;
+        this.memberOffsets = memberOffsets;
+        this.order = order;
+        this.condensation = condensation;
+    }
+
+    // Номер компоненты вершины v
+    public int componentOf(int v) {
+        return componentOf[v];
+    }
+
+    // Массив номеров компонент (без копирования, не изменять)
+    public int[] getComponentOf() {
+        return componentOf;
+    }
+
+    // Количество компонент
+    public int getComponentCount() {
+        return componentCount;
+    }
+
+    // Количество вершин
+    public int getVertexCount() {
+        return componentOf.length;
+    }
+
+    // Вершины, сгруппированные по компонентам (без копирования, не изменять)
+    public int[] getMembers() {
+        buildMembers();
+        return members;
+    }
+
+    // Начала списков вершин компонент в getMembers() (без копирования, не изменять)
+    public int[] getMemberOffsets() {
+        buildMembers();
+        return memberOffsets;
+    }
+
+    // Размер компоненты с номером component
+    public int getComponentSize(int component) {
+        buildMembers();
+        return memberOffsets[component + 1] - memberOffsets[component];
+    }
+
+    // Размеры всех компонент (без копирования, не изменять)
+    public int[] getComponentSizes() {
+        int[] sizes = this.sizes;
+        if (sizes == null) {
+            buildMembers();
+            int[] result = new int[componentCount];
+            for (int c = 0; c < componentCount; c++) {
+                result[c] = memberOffsets[c + 1] - memberOffsets[c];
+            }
+            sizes = result;
+            this.sizes = result;
+        }
+        return sizes;
+    }
+
+    // Порядок нумерации компонент
+    public Order getOrder() {
+        return order;
+    }
+
+    // Компоненты в виде списков вершин (представление только для чтения, списки не копируются)
+    public List<List<Integer>> getComponents() {
+        int[] grouped = getMembers();
+        int[] offsets = getMemberOffsets();
+        return new AbstractList<List<Integer>>() {
+            @Override
+            public List<Integer> get(int component) {
+                int begin = offsets[component];
+                int end = offsets[component + 1];
+                return new AbstractList<Integer>() {
+                    @Override
+                    public Integer get(int index) {
+                        if (index < 0 || index >= end - begin) throw new IndexOutOfBoundsException(index);
+                        return grouped[begin + index];
+                    }
+
+                    @Override
+                    public int size() {
+                        return end - begin;
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return componentCount;
+            }
+        };
+    }
+
+    // Граф конденсации: вершины - компоненты, ребро c -> d есть, если в graph есть ребро из c в d (без повторов).
+    // graph - граф, для которого получен результат; он нужен, только если алгоритм не построил конденсацию сам
+    public CSRGraph getCondensation(CSRGraph graph) {
+        CSRGraph condensation = this.condensation;
+        if (condensation == null) {
+            if (graph.vertexCount() != componentOf.length) {
+                throw new IllegalArgumentException("Граф не соответствует результату поиска компонент");
+            }
+            buildMembers();
+            int[] offsets = new int[componentCount + 1];
+            int[] targets = new int[16];
+            int count = 0;
+            int[] lastSeen = new int[componentCount]; // Компонента, для которой ребро в d уже добавлено
+            Arrays.fill(lastSeen, -1);
+            for (int c = 0; c < componentCount; c++) {
+                for (int i = memberOffsets[c]; i < memberOffsets[c + 1]; i++) {
+                    int v = members[i];
+                    for (int e = graph.firstEdge(v); e < graph.lastEdge(v); e++) {
+                        int d = componentOf[graph.target(e)];
+                        if (d == c || lastSeen[d] == c) continue; // Ребро внутри компоненты или повтор
+                        lastSeen[d] = c;
+                        if (count == targets.length) targets = Arrays.copyOf(targets, count * 2);
+                        targets[count++] = d;
+                    }
+                }
+                offsets[c + 1] = count;
+            }
+            condensation = new CSRGraph(offsets, Arrays.copyOf(targets, count));
+            this.condensation = condensation;
+        }
+        return condensation;
+    }
+
+    // Номера компонент в топологическом порядке графа конденсации (без копирования, не изменять).
+    // Если нумерация уже топологическая (или обратная), граф не просматривается
+    public int[] getTopologicalOrder(CSRGraph graph) {
+        int[] topologicalOrder = this.topologicalOrder;
+        if (topologicalOrder == null) {
+            int[] result = new int[componentCount];
+            if (order == Order.TOPOLOGICAL) {
+                for (int c = 0; c < componentCount; c++) result[c] = c;
+            } else if (order == Order.REVERSE_TOPOLOGICAL) {
+                for (int c = 0; c < componentCount; c++) result[c] = componentCount - 1 - c;
+            } else {
+                topologicalSort(getCondensation(graph), result);
+            }
+            topologicalOrder = result;
+            this.topologicalOrder = result;
+        }
+        return topologicalOrder;
+    }
+
+    // Алгоритм Кана: компоненты без входящих ребер выводятся первыми, result заполняется как очередь
+    private static void topologicalSort(CSRGraph dag, int[] result) {
+        int n = dag.vertexCount();
+        int[] inDegree = new int[n];
+        for (int e = 0; e < dag.edgeCount(); e++) {
+            inDegree[dag.target(e)]++;
+        }
+        int tail = 0;
+        for (int c = 0; c < n; c++) {
+            if (inDegree[c] == 0) result[tail++] = c;
+        }
+        for (int head = 0; head < tail; head++) {
+            int c = result[head];
+            for (int e = dag.firstEdge(c); e < dag.lastEdge(c); e++) {
+                int d = dag.target(e);
+                if (--inDegree[d] == 0) result[tail++] = d;
+            }
+        }
+    }
+
+    // Группировка вершин по компонентам сортировкой подсчетом
+    private void buildMembers() {
+        if (members != null) return;
+        int[] offsets = new int[componentCount + 1];
+        for (int c : componentOf) {
+            offsets[c + 1]++; // Считаем размеры компонент
+        }
+        for (int c = 0; c < componentCount; c++) {
+            offsets[c + 1] += offsets[c]; // Префиксные суммы
+        }
+        int[] cursor = Arrays.copyOf(offsets, componentCount);
+        int[] grouped = new int[componentOf.length];
+        for (int v = 0; v < componentOf.length; v++) {
+            grouped[cursor[componentOf[v]]++] = v; // Раскладываем вершины по компонентам
+        }
+        memberOffsets = offsets;
+        members = grouped;
+    }
+}
@@ -0,0 +1,449 @@
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Встроенный HTTP-сервер поиска компонент (com.sun.net.httpserver), чтобы другие процессы не запускали JVM
+// на каждый граф. Запуск: java Main --serve [--host 127.0.0.1] [--port 8080] [--threads N] [--queue 1024]
+//   [--max-vertices 4194304] [--memory-mb половина -Xmx]
+//   POST /scc[?engine=tarjan] - тело: граф в формате .graph (GraphFormat) или текстовый список ребер
+//        (EdgeListFormat); ответ JSON {"vertices", "edges", "components", "componentOf": [...]}
+//   GET /stats - счетчики сервера, GET /health - проверка доступности.
+// Каждый запрос обрабатывается в виртуальном потоке: чтение и разбор тела, постановка задачи в очередь
+// и ожидание результата. Поиск выполняют N рабочих потоков: малые графы (до SMALL_GRAPH_VERTICES вершин)
+// из очереди объединяются в один несвязный граф до BATCH_VERTICES вершин и обрабатываются одним запуском
+// алгоритма, после чего номера компонент разделяются по запросам. Результаты хранятся в общем SCCCache:
+// повторно присланный граф отвечается сразу, без очереди.
+// Прием ограничен до чтения тела: по Content-Length оценивается память запроса (memoryEstimate) и резервируется
+// из общего бюджета --memory-mb, число одновременно принятых запросов и очередь задач тоже ограничены;
+// сверх этого сервер сразу отвечает 503 с Retry-After. Число вершин графа не больше --max-vertices
+// и vertexLimit для тела такого размера (короткое тело не может объявить огромный граф), иначе - 413
+public class SCCServer {
+    private static final int SMALL_GRAPH_VERTICES = 4096; // Графы не больше этого объединяются в пакеты
+    private static final int BATCH_VERTICES = 1 << 16; // Наибольшее число вершин в пакете
+    private static final int MAX_BODY_BYTES = 64 << 20; // Наибольший размер тела запроса
+    private static final int BACKLOG = 1024; // Очередь соединений, ожидающих принятия
+    private static final int VERTICES_PER_BODY_BYTE = 8; // Наибольшее число вершин на байт тела
+    // Оценка памяти запроса: тело, его текст, разобранные ребра и граф CSR занимают не больше BYTES_PER_BODY_BYTE
+    // на байт тела, номера и списки компонент и ответ JSON - не больше BYTES_PER_VERTEX на вершину
+    private static final int BYTES_PER_BODY_BYTE = 12;
+    private static final int BYTES_PER_VERTEX = 64;
+
+    private final HttpServer server;
+    private final ExecutorService requestExecutor = Executors.newVirtualThreadPerTaskExecutor(); // Поток на запрос
+    private final BlockingQueue<Job> queue; // Задачи, ожидающие рабочего потока
+    private final Semaphore admission; // Запросы, принятые в обработку
+    private final Semaphore memory; // Свободная часть бюджета памяти принятых запросов в килобайтах
+    private final int memoryKilobytes; // Весь бюджет памяти
+    private final int maxVertices; // Наибольшее число вершин графа
+    private final Thread[] workers; // Рабочие потоки поиска
+    private final Map<String, SCCEngine> engines = new HashMap<>(); // Алгоритмы по ключу (создаются один раз)
+    private final SCCEngine defaultEngine; // Алгоритм Косарайю из engines
+    private final SCCCache cache = SCCCache.getShared(); // Результаты по содержимому графа
+
+    // Счетчики для /stats
+    private final AtomicLong requests = new AtomicLong(); // Принято запросов поиска
+    private final AtomicLong rejected = new AtomicLong(); // Отклонено из-за перегрузки
+    private final AtomicLong failed = new AtomicLong(); // Завершено с ошибкой
+    private final AtomicLong runs = new AtomicLong(); // Запусков алгоритма
+    private final AtomicLong batchedGraphs = new AtomicLong(); // Графов, обработанных в общих запусках
+
+    // Задача поиска для одного запроса
+    private static final class Job {
+        final CSRGraph graph;
+        final SCCEngine engine;
+        final CompletableFuture<SCCResult> result = new CompletableFuture<>();
+
+        Job(CSRGraph graph, SCCEngine engine) {
+            this.graph = graph;
+            this.engine = engine;
+        }
+
+        boolean isSmall() {
+            return graph.vertexCount() <= SMALL_GRAPH_VERTICES;
+        }
+    }
+
+    // Сервер на адресе address, threads рабочих потоков, queueCapacity - длина очереди задач,
+    // maxVertices - наибольшее число вершин графа, memoryBytes - бюджет памяти одновременно принятых запросов
+    public SCCServer(InetSocketAddress address, int threads, int queueCapacity, int maxVertices, long memoryBytes)
+            throws IOException {
+        server = HttpServer.create(address, BACKLOG);
+        server.setExecutor(requestExecutor);
+        server.createContext("/scc", this::handleSCC);
+        server.createContext("/stats", this::handleStats);
+        server.createContext("/health", exchange -> send(exchange, 200, "text/plain", "ok"));
+        // Алгоритмы не хранят состояния между запусками, поэтому один экземпляр обслуживает все запросы
+        for (SCCEngine engine : SCCEngine.available()) {
+            engines.put(engine.getClass().getSimpleName().replace("Engine", "").toLowerCase(Locale.ROOT), engine);
+            engines.put(engine.getName().toLowerCase(Locale.ROOT), engine);
+        }
+        defaultEngine = engines.get("kosaraju");
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        admission = new Semaphore(2 * queueCapacity); // Очередь и столько же запросов на чтении и ожидании
+        memoryKilobytes = (int) Math.min(Integer.MAX_VALUE, memoryBytes >> 10);
+        memory = new Semaphore(memoryKilobytes);
+        this.maxVertices = maxVertices;
+        workers = new Thread[threads];
+        for (int i = 0; i < threads; i++) {
+            workers[i] = new Thread(this::work, "scc-server-worker-" + (i + 1));
+            workers[i].setDaemon(true);
+        }
+    }
+
+    public static void main(String[] args) {
+        SCCMetrics.init(); // До первых запросов
+        String host = "127.0.0.1";
+        int port = 8080;
+        int threads = Runtime.getRuntime().availableProcessors();
+        int queueCapacity = 1024;
+        int maxVertices = 1 << 22;
+        long memoryBytes = Runtime.getRuntime().maxMemory() / 2;
+        try {
+            for (int i = 0; i < args.length; i++) {
+                String value = i + 1 < args.length ? args[i + 1] : null;
+                if (value == null) throw new IllegalArgumentException("Нет значения для " + args[i]);
+                switch (args[i++]) {
+                    case "--host":
+                        host = value;
+                        break;
+                    case "--port":
+                        port = Integer.parseInt(value);
+                        break;
+                    case "--threads":
+                        threads = Integer.parseInt(value);
+                        break;
+                    case "--queue":
+                        queueCapacity = Integer.parseInt(value);
+                        break;
+                    case "--max-vertices":
+                        maxVertices = Integer.parseInt(value);
+                        break;
+                    case "--memory-mb":
+                        memoryBytes = Long.parseLong(value) << 20;
+                        break;
+                    default:
+                        throw new IllegalArgumentException("Неизвестный параметр: " + args[i - 1]);
+                }
+            }
+            if (threads < 1 || queueCapacity < 1 || maxVertices < 1 || memoryBytes < 1 << 20) {
+                throw new IllegalArgumentException("Число потоков, длина очереди, число вершин и объем памяти должны быть положительными");
+            }
+            maxVertices = Math.min(maxVertices, EdgeListFormat.MAX_VERTICES);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println("Использование: java Main --serve [--host адрес] [--port N] [--threads N] [--queue N]"
+                    + " [--max-vertices N] [--memory-mb N]");
+            System.exit(2);
+        }
+        try {
+            SCCServer server = new SCCServer(new InetSocketAddress(host, port), threads, queueCapacity, maxVertices, memoryBytes);
+            server.start();
+            System.out.println("Сервер SCC: http://" + host + ":" + server.getPort() + "/scc (потоков: " + threads
+                    + ", очередь: " + queueCapacity + ", вершин: " + maxVertices + ", память: " + (memoryBytes >> 20) + " МБ)");
+        } catch (IOException e) {
+            System.err.println("Ошибка: " + e.getMessage());
+            System.exit(2);
+        }
+    }
+
+    // Запуск сервера и рабочих потоков
+    public void start() {
+        for (Thread worker : workers) worker.start();
+        server.start();
+    }
+
+    // Остановка: новые соединения не принимаются, рабочие потоки прерываются
+    public void stop() {
+        server.stop(0);
+        for (Thread worker : workers) worker.interrupt();
+        requestExecutor.shutdownNow();
+    }
+
+    // Порт, на котором сервер принимает соединения (при запуске с портом 0 - выбранный системой)
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    // POST /scc: проверка размера и прием до чтения тела, разбор графа, постановка в очередь и ожидание
+    // результата (в виртуальном потоке запроса)
+    private void handleSCC(HttpExchange exchange) throws IOException {
+        try {
+            if (!"POST".equals(exchange.getRequestMethod())) {
+                send(exchange, 405, "text/plain", "Ожидается POST");
+                return;
+            }
+            String key = queryParameter(exchange.getRequestURI(), "engine");
+            SCCEngine engine = key == null ? defaultEngine : engines.get(key.toLowerCase(Locale.ROOT));
+            if (engine == null) {
+                send(exchange, 400, "text/plain", "Неизвестный алгоритм: " + key);
+                return;
+            }
+            long length = contentLength(exchange);
+            if (length < 0) {
+                send(exchange, 411, "text/plain", "Нужен заголовок Content-Length");
+                return;
+            }
+            long cost = (memoryEstimate(length) + 1023) >> 10; // Килобайт бюджета
+            if (length > MAX_BODY_BYTES || cost > memoryKilobytes) { // Не поместится даже в пустой бюджет
+                send(exchange, 413, "text/plain", "Тело запроса слишком велико: " + length + " байт");
+                return;
+            }
+            // Перегрузка: отвечаем сразу, не читая тело
+            if (queue.remainingCapacity() == 0 || !admission.tryAcquire()) {
+                reject(exchange);
+                return;
+            }
+            if (!memory.tryAcquire((int) cost)) {
+                admission.release();
+                reject(exchange);
+                return;
+            }
+            try {
+                requests.incrementAndGet();
+                respond(exchange, engine, length);
+            } finally {
+                memory.release((int) cost);
+                admission.release();
+            }
+        } catch (RuntimeException | OutOfMemoryError e) { // Ошибка сервера не должна оставлять клиента без ответа
+            failed.incrementAndGet();
+            try {
+                send(exchange, 500, "text/plain", String.valueOf(e));
+            } catch (IOException | RuntimeException ignored) {
+                // Ответ уже начат или соединение закрыто
+            }
+        } finally {
+            exchange.close();
+        }
+    }
+
+    // Чтение и разбор тела длиной length байт, поиск компонент (из кэша или через очередь) и ответ
+    private void respond(HttpExchange exchange, SCCEngine engine, long length) throws IOException {
+        byte[] body = exchange.getRequestBody().readNBytes((int) length);
+        if (body.length < length) {
+            send(exchange, 400, "text/plain", "Тело запроса короче Content-Length");
+            return;
+        }
+        long limit = vertexLimit(length);
+        CSRGraph graph;
+        try {
+            if (GraphFormat.matches(body)) {
+                long vertices = GraphFormat.peekVertexCount(body);
+                if (vertices > limit) {
+                    send(exchange, 413, "text/plain", tooManyVertices(vertices, limit));
+                    return;
+                }
+                graph = GraphFormat.read(body, "Тело запроса");
+            } else {
+                EdgeListFormat.EdgeList edges = EdgeListFormat.parseEdges(new String(body, StandardCharsets.UTF_8));
+                if (edges.getVertexCount() > limit) {
+                    send(exchange, 413, "text/plain", tooManyVertices(edges.getVertexCount(), limit));
+                    return;
+                }
+                graph = edges.toGraph();
+            }
+        } catch (IOException | RuntimeException e) { // Некорректные данные (в том числе ошибки индексов и размеров)
+            send(exchange, 400, "text/plain", e.getMessage() != null ? e.getMessage() : e.toString());
+            return;
+        }
+        SCCCache.Entry cached = cache.get(graph, engine, false);
+        if (cached != null) { // Такой граф уже обработан
+            send(exchange, 200, "application/json", toJson(graph, cached.getResult()));
+            return;
+        }
+        Job job = new Job(graph, engine);
+        if (!queue.offer(job)) {
+            reject(exchange);
+            return;
+        }
+        SCCResult result;
+        try {
+            result = job.result.get();
+        } catch (ExecutionException e) {
+            failed.incrementAndGet();
+            send(exchange, 500, "text/plain", String.valueOf(e.getCause()));
+            return;
+        } catch (InterruptedException e) { // Сервер останавливается
+            Thread.currentThread().interrupt();
+            return;
+        }
+        send(exchange, 200, "application/json", toJson(graph, result));
+    }
+
+    // Длина тела из заголовка Content-Length (-1 - не задана или некорректна)
+    private static long contentLength(HttpExchange exchange) {
+        String value = exchange.getRequestHeaders().getFirst("Content-Length");
+        if (value == null) return -1;
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    // Наибольшее число вершин графа в теле length байт: VERTICES_PER_BODY_BYTE на байт, но малый граф
+    // (до SMALL_GRAPH_VERTICES вершин) допустим при любом теле
+    private long vertexLimit(long length) {
+        return Math.min(maxVertices, Math.max(SMALL_GRAPH_VERTICES, VERTICES_PER_BODY_BYTE * length));
+    }
+
+    // Оценка памяти запроса с телом length байт (граф не больше vertexLimit вершин)
+    private long memoryEstimate(long length) {
+        return BYTES_PER_BODY_BYTE * length + BYTES_PER_VERTEX * vertexLimit(length);
+    }
+
+    private static String tooManyVertices(long vertices, long limit) {
+        return "Слишком много вершин: " + vertices + " (для такого тела не больше " + limit + ")";
+    }
+
+    // Ответ 503: клиент повторяет запрос позже
+    private void reject(HttpExchange exchange) throws IOException {
+        rejected.incrementAndGet();
+        exchange.getResponseHeaders().set("Retry-After", "1");
+        send(exchange, 503, "text/plain", "Сервер перегружен");
+    }
+
+    // GET /stats: счетчики сервера
+    private void handleStats(HttpExchange exchange) throws IOException {
+        String json = "{\"requests\": " + requests.get() + ", \"rejected\": " + rejected.get()
+                + ", \"failed\": " + failed.get() + ", \"runs\": " + runs.get()
+                + ", \"batchedGraphs\": " + batchedGraphs.get() + ", \"queued\": " + queue.size()
+                + ", \"cacheHits\": " + cache.getHits() + ", \"cacheMisses\": " + cache.getMisses()
+                + ", \"cacheEntries\": " + cache.size()
+                + ", \"memoryFreeKilobytes\": " + memory.availablePermits() + "}";
+        send(exchange, 200, "application/json", json);
+        exchange.close();
+    }
+
+    // Значение параметра name из строки запроса (null - нет)
+    private static String queryParameter(URI uri, String name) {
+        String query = uri.getQuery();
+        if (query == null) return null;
+        for (String pair : query.split("&")) {
+            int equals = pair.indexOf('=');
+            if (equals > 0 && pair.substring(0, equals).equals(name)) return pair.substring(equals + 1);
+        }
+        return null;
+    }
+
+    private static void send(HttpExchange exchange, int status, String contentType, String text) throws IOException {
+        byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", contentType + "; charset=utf-8");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    // Ответ с номерами компонент вершин
+    private static String toJson(CSRGraph graph, SCCResult result) {
+        int V = result.getVertexCount();
+        StringBuilder json = new StringBuilder(64 + 8 * V);
+        json.append("{\"vertices\": ").append(V).append(", \"edges\": ").append(graph.edgeCount())
+                .append(", \"components\": ").append(result.getComponentCount()).append(", \"componentOf\": [");
+        for (int v = 0; v < V; v++) {
+            if (v > 0) json.append(',');
+            json.append(result.componentOf(v));
+        }
+        return json.append("]}").toString();
+    }
+
+    // Рабочий поток: берет задачу из очереди и добирает к малому графу следующие малые графы того же алгоритма.
+    // Набор пакета останавливается на первой неподходящей задаче (она выполняется следующей), поэтому
+    // один поток забирает из очереди не больше пакета и одной задачи, а остальные достаются другим потокам
+    private void work() {
+        List<Job> batch = new ArrayList<>();
+        Job next = null; // Неподходящая задача, взятая при наборе пакета
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                Job first = next != null ? next : queue.take();
+                next = null;
+                batch.clear();
+                batch.add(first);
+                long vertices = first.graph.vertexCount();
+                while (first.isSmall() && vertices < BATCH_VERTICES && (next = queue.poll()) != null) {
+                    if (!next.isSmall() || next.engine != first.engine) break;
+                    batch.add(next);
+                    vertices += next.graph.vertexCount();
+                    next = null;
+                }
+                run(batch);
+            }
+        } catch (InterruptedException e) {
+            // Сервер остановлен
+        } finally {
+            if (next != null) next.result.completeExceptionally(new IllegalStateException("Сервер остановлен"));
+        }
+    }
+
+    // Поиск компонент для задач jobs одним запуском алгоритма
+    private void run(List<Job> jobs) {
+        runs.incrementAndGet();
+        try {
+            if (jobs.size() == 1) {
+                Job job = jobs.get(0);
+                SCCResult result = job.engine.findSCCs(job.graph, null);
+                cache.put(job.graph, job.engine, result, null);
+                job.result.complete(result);
+                return;
+            }
+            batchedGraphs.addAndGet(jobs.size());
+            // Несвязное объединение графов: вершины графа i сдвинуты на base[i]
+            int count = jobs.size();
+            int[] base = new int[count + 1];
+            long edges = 0;
+            for (int i = 0; i < count; i++) {
+                base[i + 1] = base[i] + jobs.get(i).graph.vertexCount();
+                edges += jobs.get(i).graph.edgeCount();
+            }
+            int V = base[count];
+            int[] offsets = new int[V + 1];
+            int[] targets = new int[(int) edges];
+            int[] owner = new int[V]; // Номер задачи для каждой вершины объединения
+            int e = 0;
+            for (int i = 0; i < count; i++) {
+                CSRGraph graph = jobs.get(i).graph;
+                for (int v = 0; v < graph.vertexCount(); v++) {
+                    for (int k = graph.firstEdge(v); k < graph.lastEdge(v); k++) targets[e++] = base[i] + graph.target(k);
+                    offsets[base[i] + v + 1] = e;
+                    owner[base[i] + v] = i;
+                }
+            }
+            SCCResult union = jobs.get(0).engine.findSCCs(new CSRGraph(offsets, targets), null);
+            // Компоненты объединения - это компоненты отдельных графов: нумеруем их в каждом графе подряд
+            // в порядке номеров объединения, поэтому порядок нумерации (топологический и т.п.) сохраняется
+            int[][] componentOf = new int[count][];
+            for (int i = 0; i < count; i++) componentOf[i] = new int[base[i + 1] - base[i]];
+            int[] components = new int[count];
+            int[] members = union.getMembers();
+            int[] memberOffsets = union.getMemberOffsets();
+            for (int c = 0; c < union.getComponentCount(); c++) {
+                int i = owner[members[memberOffsets[c]]];
+                int local = components[i]++;
+                for (int k = memberOffsets[c]; k < memberOffsets[c + 1]; k++) {
+                    componentOf[i][members[k] - base[i]] = local;
+                }
+            }
+            for (int i = 0; i < count; i++) {
+                Job job = jobs.get(i);
+                SCCResult result = new SCCResult(componentOf[i], components[i], union.getOrder());
+                cache.put(job.graph, job.engine, result, null);
+                job.result.complete(result);
+            }
+        } catch (Throwable e) { // Любая ошибка (в том числе StackOverflowError) завершает ожидающие запросы
+            for (Job job : jobs) job.result.completeExceptionally(e);
+        }
+    }
+}
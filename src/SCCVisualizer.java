@@ -4,6 +4,9 @@ import javax.swing.border.TitledBorder;
 import java.awt.*;
 import java.io.*;
 import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import javax.swing.filechooser.FileNameExtensionFilter;
 
 // Главное окно приложения, содержащее все компоненты визуализации
@@ -17,8 +20,22 @@ public class SCCVisualizer extends JFrame {
     private GraphParamsPanel graphParamsPanel;
     // Панель для вывода логов
     private LogPanel logPanel;
+    // Панель метрик этапов алгоритма
+    private MetricsPanel metricsPanel;
     // Объект алгоритма поиска компонент
     private SCCAlgorithm algorithm;
+    // Воспроизведение шагов алгоритма
+    private PlaybackScheduler playback;
+    // Единственный фоновый поток для вычисления компонент (поток-демон, не мешает завершению программы)
+    private final ExecutorService computeExecutor = Executors.newSingleThreadExecutor(task -> {
+        Thread thread = new Thread(task, "scc-compute");
+        thread.setDaemon(true);
+        return thread;
+    });
+    // Запуск ожидает окончания вычисления компонент
+    private boolean startPending;
+    // Номер запроса вычисления (воспроизведение начинает только последний запрос)
+    private int computeGeneration;
 
     // Цвета для темной темы
     private final Color darkBackgroundColor = new Color(40, 40, 40); // Темно-серый фон
@@ -41,13 +58,16 @@ public class SCCVisualizer extends JFrame {
         setSize(1000, 700); // Устанавливаем размер окна
         setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE); // Устанавливаем действие при закрытии окна
         setLocationRelativeTo(null); // Центрируем окно на экране
+        computeExecutor.execute(SCCMetrics::init); // MBean и классы замера - в фоне, до первых вычислений
 
         // Инициализация компонентов
         algorithm = new SCCAlgorithm(); // Создаем объект алгоритма
         graphPanel = new GraphPanel(algorithm); // Создаем панель для рисования графа
+        playback = new PlaybackScheduler(this); // Создаем планировщик воспроизведения
         controlPanel = new ControlPanel(this); // Создаем панель управления
         graphParamsPanel = new GraphParamsPanel(this); // Создаем панель параметров графа
         logPanel = new LogPanel(); // Создаем панель для вывода логов
+        metricsPanel = new MetricsPanel(); // Создаем панель метрик
 
         // Настройка компоновки элементов
         JPanel mainPanel = new JPanel(new BorderLayout(10, 10)); // Создаем главную панель с компоновкой
@@ -59,7 +79,10 @@ public class SCCVisualizer extends JFrame {
         // Центральная панель (граф + логи)
         JPanel centerPanel = new JPanel(new GridLayout(1, 2, 10, 10)); // Создаем центральную панель с сеткой
         centerPanel.add(graphPanel); // Добавляем панель графа
-        centerPanel.add(logPanel); // Добавляем панель логов
+        JPanel outputPanel = new JPanel(new BorderLayout(10, 10)); // Логи и под ними метрики
+        outputPanel.add(logPanel, BorderLayout.CENTER); // Добавляем панель логов
+        outputPanel.add(metricsPanel, BorderLayout.SOUTH); // Добавляем панель метрик
+        centerPanel.add(outputPanel);
         mainPanel.add(centerPanel, BorderLayout.CENTER); // Размещаем центральную панель
 
         mainPanel.add(controlPanel, BorderLayout.SOUTH); // Добавляем панель управления в нижнюю часть
@@ -102,7 +125,7 @@ public class SCCVisualizer extends JFrame {
             } else if (component instanceof JButton) {
                 component.setBackground(buttonColor); // Устанавливаем цвет фона для кнопок
                 component.setForeground(foregroundColor); // Устанавливаем цвет текста для кнопок
-            } else if (component instanceof JCheckBox) {
+            } else if (component instanceof JCheckBox || component instanceof JSlider) {
                 component.setBackground(backgroundColor);
                 component.setForeground(foregroundColor);
             }
@@ -117,6 +140,9 @@ public class SCCVisualizer extends JFrame {
                     textArea.setBackground(backgroundColor);
                     textArea.setForeground(foregroundColor);
                     textArea.setCaretColor(foregroundColor);
+                } else if (viewport.getView() instanceof JList || viewport.getView() instanceof JTable) { // Лог и метрики
+                    viewport.getView().setBackground(backgroundColor);
+                    viewport.getView().setForeground(foregroundColor);
                 }
 
                 ((JScrollPane) component).setBorder(BorderFactory.createLineBorder(borderColor));
@@ -153,6 +179,25 @@ public class SCCVisualizer extends JFrame {
         fileMenu.add(themeItem);  // Добавляем пункт меню для смены темы
         menuBar.add(fileMenu);
 
+        JMenu viewMenu = new JMenu("Вид");
+        JMenuItem forceItem = new JMenuItem("Силовая раскладка");
+        JMenuItem circleItem = new JMenuItem("Раскладка по окружности");
+        JMenuItem fitItem = new JMenuItem("Показать весь граф");
+        JCheckBoxMenuItem metricsItem = new JCheckBoxMenuItem("Сбор метрик", SCCMetrics.get().isEnabled());
+
+        // Силовая раскладка считается в фоне, панель показывает ее по мере сходимости
+        forceItem.addActionListener(e -> graphPanel.startForceLayout());
+        circleItem.addActionListener(e -> graphPanel.useCircleLayout());
+        fitItem.addActionListener(e -> graphPanel.fitView());
+        // Выключенный сбор метрик не замеряет следующие запуски
+        metricsItem.addActionListener(e -> SCCMetrics.get().setEnabled(metricsItem.isSelected()));
+
+        viewMenu.add(forceItem);
+        viewMenu.add(circleItem);
+        viewMenu.add(fitItem);
+        viewMenu.add(metricsItem);
+        menuBar.add(viewMenu);
+
         setJMenuBar(menuBar);
     }
 
@@ -160,19 +205,30 @@ public class SCCVisualizer extends JFrame {
     private void exportGraph() {
         JFileChooser fileChooser = new JFileChooser();
         fileChooser.setDialogTitle("Сохранить граф");
-        fileChooser.setFileFilter(new FileNameExtensionFilter("Графы (*.graph)", "graph")); // Добавлено расширение фильтра
+        FileNameExtensionFilter graphFilter = new FileNameExtensionFilter("Графы (*.graph)", GraphFormat.EXTENSION);
+        FileNameExtensionFilter csrFilter = new FileNameExtensionFilter("Двоичный CSR (*.csr)", MappedCSRGraph.EXTENSION);
+        fileChooser.addChoosableFileFilter(graphFilter);
+        fileChooser.addChoosableFileFilter(csrFilter);
+        fileChooser.setFileFilter(graphFilter); // Добавлено расширение фильтра
 
         int userSelection = fileChooser.showSaveDialog(this);
 
         if (userSelection == JFileChooser.APPROVE_OPTION) {
             File fileToSave = fileChooser.getSelectedFile();
-            // Добавляем расширение .graph, если его нет
-            if (!fileToSave.getName().toLowerCase().endsWith(".graph")) {
-                fileToSave = new File(fileToSave.getAbsolutePath() + ".graph");
+            boolean csr = fileToSave.getName().toLowerCase().endsWith("." + MappedCSRGraph.EXTENSION)
+                    || fileChooser.getFileFilter() == csrFilter;
+            // Добавляем расширение .graph (или .csr), если его нет
+            String extension = "." + (csr ? MappedCSRGraph.EXTENSION : GraphFormat.EXTENSION);
+            if (!fileToSave.getName().toLowerCase().endsWith(extension)) {
+                fileToSave = new File(fileToSave.getAbsolutePath() + extension);
             }
 
-            try (ObjectOutputStream oos = new ObjectOutputStream(new FileOutputStream(fileToSave))) {
-                oos.writeObject(algorithm.getGraph());
+            try {
+                if (csr) { // Двоичный CSR для отображения в память
+                    MappedCSRGraph.write(fileToSave.toPath(), algorithm.getCSRGraph());
+                } else { // Компактный формат с контрольными суммами
+                    GraphFormat.write(fileToSave.toPath(), algorithm.getCSRGraph());
+                }
                 logPanel.append("Граф экспортирован в " + fileToSave.getAbsolutePath() + "\n");
             } catch (IOException e) {
                 JOptionPane.showMessageDialog(this, "Ошибка при экспорте графа: " + e.getMessage(), "Ошибка", JOptionPane.ERROR_MESSAGE);
@@ -184,19 +240,25 @@ public class SCCVisualizer extends JFrame {
     private void importGraph() {
         JFileChooser fileChooser = new JFileChooser();
         fileChooser.setDialogTitle("Импортировать граф");
-        fileChooser.setFileFilter(new FileNameExtensionFilter("Графы (*.graph)", "graph")); // Добавлено расширение фильтра
+        fileChooser.addChoosableFileFilter(new FileNameExtensionFilter("Двоичный CSR (*.csr)", MappedCSRGraph.EXTENSION));
+        fileChooser.setFileFilter(new FileNameExtensionFilter("Графы (*.graph)", GraphFormat.EXTENSION)); // Добавлено расширение фильтра
 
         int userSelection = fileChooser.showOpenDialog(this);
 
         if (userSelection == JFileChooser.APPROVE_OPTION) {
             File fileToLoad = fileChooser.getSelectedFile();
 
-            try (ObjectInputStream ois = new ObjectInputStream(new FileInputStream(fileToLoad))) {
-                List<List<Integer>> importedGraph = (List<List<Integer>>) ois.readObject();
-                algorithm.setGraph(importedGraph);
+            try {
+                stopVisualization(); // Ожидающий запуск относится к прежнему графу
+                if (fileToLoad.getName().toLowerCase().endsWith("." + MappedCSRGraph.EXTENSION)) {
+                    // Файл отображается в память без чтения и копирования ребер
+                    algorithm.setCSRGraph(MappedCSRGraph.open(fileToLoad.toPath()));
+                } else { // Текущий формат .graph или старый сериализованный список смежности
+                    algorithm.setCSRGraph(GraphFormat.read(fileToLoad.toPath()));
+                }
                 graphPanel.repaint();
                 logPanel.append("Граф импортирован из " + fileToLoad.getAbsolutePath() + "\n");
-            } catch (IOException | ClassNotFoundException e) {
+            } catch (IOException e) {
                 JOptionPane.showMessageDialog(this, "Ошибка при импорте графа: " + e.getMessage(), "Ошибка", JOptionPane.ERROR_MESSAGE);
             }
         }
@@ -204,13 +266,14 @@ public class SCCVisualizer extends JFrame {
 
     // Сброс всех данных
     public void resetData() {
+        stopVisualization(); // Останавливаем воспроизведение
         algorithm.reset(); // Сбрасываем состояние алгоритма
         graphPanel.repaint(); // Перерисовываем граф
         logPanel.clear(); // Очищаем логи
         controlPanel.updateStepInfo(0, 0); // Сбрасываем счетчик шагов
     }
 
-    // Генерация случайного графа
+    // Генерация случайного графа выбранным генератором
     public void generateGraphAutomatically() {
         try {
             // Получаем количество вершин из текстового поля
@@ -222,22 +285,30 @@ public class SCCVisualizer extends JFrame {
                         JOptionPane.ERROR_MESSAGE);
                 return;
             }
-            algorithm.generateRandomGraph(vertexCount); // Генерируем граф
-            logPanel.append("Сгенерирован граф с " + vertexCount + " вершинами\n"); // Логируем информацию о графе
+            GraphGenerator generator = graphParamsPanel.getGenerator();
+            double[] parameters = graphParamsPanel.getParameters();
+            String seedText = graphParamsPanel.getSeed();
+            long seed = seedText.isEmpty() ? new SplittableRandom().nextLong() : Long.parseLong(seedText);
+            stopVisualization(); // Ожидающий запуск относится к прежнему графу
+            algorithm.generateGraph(generator, vertexCount, parameters, seed); // Генерируем граф
+            logPanel.append("Сгенерирован граф с " + vertexCount + " вершинами и " + algorithm.getCSRGraph().edgeCount()
+                    + " ребрами (" + generator.getName() + ", зерно " + seed + ")\n"); // Логируем информацию о графе
             graphPanel.repaint(); // Обновляем отображение графа
         } catch (NumberFormatException e) {
             // Показываем сообщение об ошибке
             JOptionPane.showMessageDialog(this,
-                    "Некорректное число вершин", // Текст ошибки
+                    "Некорректное число вершин, параметр или зерно", // Текст ошибки
                     "Ошибка", // Заголовок окна ошибки
                     JOptionPane.ERROR_MESSAGE); // Тип сообщения
+        } catch (IllegalArgumentException e) { // Недопустимые параметры генератора
+            JOptionPane.showMessageDialog(this, e.getMessage(), "Ошибка", JOptionPane.ERROR_MESSAGE);
         }
     }
 
     // Запуск/продолжение визуализации алгоритма
     public void startVisualization() {
         // Проверяем, что граф создан
-        if (algorithm.getGraph().isEmpty()) { // Если граф пуст
+        if (algorithm.getCSRGraph().vertexCount() == 0) { // Если граф пуст
             JOptionPane.showMessageDialog(this,
                     "Граф не создан", // Текст ошибки
                     "Ошибка", // Заголовок окна ошибки
@@ -245,57 +316,86 @@ public class SCCVisualizer extends JFrame {
             return; // Выходим из метода
         }
 
-        // Если алгоритм еще не начат - инициализируем
-        if (algorithm.getExecutionPosition() == 0) { // Если алгоритм не запущен
-            new Thread(() -> {
-                algorithm.findSCCs(); // Запускаем алгоритм для поиска компонент
-                startVisualizationThread(); // Запускаем поток визуализации
-            }).start(); // Запускаем новый поток
+        if (playback.isRunning() || startPending) return; // Уже запущено
+
+        // Большой граф: шаги вычисляются по мере воспроизведения. Долгая подготовка (обращение графа)
+        // выполняется в фоновом потоке, затем воспроизведение начинается с первого шага
+        if (algorithm.getExecutionPosition() == 0 && algorithm.isStepwise()) {
+            if (!algorithm.getEngine().isSuspendable()) { // Иначе весь поиск и весь журнал легли бы на поток событий
+                JOptionPane.showMessageDialog(this,
+                        "Алгоритм \"" + algorithm.getEngine().getName() + "\" не умеет приостанавливаться, поэтому граф из "
+                                + algorithm.getCSRGraph().vertexCount() + " вершин нельзя воспроизвести по шагам.\n"
+                                + "Выберите алгоритм Косарайю или уменьшите граф",
+                        "Пошаговое воспроизведение недоступно", JOptionPane.WARNING_MESSAGE);
+                return;
+            }
+            SCCExecution execution = algorithm.startSCCs();
+            startPending = true;
+            controlPanel.setRunning(true);
+            int generation = ++computeGeneration;
+            computeExecutor.execute(() -> {
+                execution.prepare();
+                SwingUtilities.invokeLater(() -> {
+                    if (!startPending || generation != computeGeneration) return; // Остановлено или перезапущено
+                    startPending = false;
+                    controlPanel.setRunning(false);
+                    playback.start(true);
+                });
+            });
+        } else if (algorithm.getExecutionPosition() == 0) {
+            // Если алгоритм еще не начат - вычисляем компоненты в фоновом потоке и воспроизводим с начала
+            startPending = true;
+            controlPanel.setRunning(true);
+            int generation = ++computeGeneration;
+            // Фоновый поток пишет только в computation: журнал и результат алгоритма, которые читает
+            // отрисовка, заменяются в потоке событий. Индекс журнала строится в фоне, а не при первом переходе
+            SCCAlgorithm.Computation computation = algorithm.prepareSCCs();
+            computeExecutor.execute(() -> {
+                computation.run().indexTrace();
+                SwingUtilities.invokeLater(() -> {
+                    if (!startPending || generation != computeGeneration) return; // Остановлено или перезапущено
+                    startPending = false;
+                    controlPanel.setRunning(false);
+                    if (!algorithm.publish(computation)) return; // Граф или алгоритм уже заменены
+                    algorithm.setCurrentStep(0);
+                    playback.start(true); // Первым показывается шаг 0
+                });
+            });
         } else {
-            // Продолжение выполнения
-            startVisualizationThread(); // Запускаем поток визуализации
+            // Продолжение выполнения со следующего шага
+            playback.start(false);
         }
     }
 
-    // Поток визуализации выполнения алгоритма
-    private void startVisualizationThread() {
-        new Thread(() -> {
-            controlPanel.setRunning(true); // Устанавливаем флаг работы панели управления
-
-            // Продолжаем с текущего шага
-            for (int i = algorithm.getCurrentStep(); i < algorithm.getSteps().size(); i++) { // Проходим по шагам алгоритма
-                if (!controlPanel.isRunning()) { // Если панель управления не работает
-                    // Сохраняем позицию для продолжения
-                    algorithm.setExecutionPosition(algorithm.getCurrentStep()); // Устанавливаем текущую позицию выполнения
-                    break; // Выходим из цикла
-                }
-
-                final int step = i; // Сохраняем текущий шаг
-                // Обновляем GUI в основном потоке
-                SwingUtilities.invokeLater(() -> {
-                    algorithm.setCurrentStep(step); // Устанавливаем текущий шаг в алгоритме
-                    // Обновляем информацию о шагах
-                    controlPanel.updateStepInfo(step + 1, algorithm.getSteps().size()); // Обновляем информацию о текущем шаге
-                    logPanel.append(algorithm.getSteps().get(step) + "\n"); // Добавляем шаг в лог
-                    graphPanel.repaint(); // Перерисовываем граф
-                });
+    // Переход к шагу step (ползунок): воспроизведение останавливается, а состояние алгоритма на шаге
+    // восстанавливается по индексу журнала; продолжение начнется со следующего шага.
+    // При пошаговом выполнении переход возможен только в пределах хранимого окна журнала
+    public void seekStep(int step) {
+        int total = algorithm.getTrace().size();
+        if (startPending || total == 0) return; // Журнал еще не готов
+        playback.pause();
+        step = Math.max(algorithm.getTrace().getStart(), Math.min(total - 1, step));
+        algorithm.setCurrentStep(step);
+        // С последнего шага завершенного поиска - новый запуск
+        algorithm.setExecutionPosition(step < total - 1 || !algorithm.isComplete() ? step : 0);
+        controlPanel.updateStepInfo(step + 1, total);
+        graphPanel.repaint(); // Раскраска по состоянию на новом шаге
+    }
 
-                try {
-                    Thread.sleep(controlPanel.getDelay()); // Задержка между шагами
-                } catch (InterruptedException e) {
-                    Thread.currentThread().interrupt(); // Прерывание потока
-                }
-            }
+    // Остановка визуализации с сохранением позиции для продолжения. Отменяет ожидающий запуск: его фоновое
+    // вычисление завершится, но не будет опубликовано, поэтому перед заменой графа или алгоритма
+    // нужно вызывать этот метод
+    public void stopVisualization() {
+        if (startPending) { // Компоненты еще вычисляются - воспроизведение не начнется
+            startPending = false;
+            controlPanel.setRunning(false);
+        }
+        playback.pause();
+    }
 
-            // После завершения обновляем состояние
-            SwingUtilities.invokeLater(() -> {
-                controlPanel.setRunning(false); // Снимаем флаг работы панели управления
-                // Если алгоритм завершен полностью
-                if (algorithm.getCurrentStep() >= algorithm.getSteps().size() - 1) { // Если достигнут последний шаг
-                    algorithm.setExecutionPosition(0); // Сбрасываем позицию выполнения
-                }
-            });
-        }).start(); // Запускаем новый поток
+    // Ожидается окончание фонового вычисления перед запуском (переходы по шагам недоступны)
+    public boolean isStartPending() {
+        return startPending;
     }
 
     // Отображение результатов работы алгоритма
@@ -306,6 +406,9 @@ public class SCCVisualizer extends JFrame {
         for (List<Integer> scc : algorithm.getSCCs()) { // Проходим по найденным компонентам
             sb.append(scc).append("\n"); // Добавляем компоненту в строку
         }
+        CSRGraph condensation = algorithm.getCondensation(); // Граф конденсации
+        sb.append("Граф конденсации: ").append(condensation.vertexCount()).append(" вершин, ")
+                .append(condensation.edgeCount()).append(" ребер\n");
         logPanel.append(sb.toString()); // Выводим результаты в лог
     }
 
@@ -314,6 +417,14 @@ public class SCCVisualizer extends JFrame {
         return graphPanel;
     } // Геттер для панели графа
 
+    public ControlPanel getControlPanel() {
+        return controlPanel;
+    } // Геттер для панели управления
+
+    public PlaybackScheduler getPlayback() {
+        return playback;
+    } // Геттер для планировщика воспроизведения
+
     public LogPanel getLogPanel() {
         return logPanel;
     } // Геттер для панели логов
@@ -0,0 +1,120 @@
+import java.io.Serializable;
+import java.util.Arrays;
+
+// Компактный журнал шагов алгоритма.
+// Каждое событие хранится как тройка int (тип, вершина, вершина) в одном массиве,
+// текст шага формируется только при выводе в лог.
+// Журнал может хранить только окно последних событий: discardBefore освобождает начало журнала,
+// номера событий при этом не меняются
+public class StepTrace implements Serializable {
+    // Типы событий журнала
+    public enum Type {
+        PHASE, // Начало этапа алгоритма, first - номер этапа
+        VISIT, // Посещение вершины first
+        TRAVERSE, // Переход по ребру first -> second
+        PUSH, // Вершина first добавлена в стек
+        COMPONENT // Найдена компонента с индексом first
+    }
+
+    // Номера этапов для событий PHASE
+    public static final int FIRST_PASS = 0; // Первый проход DFS
+    public static final int TRANSPOSE = 1; // Построение обращенного графа
+    public static final int SECOND_PASS = 2; // Второй проход DFS
+
+    private static final Type[] TYPES = Type.values(); // Кэш значений перечисления для декодирования
+    private static final int RECORD = 3; // Количество int на одно событие
+
+    private int[] records = new int[RECORD * 64]; // Упакованные события
+    private int size; // Количество событий (включая отброшенные)
+    private int start; // Номер первого хранимого события
+    private int head; // Позиция первого хранимого события в records
+
+    // Добавление события, type тип, first и second вершины (или номер этапа/компоненты)
+    public void add(Type type, int first, int second) {
+        int position = head + (size - start) * RECORD;
+        if (position == records.length) {
+            if (head >= records.length / 2) { // Отброшена половина массива - сдвигаем хранимые события в начало
+                System.arraycopy(records, head, records, 0, position - head);
+            } else { // Расширяем массив при заполнении, хранимые события переносятся в начало нового массива
+                records = Arrays.copyOfRange(records, head, head + records.length * 2);
+            }
+            position -= head;
+            head = 0;
+        }
+        records[position] = type.ordinal();
+        records[position + 1] = first;
+        records[position + 2] = second;
+        size++;
+    }
+
+    // Добавление события с одним аргументом
+    public void add(Type type, int first) {
+        add(type, first, -1);
+    }
+
+    // Количество событий (номер следующего события)
+    public int size() {
+        return size;
+    }
+
+    // Номер первого хранимого события (0 - журнал хранится целиком)
+    public int getStart() {
+        return start;
+    }
+
+    // Память под события в байтах
+    public long getByteSize() {
+        return 4L * records.length;
+    }
+
+    // Освобождение неиспользуемой части массива событий (для журнала, который больше не пополняется)
+    public void trimToSize() {
+        int used = (size - start) * RECORD;
+        if (head == 0 && used == records.length) return;
+        records = Arrays.copyOfRange(records, head, head + Math.max(used, RECORD));
+        head = 0;
+    }
+
+    // Событие index хранится в журнале
+    public boolean contains(int index) {
+        return index >= start && index < size;
+    }
+
+    // Освобождение событий с номерами меньше index
+    public void discardBefore(int index) {
+        index = Math.min(index, size);
+        if (index <= start) return;
+        head += (index - start) * RECORD;
+        start = index;
+    }
+
+    // Тип события с номером index
+    public Type type(int index) {
+        return TYPES[records[offset(index)]];
+    }
+
+    // Первый аргумент события
+    public int first(int index) {
+        return records[offset(index) + 1];
+    }
+
+    // Второй аргумент события
+    public int second(int index) {
+        return records[offset(index) + 2];
+    }
+
+    // Очистка журнала (память под события сохраняется для повторного использования)
+    public void clear() {
+        size = 0;
+        start = 0;
+        head = 0;
+    }
+
+    // Проверка номера события и его позиция в records
+    private int offset(int index) {
+        if (index < start || index >= size) {
+            throw new IndexOutOfBoundsException("Шаг " + index + " вне журнала (хранятся шаги " + start + ".." + (size - 1) + ")");
+        }
+        return head + (index - start) * RECORD;
+    }
+}
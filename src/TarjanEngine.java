@@ -0,0 +1,78 @@
+import java.util.Arrays;
+
+// Алгоритм Тарьяна: один проход DFS с вычислением low-link значений.
+// Компоненты нумеруются в порядке завершения (обратный топологический порядок графа конденсации)
+public class TarjanEngine implements SCCEngine {
+
+    @Override
+    public String getName() {
+        return "Тарьян";
+    }
+
+    @Override
+    public SCCResult findSCCs(CSRGraph graph, StepTrace trace) {
+        int V = graph.vertexCount(); // Количество вершин
+        int[] index = new int[V]; // Время входа в вершину (-1 - не посещена)
+        Arrays.fill(index, -1);
+        int[] low = new int[V]; // Наименьшее время входа, достижимое из поддерева
+        boolean[] onStack = new boolean[V]; // Вершина находится в стеке Тарьяна
+        int[] tarjanStack = new int[V]; // Стек вершин незавершенных компонент
+        int tarjanTop = 0;
+        int[] callStack = new int[V]; // Явный стек обхода
+        int[] cursor = new int[V]; // Курсоры ребер
+        int[] componentOf = new int[V]; // Номер компоненты вершины
+        int[] members = new int[V]; // Вершины компонент в порядке извлечения из стека
+        int[] memberOffsets = new int[V + 1];
+        int memberCount = 0;
+        int count = 0; // Количество найденных компонент
+        int time = 0; // Счетчик времени входа
+
+        for (int s = 0; s < V; s++) {
+            if (index[s] >= 0) continue; // Вершина уже обработана
+            int top = 0;
+            callStack[top++] = s;
+            index[s] = low[s] = time++;
+            tarjanStack[tarjanTop++] = s;
+            onStack[s] = true;
+            cursor[s] = graph.firstEdge(s);
+            if (trace != null) trace.add(StepTrace.Type.VISIT, s);
+
+            while (top > 0) {
+                int v = callStack[top - 1]; // Текущая вершина
+                if (cursor[v] < graph.lastEdge(v)) { // Есть непросмотренные ребра
+                    int to = graph.target(cursor[v]++);
+                    if (index[to] < 0) { // Сосед не посещен - спускаемся
+                        if (trace != null) trace.add(StepTrace.Type.TRAVERSE, v, to);
+                        index[to] = low[to] = time++;
+                        tarjanStack[tarjanTop++] = to;
+                        onStack[to] = true;
+                        cursor[to] = graph.firstEdge(to);
+                        if (trace != null) trace.add(StepTrace.Type.VISIT, to);
+                        callStack[top++] = to;
+                    } else if (onStack[to] && index[to] < low[v]) { // Обратное или поперечное ребро внутри компоненты
+                        low[v] = index[to];
+                    }
+                } else { // Вершина завершена
+                    top--;
+                    if (low[v] == index[v]) { // v - корень компоненты: извлекаем ее из стека
+                        int w;
+                        do {
+                            w = tarjanStack[--tarjanTop];
+                            onStack[w] = false;
+                            componentOf[w] = count;
+                            members[memberCount++] = w;
+                        } while (w != v);
+                        memberOffsets[++count] = memberCount;
+                        if (trace != null) trace.add(StepTrace.Type.COMPONENT, count - 1);
+                    }
+                    if (top > 0) { // Передаем low-link родителю
+                        int parent = callStack[top - 1];
+                        if (low[v] < low[parent]) low[parent] = low[v];
+                    }
+                }
+            }
+        }
+        return new SCCResult(componentOf, count, members, Arrays.copyOf(memberOffsets, count + 1),
+                SCCResult.Order.REVERSE_TOPOLOGICAL, null);
+    }
+}
@@ -0,0 +1,254 @@
+import java.util.Arrays;
+
+// Индекс журнала шагов для перехода к произвольному шагу.
+// Для каждой вершины запоминается номер события, в котором она впервые посещена и добавлена в стек,
+// для каждой компоненты - событие, в котором она найдена, поэтому принадлежность вершины к посещенным,
+// стеку и найденным компонентам на любом шаге проверяется за O(1).
+// Счетчики состояния (этап, число посещенных, размер стека, число найденных компонент) сохраняются
+// в контрольных точках каждые CHECKPOINT_INTERVAL событий; состояние на шаге восстанавливается
+// от ближайшей предшествующей точки повтором не более CHECKPOINT_INTERVAL событий.
+// Стек - стек порядка завершения (события PUSH), а для алгоритмов без них - посещенные вершины,
+// еще не отнесенные к компоненте (стек Тарьяна и его аналоги). Верх стека находится деревом максимумов
+// по шагам снятия вершин со стека за O(log V) на вершину
+public class TraceIndex {
+    public static final int CHECKPOINT_INTERVAL = 4096; // Событий между контрольными точками
+    private static final int NEVER = Integer.MAX_VALUE; // Событие не происходило
+
+    // Поля контрольной точки
+    private static final int PHASE = 0; // Текущий этап (-1 - до первого этапа)
+    private static final int VISITED = 1; // Посещено вершин
+    private static final int PUSHED = 2; // Добавлено в стек вершин
+    private static final int STACK = 3; // Размер стека
+    private static final int COMPONENTS = 4; // Найдено компонент
+    private static final int ASSIGNED = 5; // Вершин в найденных компонентах
+    private static final int FIELDS = 6;
+
+    private final StepTrace trace; // Журнал
+    private final int size; // Событий в журнале на момент построения
+    private final int[] componentOf; // Компонента вершины
+    private final int[] componentSizes; // Размеры компонент
+    private final int[] visitStep; // Событие первого посещения вершины
+    private final int[] pushStep; // Событие добавления вершины в стек
+    private final int[] componentStep; // Событие, в котором найдена компонента
+    private final int[] stackDrop; // Сколько вершин компоненты уходит из стека, когда она найдена
+    private final int[] visitOrder; // Вершины в порядке посещения
+    private final int[] pushOrder; // Вершины в порядке добавления в стек
+    private final boolean pushes; // Журнал содержит события PUSH (стек - порядок завершения)
+    private final int[] stackOrder; // Вершины в порядке попадания в стек (pushOrder или visitOrder)
+    private final int leaves; // Число листьев дерева (степень двойки)
+    private final int[] removal; // Дерево максимумов шагов, в которых вершины stackOrder снимаются со стека
+    private final int[] checkpoints; // Счетчики перед событиями 0, K, 2K, ...
+
+    // Состояние алгоритма после выполнения шага
+    public static final class State {
+        private final int step;
+        private final int[] counters;
+
+        private State(int step, int[] counters) {
+            this.step = step;
+            this.counters = counters;
+        }
+
+        // Шаг, после которого взято состояние
+        public int getStep() {
+            return step;
+        }
+
+        // Текущий этап (StepTrace.FIRST_PASS и т.д., -1 - алгоритм без этапов)
+        public int getPhase() {
+            return counters[PHASE];
+        }
+
+        // Число посещенных вершин
+        public int getVisitedCount() {
+            return counters[VISITED];
+        }
+
+        // Число вершин в стеке
+        public int getStackSize() {
+            return counters[STACK];
+        }
+
+        // Число найденных компонент
+        public int getComponentCount() {
+            return counters[COMPONENTS];
+        }
+
+        // Число вершин в найденных компонентах
+        public int getAssignedCount() {
+            return counters[ASSIGNED];
+        }
+    }
+
+    // Построение индекса журнала trace, записанного при поиске компонент с результатом result
+    public TraceIndex(StepTrace trace, SCCResult result) {
+        this.trace = trace;
+        this.size = trace.size();
+        int V = result.getVertexCount();
+        int C = result.getComponentCount();
+        componentOf = result.getComponentOf();
+        componentSizes = result.getComponentSizes();
+        visitStep = new int[V];
+        pushStep = new int[V];
+        componentStep = new int[C];
+        Arrays.fill(visitStep, NEVER);
+        Arrays.fill(pushStep, NEVER);
+        Arrays.fill(componentStep, NEVER);
+        int[] visits = new int[V];
+        int[] pushed = new int[V];
+        int visitCount = 0;
+        int pushCount = 0;
+        for (int i = 0; i < size; i++) { // Первые события каждой вершины и компоненты
+            int first = trace.first(i);
+            switch (trace.type(i)) {
+                case VISIT:
+                    if (first >= 0 && first < V && visitStep[first] == NEVER) {
+                        visitStep[first] = i;
+                        visits[visitCount++] = first;
+                    }
+                    break;
+                case PUSH:
+                    if (first >= 0 && first < V && pushStep[first] == NEVER) {
+                        pushStep[first] = i;
+                        pushed[pushCount++] = first;
+                    }
+                    break;
+                case COMPONENT:
+                    if (first >= 0 && first < C && componentStep[first] == NEVER) componentStep[first] = i;
+                    break;
+                default:
+                    break;
+            }
+        }
+        visitOrder = Arrays.copyOf(visits, visitCount);
+        pushOrder = Arrays.copyOf(pushed, pushCount);
+        pushes = pushCount > 0;
+        stackDrop = new int[C];
+        int[] entered = pushes ? pushStep : visitStep; // Событие попадания вершины в стек
+        for (int v = 0; v < V; v++) {
+            int c = componentOf[v];
+            if (entered[v] < componentStep[c]) stackDrop[c]++; // Вершина была в стеке, когда компонента найдена
+        }
+
+        stackOrder = pushes ? pushOrder : visitOrder;
+        int capacity = 1;
+        while (capacity < stackOrder.length) capacity <<= 1;
+        leaves = capacity;
+        removal = new int[2 * leaves];
+        Arrays.fill(removal, Integer.MIN_VALUE); // Пустые листья
+        for (int i = 0; i < stackOrder.length; i++) removal[leaves + i] = componentStep[componentOf[stackOrder[i]]];
+        for (int node = leaves - 1; node >= 1; node--) removal[node] = Math.max(removal[2 * node], removal[2 * node + 1]);
+
+        checkpoints = new int[((size + CHECKPOINT_INTERVAL - 1) / CHECKPOINT_INTERVAL + 1) * FIELDS];
+        int[] counters = new int[FIELDS];
+        counters[PHASE] = -1;
+        for (int i = 0; i < size; i++) {
+            if (i % CHECKPOINT_INTERVAL == 0) {
+                System.arraycopy(counters, 0, checkpoints, i / CHECKPOINT_INTERVAL * FIELDS, FIELDS);
+            }
+            apply(i, counters);
+        }
+    }
+
+    // Изменение счетчиков событием index
+    private void apply(int index, int[] counters) {
+        int first = trace.first(index);
+        switch (trace.type(index)) {
+            case PHASE:
+                counters[PHASE] = first;
+                break;
+            case VISIT:
+                if (first >= 0 && first < visitStep.length && visitStep[first] == index) {
+                    counters[VISITED]++;
+                    if (!pushes) counters[STACK]++;
+                }
+                break;
+            case PUSH:
+                if (first >= 0 && first < pushStep.length && pushStep[first] == index) {
+                    counters[PUSHED]++;
+                    counters[STACK]++;
+                }
+                break;
+            case COMPONENT:
+                if (first >= 0 && first < componentStep.length && componentStep[first] == index) {
+                    counters[COMPONENTS]++;
+                    counters[ASSIGNED] += componentSizes[first];
+                    counters[STACK] -= stackDrop[first];
+                }
+                break;
+            default:
+                break;
+        }
+    }
+
+    // Индекс построен для журнала trace в его текущем виде
+    public boolean matches(StepTrace trace, SCCResult result) {
+        return this.trace == trace && size == trace.size() && componentOf == result.getComponentOf();
+    }
+
+    // Число событий журнала
+    public int size() {
+        return size;
+    }
+
+    // Состояние после выполнения шага step (-1 - до первого шага): контрольная точка и повтор
+    // не более CHECKPOINT_INTERVAL событий
+    public State stateAt(int step) {
+        int last = Math.min(step, size - 1);
+        int[] counters = new int[FIELDS];
+        if (last < 0) {
+            counters[PHASE] = -1;
+            return new State(step, counters);
+        }
+        int checkpoint = last / CHECKPOINT_INTERVAL;
+        System.arraycopy(checkpoints, checkpoint * FIELDS, counters, 0, FIELDS);
+        for (int i = checkpoint * CHECKPOINT_INTERVAL; i <= last; i++) apply(i, counters);
+        return new State(step, counters);
+    }
+
+    // Вершина v посещена к шагу step
+    public boolean isVisited(int v, int step) {
+        return visitStep[v] <= step;
+    }
+
+    // Вершина v находится в стеке после шага step
+    public boolean isOnStack(int v, int step) {
+        return (pushes ? pushStep[v] : visitStep[v]) <= step && !isAssigned(v, step);
+    }
+
+    // Компонента вершины v найдена к шагу step
+    public boolean isAssigned(int v, int step) {
+        return componentStep[componentOf[v]] <= step;
+    }
+
+    // Компонента c найдена к шагу step
+    public boolean isFound(int c, int step) {
+        return componentStep[c] <= step;
+    }
+
+    // До limit вершин с вершины стека вниз в состоянии state
+    public int[] stackTop(State state, int limit) {
+        int entered = pushes ? state.counters[PUSHED] : state.counters[VISITED]; // Вершин, попавших в стек к шагу
+        int[] top = new int[Math.min(limit, state.getStackSize())];
+        int count = 0;
+        for (int i = previousOnStack(entered, state.getStep()); i >= 0 && count < top.length;
+             i = previousOnStack(i, state.getStep())) {
+            top[count++] = stackOrder[i];
+        }
+        return count == top.length ? top : Arrays.copyOf(top, count);
+    }
+
+    // Наибольший номер i < end в stackOrder, вершина которого еще в стеке после шага step (-1 - такой нет).
+    // Вершины найденных компонент пропускаются целыми поддеревьями
+    private int previousOnStack(int end, int step) {
+        return previousOnStack(1, 0, leaves, end, step);
+    }
+
+    private int previousOnStack(int node, int from, int to, int end, int step) {
+        if (from >= end || removal[node] <= step) return -1; // Правее end или все вершины поддерева сняты
+        if (to - from == 1) return from;
+        int middle = (from + to) >>> 1;
+        int right = previousOnStack(2 * node + 1, middle, to, end, step);
+        return right >= 0 ? right : previousOnStack(2 * node, from, middle, end, step);
+    }
+}
@@ -0,0 +1,5 @@
+// Уровень записи шагов алгоритма
+public enum TraceLevel {
+    FULL, // Полный журнал шагов для визуализации
+    NONE // Без журнала: только результат (пакетная обработка)
+}
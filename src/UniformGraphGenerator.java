@@ -0,0 +1,88 @@
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+// Генератор исходной модели приложения: каждая вершина делает случайное число попыток
+// (от 0 до доли числа вершин) провести ребро в случайную вершину, петли и повторы отбрасываются.
+// Повторы отсекаются отметками вершин (отметка - номер текущей вершины + 1), поэтому
+// каждая попытка стоит O(1), а не O(степени). Вершины обрабатываются параллельно блоками,
+// у каждого блока свой поток SplittableRandom; порядок соседей - порядок попыток.
+// Блоки объединяются в задачи (несколько на поток), массив отметок создается на задачу и
+// освобождается вместе с ней
+public class UniformGraphGenerator implements GraphGenerator {
+    private static final int BLOCK = 1 << 10; // Вершин в одном блоке генерации
+    private static final int TASKS_PER_THREAD = 4; // Задач генерации на поток (для равномерной загрузки)
+    private static final int MAX_EDGES = Integer.MAX_VALUE - 8; // Наибольшее число ребер графа CSR
+
+    @Override
+    public String getName() {
+        return "Равномерный (исходная модель)";
+    }
+
+    @Override
+    public String[] getParameterNames() {
+        return new String[]{"Доля попыток"};
+    }
+
+    @Override
+    public double[] getDefaultParameters() {
+        return new double[]{0.5};
+    }
+
+    @Override
+    public CSRGraph generate(int vertexCount, double[] parameters, long seed) {
+        double share = EdgeSampler.check(parameters[0], 0, 1, getParameterNames()[0]);
+        int bound = (int) (vertexCount * share) + 1; // Число попыток равномерно в [0, bound)
+        if ((double) vertexCount * (bound - 1) / 2 > MAX_EDGES) { // Заведомо слишком много (по ожидаемому числу)
+            throw tooManyEdges(vertexCount);
+        }
+        int V = vertexCount;
+        int blocks = (V + BLOCK - 1) / BLOCK;
+        SplittableRandom root = new SplittableRandom(seed);
+        long[] blockSeeds = new long[blocks]; // Зерна блоков не зависят от порядка выполнения
+        for (int b = 0; b < blocks; b++) blockSeeds[b] = root.nextLong();
+
+        int tasks = Math.max(1, Math.min(blocks, TASKS_PER_THREAD * ForkJoinPool.getCommonPoolParallelism()));
+        int[][] blockTargets = new int[blocks][];
+        int[] degrees = new int[V];
+        IntStream.range(0, tasks).parallel().forEach(t -> {
+            int[] mark = new int[V]; // Отметки посещенных концов (номера вершин уникальны во всех блоках задачи)
+            for (int b = (int) ((long) blocks * t / tasks); b < (int) ((long) blocks * (t + 1) / tasks); b++) {
+                SplittableRandom random = new SplittableRandom(blockSeeds[b]);
+                int[] targets = new int[16];
+                int count = 0;
+                for (int v = b * BLOCK; v < Math.min(V, (b + 1) * BLOCK); v++) {
+                    int attempts = random.nextInt(bound);
+                    for (int j = 0; j < attempts; j++) {
+                        int to = random.nextInt(V);
+                        if (to != v && mark[to] != v + 1) { // Ни петель, ни повторов
+                            mark[to] = v + 1;
+                            if (count == targets.length) targets = Arrays.copyOf(targets, count * 2);
+                            targets[count++] = to;
+                            degrees[v]++;
+                        }
+                    }
+                }
+                blockTargets[b] = Arrays.copyOf(targets, count);
+            }
+        });
+
+        int[] offsets = new int[V + 1];
+        long total = 0; // Число ребер случайно и может превысить ожидаемое, поэтому суммируется в long
+        for (int v = 0; v < V; v++) {
+            total += degrees[v];
+            if (total > MAX_EDGES) throw tooManyEdges(vertexCount);
+            offsets[v + 1] = (int) total;
+        }
+        int[] targets = new int[offsets[V]];
+        for (int b = 0; b < blocks; b++) {
+            System.arraycopy(blockTargets[b], 0, targets, offsets[b * BLOCK], blockTargets[b].length);
+        }
+        return new CSRGraph(offsets, targets);
+    }
+
+    private static IllegalArgumentException tooManyEdges(int vertexCount) {
+        return new IllegalArgumentException("Слишком много ребер для " + vertexCount + " вершин, уменьшите долю попыток");
+    }
+}
@@ -0,0 +1,97 @@
+// Потоковый xxHash64 над последовательностью int (каждое число - 4 байта little-endian, как в массиве,
+// записанном в файл), используется как ключ содержимого графа (см. CSRGraph.contentHash).
+// Полосы по 32 байта (8 чисел) обрабатываются четырьмя независимыми аккумуляторами, остаток копится в pending
+public final class XXHash64 {
+    private static final long P1 = 0x9E3779B185EBCA87L;
+    private static final long P2 = 0xC2B2AE3D27D4EB4FL;
+    private static final long P3 = 0x165667B19E3779F9L;
+    private static final long P4 = 0x85EBCA77C2B2AE63L;
+    private static final long P5 = 0x27D4EB2F165667C5L;
+    private static final int STRIPE = 8; // Чисел в полосе
+
+    private final long seed;
+    private long v1, v2, v3, v4; // Аккумуляторы полос
+    private long length; // Обработано байт
+    private final int[] pending = new int[STRIPE]; // Числа неполной полосы
+    private int pendingCount;
+
+    public XXHash64(long seed) {
+        this.seed = seed;
+        v1 = seed + P1 + P2;
+        v2 = seed + P2;
+        v3 = seed;
+        v4 = seed - P1;
+    }
+
+    // Хэш массива целиком
+    public static long hash(int[] data, long seed) {
+        return new XXHash64(seed).update(data, 0, data.length).digest();
+    }
+
+    // Добавление чисел data[from .. to)
+    public XXHash64 update(int[] data, int from, int to) {
+        length += 4L * (to - from);
+        if (pendingCount > 0) { // Дополняем неполную полосу
+            while (pendingCount < STRIPE && from < to) pending[pendingCount++] = data[from++];
+            if (pendingCount < STRIPE) return this;
+            stripe(pending, 0);
+            pendingCount = 0;
+        }
+        for (; from + STRIPE <= to; from += STRIPE) stripe(data, from);
+        while (from < to) pending[pendingCount++] = data[from++];
+        return this;
+    }
+
+    // Итоговое значение (состояние не меняется)
+    public long digest() {
+        long h;
+        if (length >= 4L * STRIPE) {
+            h = Long.rotateLeft(v1, 1) + Long.rotateLeft(v2, 7) + Long.rotateLeft(v3, 12) + Long.rotateLeft(v4, 18);
+            h = merge(h, v1);
+            h = merge(h, v2);
+            h = merge(h, v3);
+            h = merge(h, v4);
+        } else {
+            h = seed + P5;
+        }
+        h += length;
+        int i = 0;
+        for (; i + 2 <= pendingCount; i += 2) {
+            h ^= round(0, lane(pending, i));
+            h = Long.rotateLeft(h, 27) * P1 + P4;
+        }
+        if (i < pendingCount) {
+            h ^= (pending[i] & 0xFFFFFFFFL) * P1;
+            h = Long.rotateLeft(h, 23) * P2 + P3;
+        }
+        h ^= h >>> 33;
+        h *= P2;
+        h ^= h >>> 29;
+        h *= P3;
+        h ^= h >>> 32;
+        return h;
+    }
+
+    private void stripe(int[] data, int from) {
+        v1 = round(v1, lane(data, from));
+        v2 = round(v2, lane(data, from + 2));
+        v3 = round(v3, lane(data, from + 4));
+        v4 = round(v4, lane(data, from + 6));
+    }
+
+    // 8 байт little-endian из двух чисел
+    private static long lane(int[] data, int i) {
+        return (data[i] & 0xFFFFFFFFL) | ((long) data[i + 1] << 32);
+    }
+
+    private static long round(long acc, long input) {
+        acc += input * P2;
+        acc = Long.rotateLeft(acc, 31);
+        return acc * P1;
+    }
+
+    private static long merge(long h, long acc) {
+        h ^= round(0, acc);
+        return h * P1 + P4;
+    }
+}